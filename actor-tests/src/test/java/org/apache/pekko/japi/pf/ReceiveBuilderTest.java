@@ -285,4 +285,41 @@ public class ReceiveBuilderTest extends JUnitSuite {
     assertTrue(rcv.onMessage().isDefinedAt("foo"));
     rcv.onMessage().apply("foo");
   }
+
+  @Test
+  public void shouldMatchInOrderWithManyCases() {
+    Receive rcv =
+        ReceiveBuilder.create()
+            .match(Integer.class, i -> i > 100, i -> result("big int"))
+            .matchEquals("foo", s -> result("equals foo"))
+            .match(Msg1.class, m -> result("Msg1"))
+            .match(Msg2.class, m -> m.value.equals("a"), m -> result("Msg2 a"))
+            .match(Msg.class, m -> result("Msg"))
+            .match(Integer.class, i -> result("int"))
+            .match(Long.class, l -> result("long"))
+            .match(Double.class, d -> result("double"))
+            .match(String.class, s -> result("string"))
+            .matchAny(o -> result("any"))
+            .build();
+    assertTrue(rcv.onMessage() instanceof ClassDispatchStatements);
+    // twice to use the cached dispatch table
+    for (int n = 0; n < 2; n++) {
+      rcv.onMessage().apply(1000);
+      assertEquals("big int", result());
+      rcv.onMessage().apply(10);
+      assertEquals("int", result());
+      rcv.onMessage().apply("foo");
+      assertEquals("equals foo", result());
+      rcv.onMessage().apply("bar");
+      assertEquals("string", result());
+      rcv.onMessage().apply(new Msg1());
+      assertEquals("Msg1", result());
+      rcv.onMessage().apply(new Msg2("a"));
+      assertEquals("Msg2 a", result());
+      rcv.onMessage().apply(new Msg2("b"));
+      assertEquals("Msg", result());
+      rcv.onMessage().apply('c');
+      assertEquals("any", result());
+    }
+  }
 }
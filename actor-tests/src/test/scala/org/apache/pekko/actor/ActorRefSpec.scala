@@ -414,6 +414,27 @@ class ActorRefSpec extends PekkoSpec("""
       system.stop(serverRef)
     }
 
+    "deliver a batch of messages in order with the same sender" in {
+      val echo = system.actorOf(Props(new Actor {
+        def receive = { case msg => sender() ! msg }
+      }))
+
+      echo.tellAll((1 to 100).toList, testActor)
+      (1 to 100).foreach(expectMsg(_))
+
+      echo.tellAll(java.util.Arrays.asList("a", "b", "c"), testActor)
+      expectMsg("a")
+      expectMsg("b")
+      expectMsg("c")
+
+      intercept[InvalidMessageException] {
+        echo.tellAll(List("d", null), testActor)
+      }
+      expectNoMessage(100.millis)
+
+      system.stop(echo)
+    }
+
     "support actorOfs where the class of the actor isn't public" in {
       val a = system.actorOf(NonPublicClass.createProps())
       a.tell("pigdog", testActor)
@@ -238,6 +238,8 @@ class DeployerSpec extends PekkoSpec(DeployerSpec.deployerConf) {
       mapping("random-group") should ===(classOf[pekko.routing.RandomGroup].getName)
       mapping("balancing-pool") should ===(classOf[pekko.routing.BalancingPool].getName)
       mapping("smallest-mailbox-pool") should ===(classOf[pekko.routing.SmallestMailboxPool].getName)
+      mapping("power-of-two-choices-pool") should ===(classOf[pekko.routing.PowerOfTwoChoicesPool].getName)
+      mapping("power-of-two-choices-group") should ===(classOf[pekko.routing.PowerOfTwoChoicesGroup].getName)
       mapping("broadcast-pool") should ===(classOf[pekko.routing.BroadcastPool].getName)
       mapping("broadcast-group") should ===(classOf[pekko.routing.BroadcastGroup].getName)
       mapping("scatter-gather-pool") should ===(classOf[pekko.routing.ScatterGatherFirstCompletedPool].getName)
@@ -150,6 +150,31 @@ class ExtensionSpec extends AnyWordSpec with Matchers {
       shutdownActorSystem(system)
     }
 
+    "load library-extensions when they are first used with lazy-extensions" in {
+      // could be initialized by other tests, but assuming tests are not running in parallel
+      val countBefore = InstanceCountingExtension.createCount.get()
+      val system = ActorSystem("extensions", ConfigFactory.parseString("pekko.lazy-extensions = on"))
+      system.hasExtension(InstanceCountingExtension) should ===(false)
+      InstanceCountingExtension.createCount.get() - countBefore should ===(0)
+
+      InstanceCountingExtension(system)
+      system.hasExtension(InstanceCountingExtension) should ===(true)
+      InstanceCountingExtension.createCount.get() - countBefore should ===(1)
+
+      shutdownActorSystem(system)
+    }
+
+    "still load the extensions listed in pekko.extensions at startup with lazy-extensions" in {
+      val system = ActorSystem(
+        "extensions",
+        ConfigFactory.parseString("""
+          pekko.lazy-extensions = on
+          pekko.extensions = ["org.apache.pekko.actor.TestExtension"]
+        """))
+      system.hasExtension(TestExtension) should ===(true)
+      shutdownActorSystem(system)
+    }
+
     "fail the actor system if a library-extension fails to start" in {
       intercept[FailingTestExtension.TestException] {
         ActorSystem(
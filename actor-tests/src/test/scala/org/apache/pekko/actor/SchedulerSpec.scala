@@ -40,6 +40,13 @@ object SchedulerSpec {
     pekko.scheduler.ticks-per-wheel = 32
   """).withFallback(PekkoSpec.testConf)
 
+  val testConfHierarchical =
+    ConfigFactory.parseString("""
+    pekko.scheduler.implementation = org.apache.pekko.actor.HierarchicalTimingWheelScheduler
+    pekko.scheduler.ticks-per-wheel = 32
+    pekko.scheduler.hierarchical-timing-wheel.expiry-batch-size = 4
+  """).withFallback(PekkoSpec.testConf)
+
 }
 
 trait SchedulerSpec extends BeforeAndAfterEach with DefaultTimeout with ImplicitSender { this: PekkoSpec =>
@@ -762,3 +769,67 @@ class LightArrayRevolverSchedulerSpec extends PekkoSpec(SchedulerSpec.testConfRe
   }
 
 }
+
+class HierarchicalTimingWheelSchedulerSpec extends PekkoSpec(SchedulerSpec.testConfHierarchical) with SchedulerSpec {
+
+  def collectCancellable(c: Cancellable): Cancellable = c
+
+  def scheduler = system.scheduler.asInstanceOf[HierarchicalTimingWheelScheduler]
+
+  def tickDuration = scheduler.TickDuration
+
+  def newScheduler() =
+    new HierarchicalTimingWheelScheduler(
+      system.settings.config,
+      log,
+      system.asInstanceOf[ActorSystemImpl].threadFactory)
+
+  "A HierarchicalTimingWheelScheduler" must {
+
+    "reject tasks scheduled too far into the future" taggedAs TimingTest in {
+      val maxDelay = tickDuration * Int.MaxValue
+      import system.dispatcher
+      system.scheduler.scheduleOnce(maxDelay, testActor, "OK")
+      intercept[IllegalArgumentException] {
+        system.scheduler.scheduleOnce(maxDelay + tickDuration, testActor, "Too far")
+      }
+    }
+
+    "hold tasks in the wheel matching their delay and remove them when cancelled" in {
+      import system.dispatcher
+      val sched = newScheduler()
+      try {
+        // 32 ticks per wheel, the second wheel covers up to 1024 ticks and the third up to 32768 ticks
+        val near = (1 to 100).map(_ => sched.scheduleOnce(500 * tickDuration, testActor, "near"))
+        val far = (1 to 1000).map(_ => sched.scheduleOnce(5000 * tickDuration, testActor, "far"))
+        awaitAssert(sched.wheelOccupancy should ===(Vector(0, 100, 1000, 0)))
+        far.foreach(_.cancel())
+        near.foreach(_.cancel())
+        awaitAssert(sched.wheelOccupancy should ===(Vector(0, 0, 0, 0)))
+      } finally sched.close()
+    }
+
+    "run all tasks expiring in the same tick" in {
+      import system.dispatcher
+      val latch = new CountDownLatch(100)
+      (1 to 100).foreach(_ => system.scheduler.scheduleOnce(3 * tickDuration)(latch.countDown()))
+      latch.await(3, TimeUnit.SECONDS) should ===(true)
+    }
+
+    "run TaskRunOnClose when closed" in {
+      import system.dispatcher
+      val sched = newScheduler()
+      val counter = new AtomicInteger()
+      sched.scheduleOnce(10.seconds)(counter.incrementAndGet())
+      sched.scheduleOnce(10.seconds,
+        new Scheduler.TaskRunOnClose {
+          override def run(): Unit = counter.incrementAndGet()
+        })
+      sched.close()
+      counter.get should ===(1)
+      intercept[IllegalStateException] {
+        sched.scheduleOnce(10.seconds)(counter.incrementAndGet())
+      }
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.actor
+
+import java.util.concurrent.{ ExecutorService, Executors, ThreadFactory }
+import java.util.concurrent.atomic.AtomicInteger
+
+import com.typesafe.config.Config
+
+import org.apache.pekko
+import pekko.dispatch.{ DispatcherPrerequisites, ExecutorServiceConfigurator, ExecutorServiceDelegate, ExecutorServiceFactory }
+import pekko.routing.{ ActorRefRoutee, BalancingPool, GetRoutees, Routees }
+import pekko.testkit.{ ImplicitSender, PekkoSpec }
+
+object TellAllSpec {
+  val executions = new AtomicInteger
+
+  class CountingExecutorConfigurator(config: Config, prerequisites: DispatcherPrerequisites)
+      extends ExecutorServiceConfigurator(config, prerequisites) {
+    def createExecutorServiceFactory(id: String, threadFactory: ThreadFactory): ExecutorServiceFactory =
+      new ExecutorServiceFactory {
+        def createExecutorService: ExecutorService =
+          new ExecutorServiceDelegate {
+            val executor = Executors.newFixedThreadPool(2, threadFactory)
+            override def execute(command: Runnable): Unit = {
+              executions.incrementAndGet()
+              executor.execute(command)
+            }
+          }
+      }
+  }
+
+  class Echo extends Actor {
+    def receive = {
+      case msg => sender() ! msg
+    }
+  }
+
+  class SlowWorker extends Actor {
+    def receive = {
+      case _ =>
+        Thread.sleep(50)
+        sender() ! self
+    }
+  }
+}
+
+class TellAllSpec extends PekkoSpec("""
+    counting-dispatcher {
+      executor = "org.apache.pekko.actor.TellAllSpec$CountingExecutorConfigurator"
+      throughput = 1000
+    }
+    """) with ImplicitSender {
+  import TellAllSpec._
+
+  "tellAll" must {
+
+    "schedule the mailbox of a local actor once for the whole batch" in {
+      val echo = system.actorOf(Props(new Echo).withDispatcher("counting-dispatcher"))
+      echo ! "started"
+      expectMsg("started")
+
+      val before = executions.get
+      echo.tellAll((1 to 100).toList, testActor)
+      (1 to 100).foreach(expectMsg(_))
+      executions.get - before should ===(1)
+    }
+
+    "spread a batch to a BalancingPool over its routees" in {
+      val pool = system.actorOf(BalancingPool(4).props(Props(new SlowWorker)))
+      pool.tellAll((1 to 20).toList, testActor)
+      receiveN(20).toSet.size should be > 1
+      system.stop(pool)
+    }
+
+    "spread a batch to a routee of a BalancingPool over the team" in {
+      val pool = system.actorOf(BalancingPool(4).props(Props(new SlowWorker)))
+      pool ! GetRoutees
+      val routee = expectMsgType[Routees].routees.collectFirst { case ActorRefRoutee(ref) => ref }.get
+      // the batch is dispatched to the shared queue of the team, not only to the mailbox of the routee
+      routee.tellAll((1 to 20).toList, testActor)
+      receiveN(20).toSet.size should be > 1
+      system.stop(pool)
+    }
+  }
+}
@@ -67,6 +67,8 @@ class ConfigSpec extends PekkoSpec(ConfigFactory.defaultReference(ActorSystem.fi
 
         getDuration("pekko.actor.unstarted-push-timeout", TimeUnit.MILLISECONDS) should ===(10.seconds.toMillis)
         settings.UnstartedPushTimeout.duration should ===(10.seconds)
+        settings.AskTimeoutBatchWindow should ===(0.millis)
+        getString("pekko.actor.dispatcher-instrumentation.class") should ===("")
 
         settings.Loggers.size should ===(1)
         settings.Loggers.head should ===(classOf[DefaultLogger].getName)
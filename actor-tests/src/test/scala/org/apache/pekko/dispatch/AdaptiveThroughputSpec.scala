@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.dispatch
+
+import com.typesafe.config.ConfigFactory
+
+import org.apache.pekko
+import pekko.actor.{ Actor, Props }
+import pekko.testkit.{ ImplicitSender, PekkoSpec }
+
+object AdaptiveThroughputSpec {
+  val config = ConfigFactory.parseString("""
+      |adaptive-dispatcher {
+      |  throughput = 5
+      |  adaptive-throughput {
+      |    enabled = on
+      |    min = 2
+      |    max = 64
+      |    target-batch-time = 1ms
+      |  }
+      |}
+    """.stripMargin)
+
+  class CountingActor extends Actor {
+    var count = 0
+    override def receive = {
+      case "get" => sender() ! count
+      case _     => count += 1
+    }
+  }
+}
+
+class AdaptiveThroughputSpec extends PekkoSpec(AdaptiveThroughputSpec.config) with ImplicitSender {
+  import AdaptiveThroughputSpec._
+
+  val adaptive = new AdaptiveThroughput(2, 64, 5, targetBatchTimeNanos = 1000000L)
+
+  "AdaptiveThroughput" must {
+
+    "not be enabled by default" in {
+      system.dispatchers.lookup("pekko.actor.default-dispatcher").adaptiveThroughput should ===(null)
+    }
+
+    "use the configured throughput as initial batch size" in {
+      val settings = system.dispatchers.lookup("adaptive-dispatcher").adaptiveThroughput
+      settings.initialThroughput should ===(5)
+      settings.minThroughput should ===(2)
+      settings.maxThroughput should ===(64)
+    }
+
+    "grow the batch size of a fast actor with a backlog" in {
+      adaptive.nextThroughput(5, 5, elapsedNanos = 5000L, hasMoreMessages = true) should ===(10)
+      adaptive.nextThroughput(40, 40, elapsedNanos = 40000L, hasMoreMessages = true) should ===(64)
+    }
+
+    "not grow the batch size when the queue was drained" in {
+      adaptive.nextThroughput(5, 3, elapsedNanos = 3000L, hasMoreMessages = false) should ===(5)
+      adaptive.nextThroughput(5, 5, elapsedNanos = 5000L, hasMoreMessages = false) should ===(5)
+    }
+
+    "not grow beyond what fits in the target batch time" in {
+      // 300 µs per message, 3 fit into 1 ms
+      adaptive.nextThroughput(2, 2, elapsedNanos = 600000L, hasMoreMessages = true) should ===(3)
+    }
+
+    "shrink the batch size of a slow actor" in {
+      // 400 µs per message, 2 fit into 1 ms
+      adaptive.nextThroughput(10, 10, elapsedNanos = 4000000L, hasMoreMessages = true) should ===(2)
+      // never below min
+      adaptive.nextThroughput(10, 1, elapsedNanos = 5000000L, hasMoreMessages = false) should ===(2)
+    }
+
+    "process all messages of an actor on an adaptive dispatcher" in {
+      val actor = system.actorOf(Props(new CountingActor).withDispatcher("adaptive-dispatcher"))
+      (1 to 10000).foreach(n => actor ! n)
+      actor ! "get"
+      expectMsg(10000)
+    }
+  }
+}
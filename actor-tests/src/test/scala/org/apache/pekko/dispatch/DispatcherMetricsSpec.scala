@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.dispatch
+
+import java.lang.management.ManagementFactory
+import javax.management.ObjectName
+
+import com.typesafe.config.ConfigFactory
+
+import org.apache.pekko
+import pekko.actor.{ Actor, Props }
+import pekko.testkit.{ ImplicitSender, PekkoSpec }
+
+object DispatcherMetricsSpec {
+  val config = ConfigFactory.parseString("""
+      |pekko.actor.dispatcher-instrumentation {
+      |  class = "org.apache.pekko.dispatch.DispatcherMetrics"
+      |  sample-interval = 1
+      |}
+      |metrics-dispatcher {
+      |  type = PinnedDispatcher
+      |  executor = thread-pool-executor
+      |}
+    """.stripMargin)
+
+  class CountingActor extends Actor {
+    var count = 0
+    override def receive = {
+      case "get" => sender() ! count
+      case _     => count += 1
+    }
+  }
+}
+
+class DispatcherMetricsSpec extends PekkoSpec(DispatcherMetricsSpec.config) with ImplicitSender {
+  import DispatcherMetricsSpec._
+
+  def metrics: DispatcherMetrics = DispatcherMetrics.get(system).get
+
+  "A DispatcherMetrics histogram" must {
+
+    "report percentiles within 25% of the recorded values" in {
+      val histogram = new DispatcherMetrics.Histogram
+      (1 to 1000).foreach(n => histogram.record(n.toLong))
+      val snapshot = histogram.snapshot()
+      snapshot.count should ===(1000L)
+      snapshot.mean should ===(500.5)
+      snapshot.max should ===(1000L)
+      snapshot.p50 should (be >= 500L and be <= 625L)
+      snapshot.p90 should (be >= 900L and be <= 1000L)
+      snapshot.p99 should (be >= 990L and be <= 1000L)
+    }
+
+    "be empty after reset" in {
+      val histogram = new DispatcherMetrics.Histogram
+      histogram.record(Long.MaxValue)
+      histogram.record(-1L)
+      histogram.snapshot().count should ===(2L)
+      histogram.reset()
+      histogram.snapshot() should ===(DispatcherMetrics.HistogramSnapshot(0L, 0.0, 0L, 0L, 0L, 0L))
+    }
+  }
+
+  "DispatcherMetrics" must {
+
+    "be loaded as the instrumentation of the dispatchers" in {
+      system.dispatchers.lookup("metrics-dispatcher").instrumentation should ===(metrics)
+    }
+
+    "collect metrics of dispatchers and actors" in {
+      val actor = system.actorOf(Props(new CountingActor).withDispatcher("metrics-dispatcher"))
+      (1 to 100).foreach(n => actor ! n)
+      actor ! "get"
+      expectMsg(100)
+
+      awaitAssert {
+        val actorMetrics = metrics.actors.find(_.actor == actor).get
+        actorMetrics.dispatcherId should ===("metrics-dispatcher")
+        actorMetrics.sampledMessages should ===(101L)
+        actorMetrics.processingTimeNanos.count should ===(101L)
+      }
+
+      val dispatcherMetrics = metrics.dispatcher("metrics-dispatcher").get
+      dispatcherMetrics.sampledMessages should ===(101L)
+      dispatcherMetrics.sampledRuns should be > 0L
+      dispatcherMetrics.scheduleDelayNanos.count should be > 0L
+    }
+
+    "register the dispatcher metrics as MBean" in {
+      val name = new ObjectName(
+        s"org.apache.pekko:type=Dispatcher,system=${ObjectName.quote(system.name)}," +
+        s"name=${ObjectName.quote("metrics-dispatcher")}")
+      val server = ManagementFactory.getPlatformMBeanServer
+      server.isRegistered(name) should ===(true)
+      server.getAttribute(name, "SampledMessages").asInstanceOf[Long] should be >= 101L
+    }
+  }
+}
@@ -277,6 +277,17 @@ class SingleConsumerOnlyMailboxSpec extends MailboxSpec {
   }
 }
 
+class ChunkedArrayMailboxSpec extends MailboxSpec {
+  lazy val name = "The chunked array mailbox implementation"
+  override def maxConsumers = 1
+  // small chunks to exercise linking and reuse of chunks
+  def factory = {
+    case _: UnboundedMailbox            => SingleConsumerOnlyChunkedArrayMailbox(4).create(None, None)
+    case _ @BoundedMailbox(capacity, _) => NonBlockingBoundedChunkedArrayMailbox(capacity, 4).create(None, None)
+    case _                              => throw new RuntimeException() // compiler exhaustiveness check pleaser
+  }
+}
+
 object SingleConsumerOnlyMailboxVerificationSpec {
   case object Ping
   val mailboxConf = ConfigFactory.parseString("""
@@ -288,6 +299,17 @@ object SingleConsumerOnlyMailboxVerificationSpec {
       mailbox-type = "org.apache.pekko.dispatch.NonBlockingBoundedMailbox"
       mailbox-capacity = 1
       throughput = 1
+      }
+      test-unbounded-chunked-dispatcher {
+      mailbox-type = "org.apache.pekko.dispatch.SingleConsumerOnlyChunkedArrayMailbox"
+      mailbox-chunk-size = 2
+      throughput = 1
+      }
+      test-bounded-chunked-dispatcher {
+      mailbox-type = "org.apache.pekko.dispatch.NonBlockingBoundedChunkedArrayMailbox"
+      mailbox-capacity = 1
+      mailbox-chunk-size = 2
+      throughput = 1
       }""")
 }
 
@@ -326,5 +348,13 @@ class SingleConsumerOnlyMailboxVerificationSpec
     "support pathological ping-ponging for the bounded case" in within(30.seconds) {
       pathologicalPingPong("test-bounded-dispatcher")
     }
+
+    "support pathological ping-ponging for the unbounded chunked array case" in within(30.seconds) {
+      pathologicalPingPong("test-unbounded-chunked-dispatcher")
+    }
+
+    "support pathological ping-ponging for the bounded chunked array case" in within(30.seconds) {
+      pathologicalPingPong("test-bounded-chunked-dispatcher")
+    }
   }
 }
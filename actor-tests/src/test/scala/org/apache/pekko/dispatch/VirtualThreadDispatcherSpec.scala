@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.dispatch
+
+import com.typesafe.config.ConfigFactory
+
+import org.apache.pekko
+import pekko.actor.{ Actor, Props }
+import pekko.testkit.{ ImplicitSender, PekkoSpec }
+import pekko.util.JavaVersion
+
+object VirtualThreadDispatcherSpec {
+  val config = ConfigFactory.parseString("""
+      |virtual-dispatcher {
+      |  executor = virtual-thread-executor
+      |  throughput = 1
+      |}
+      |virtual-carrier-dispatcher {
+      |  executor = virtual-thread-executor
+      |  virtual-thread-executor.carrier-pool {
+      |    enabled = on
+      |    parallelism-min = 2
+      |    parallelism-max = 2
+      |  }
+      |}
+      |virtual-pinned-dispatcher {
+      |  type = PinnedDispatcher
+      |  executor = virtual-thread-executor
+      |}
+      |virtual-pinned-timeout-dispatcher {
+      |  type = PinnedDispatcher
+      |  executor = virtual-thread-executor
+      |  thread-pool-executor {
+      |    keep-alive-time = 100 ms
+      |    allow-core-timeout = on
+      |  }
+      |}
+    """.stripMargin)
+
+  class ThreadInfoActor extends Actor {
+    override def receive = {
+      case "blocking" =>
+        Thread.sleep(100)
+        sender() ! "done"
+      case "thread" =>
+        val t = Thread.currentThread()
+        sender() ! (t.getName -> t.getClass.getName)
+    }
+  }
+}
+
+class VirtualThreadDispatcherSpec extends PekkoSpec(VirtualThreadDispatcherSpec.config) with ImplicitSender {
+  import VirtualThreadDispatcherSpec._
+
+  private def requireVirtualThreads(): Unit =
+    if (JavaVersion.majorVersion < 21) pending
+
+  "The virtual-thread-executor" must {
+
+    "run actors on virtual threads" in {
+      requireVirtualThreads()
+      val actor = system.actorOf(Props(new ThreadInfoActor).withDispatcher("virtual-dispatcher"))
+      actor ! "thread"
+      val (name, className) = expectMsgType[(String, String)]
+      name should include("virtual-dispatcher")
+      className should ===("java.lang.VirtualThread")
+    }
+
+    "run blocking actors concurrently" in {
+      requireVirtualThreads()
+      val actors = (1 to 200).map(_ => system.actorOf(Props(new ThreadInfoActor).withDispatcher("virtual-dispatcher")))
+      actors.foreach(_ ! "blocking")
+      // 200 actors sleeping 100 ms each would take 20 s if they were not run concurrently
+      receiveN(200) should have size 200
+    }
+
+    "run actors with a dedicated carrier pool" in {
+      requireVirtualThreads()
+      val actor = system.actorOf(Props(new ThreadInfoActor).withDispatcher("virtual-carrier-dispatcher"))
+      actor ! "thread"
+      expectMsgType[(String, String)]._1 should include("virtual-carrier-dispatcher")
+    }
+
+    "be usable with the PinnedDispatcher" in {
+      requireVirtualThreads()
+      val actor1 = system.actorOf(Props(new ThreadInfoActor).withDispatcher("virtual-pinned-dispatcher"))
+      val actor2 = system.actorOf(Props(new ThreadInfoActor).withDispatcher("virtual-pinned-dispatcher"))
+      actor1 ! "thread"
+      expectMsgType[(String, String)]._2 should ===("java.lang.VirtualThread")
+      actor2 ! "thread"
+      expectMsgType[(String, String)]._2 should ===("java.lang.VirtualThread")
+    }
+
+    "use the thread-pool-executor settings with the PinnedDispatcher" in {
+      requireVirtualThreads()
+      val actor = system.actorOf(Props(new ThreadInfoActor).withDispatcher("virtual-pinned-timeout-dispatcher"))
+      actor ! "thread"
+      val (name1, _) = expectMsgType[(String, String)]
+      // the idle virtual thread is stopped after the keep-alive-time and a new one is started
+      Thread.sleep(500)
+      actor ! "thread"
+      val (name2, className) = expectMsgType[(String, String)]
+      className should ===("java.lang.VirtualThread")
+      name2 should not be name1
+    }
+  }
+}
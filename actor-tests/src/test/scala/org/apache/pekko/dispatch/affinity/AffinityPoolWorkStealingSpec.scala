@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.dispatch.affinity
+
+import java.util.concurrent.{ CountDownLatch, Executors, TimeUnit }
+import java.util.concurrent.atomic.AtomicIntegerArray
+
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class AffinityPoolWorkStealingSpec extends AnyWordSpec with Matchers {
+
+  "CpuTopology" must {
+
+    "parse Linux cpu lists" in {
+      CpuTopology.parseCpuList("0-3,8-11\n") should ===(8)
+      CpuTopology.parseCpuList("0") should ===(1)
+      CpuTopology.parseCpuList("0,2,4-5") should ===(4)
+      CpuTopology.parseCpuList("") should ===(0)
+    }
+
+    "assign workers to groups in proportion to the group sizes" in {
+      CpuTopology.assignGroups(4, Vector(8, 8)).toList should ===(List(0, 0, 1, 1))
+      CpuTopology.assignGroups(4, Vector(12, 4)).toList should ===(List(0, 0, 0, 1))
+      CpuTopology.assignGroups(3, Vector(1)).toList should ===(List(0, 0, 0))
+      CpuTopology.assignGroups(2, Vector.empty).toList should ===(List(0, 0))
+    }
+  }
+
+  "The StealableAffinityTaskQueue" must {
+
+    "hand out every task exactly once to concurrent consumers" in {
+      val tasks = 200000
+      val consumers = 4
+      val queue = new AffinityPool.StealableAffinityTaskQueue(tasks)
+      val polled = new AtomicIntegerArray(tasks)
+      val done = new CountDownLatch(tasks)
+      val consumerThreads = (1 to consumers).map { _ =>
+        val t = new Thread(() =>
+          while (done.getCount > 0) {
+            val task = queue.poll()
+            if (task ne null) task.run()
+          })
+        t.start()
+        t
+      }
+      (0 until tasks).foreach { i =>
+        queue.add(() => {
+          polled.incrementAndGet(i)
+          done.countDown()
+        }) should ===(true)
+      }
+      done.await(10, TimeUnit.SECONDS) should ===(true)
+      consumerThreads.foreach(_.join(1000))
+      (0 until tasks).filter(i => polled.get(i) != 1) should ===(Vector.empty)
+      queue.size() should ===(0)
+    }
+
+    "reject tasks over the capacity" in {
+      val queue = new AffinityPool.StealableAffinityTaskQueue(2)
+      queue.add(() => ()) should ===(true)
+      queue.add(() => ()) should ===(true)
+      queue.add(() => ()) should ===(false)
+      queue.size() should ===(2)
+    }
+  }
+
+  "An AffinityPool with work stealing" must {
+
+    val alwaysFirstQueue = new QueueSelector {
+      override def getQueue(command: Runnable, queues: Int): Int = 0
+    }
+
+    def pool(groups: Vector[Int]) =
+      new AffinityPool(
+        "test",
+        groups.size,
+        16,
+        Executors.defaultThreadFactory(),
+        5,
+        alwaysFirstQueue,
+        new ThrowOnOverflowRejectionHandler,
+        groups,
+        stealThreshold = 1).start()
+
+    "let idle workers run tasks queued for a busy worker in the same group" in {
+      val p = pool(Vector(0, 0))
+      try {
+        val blocker = new CountDownLatch(1)
+        val done = new CountDownLatch(5)
+        p.execute(() => blocker.await())
+        (1 to 5).foreach(_ => p.execute(() => done.countDown()))
+        done.await(3, TimeUnit.SECONDS) should ===(true)
+        // either the blocking task or the others have been stolen
+        p.stolenTaskCounts.sum should be >= 1L
+        blocker.countDown()
+      } finally p.shutdownNow()
+    }
+
+    "run every task exactly once when the owner and the thieves poll the same queue" in {
+      val tasks = 100000
+      val p = new AffinityPool(
+        "test",
+        4,
+        tasks,
+        Executors.defaultThreadFactory(),
+        5,
+        alwaysFirstQueue,
+        new ThrowOnOverflowRejectionHandler,
+        Vector(0, 0, 0, 0),
+        stealThreshold = 1).start()
+      try {
+        val runs = new AtomicIntegerArray(tasks)
+        val done = new CountDownLatch(tasks)
+        (0 until tasks).foreach { i =>
+          p.execute(() => {
+            runs.incrementAndGet(i)
+            done.countDown()
+          })
+        }
+        done.await(10, TimeUnit.SECONDS) should ===(true)
+        (0 until tasks).filter(i => runs.get(i) != 1) should ===(Vector.empty)
+        p.stolenTaskCounts.sum should be > 0L
+      } finally p.shutdownNow()
+    }
+
+    "not steal from workers in other groups" in {
+      val p = pool(Vector(0, 1))
+      try {
+        val blocker = new CountDownLatch(1)
+        val done = new CountDownLatch(1)
+        p.execute(() => blocker.await())
+        p.execute(() => done.countDown())
+        done.await(200, TimeUnit.MILLISECONDS) should ===(false)
+        p.queueDepths should ===(Vector(1, 0))
+        blocker.countDown()
+        done.await(3, TimeUnit.SECONDS) should ===(true)
+        p.stolenTaskCounts should ===(Vector(0L, 0L))
+      } finally p.shutdownNow()
+    }
+  }
+}
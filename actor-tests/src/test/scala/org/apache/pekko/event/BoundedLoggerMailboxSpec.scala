@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.event
+
+import org.apache.pekko
+import pekko.actor.ActorRef
+import pekko.dispatch.Envelope
+import pekko.event.Logging.{ Info, Warning }
+import pekko.testkit.{ EventFilter, PekkoSpec }
+
+class BoundedLoggerMailboxSpec extends PekkoSpec("""
+    pekko.actor.mailbox.requirements {
+      "org.apache.pekko.event.LoggerMessageQueueSemantics" = pekko.actor.mailbox.bounded-logger-queue
+    }
+    pekko.actor.mailbox.bounded-logger-queue.capacity = 100
+    """) {
+
+  private def info(n: Int) = Info("source", classOf[BoundedLoggerMailboxSpec], s"msg-$n")
+
+  "The BoundedLoggerMailbox" must {
+
+    "drop the log events that don't fit and log how many were dropped" in {
+      val mailbox = new BoundedLoggerMailbox(testActor, system, 2)
+      (1 to 5).foreach(n => mailbox.enqueue(testActor, Envelope(info(n), ActorRef.noSender, system)))
+      mailbox.numberOfMessages should ===(2)
+
+      mailbox.dequeue().message match {
+        case w: Warning => w.message.toString should startWith("[3] log events were dropped")
+        case other      => fail(s"Expected warning, got [$other]")
+      }
+      mailbox.dequeue().message should ===(info(1))
+      mailbox.dequeue().message should ===(info(2))
+      mailbox.hasMessages should ===(false)
+      mailbox.dequeue() should ===(null)
+    }
+
+    "be usable as the mailbox of the loggers" in {
+      EventFilter.info(message = "via bounded logger queue", occurrences = 1).intercept {
+        system.log.info("via bounded logger queue")
+      }
+    }
+  }
+}
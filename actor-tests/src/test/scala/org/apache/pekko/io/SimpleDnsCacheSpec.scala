@@ -72,6 +72,47 @@ class SimpleDnsCacheSpec extends AnyWordSpec with Matchers {
       cache.cached(DnsProtocol.Resolve("test.local")) should ===(None)
     }
 
+    "return an entry for prefetch once when it is about to expire" in {
+      val localClock = new AtomicLong(0)
+      val cache: SimpleDnsCache = new SimpleDnsCache() {
+        override protected def clock() = localClock.get
+      }
+      val ttl = Ttl.fromPositive(5000.millis)
+      val cacheEntry = DnsProtocol.Resolved(
+        "test.local",
+        immutable.Seq(ARecord("test.local", ttl, InetAddress.getByName("127.0.0.1"))))
+      cache.put(("test.local", Ip()), cacheEntry, ttl)
+
+      cache.shouldPrefetch(("test.local", Ip()), 0.1) should ===(false)
+      localClock.set(4600)
+      cache.shouldPrefetch(("test.local", Ip()), 0.1) should ===(true)
+      cache.shouldPrefetch(("test.local", Ip()), 0.1) should ===(false)
+      cache.cached(DnsProtocol.Resolve("test.local")) should ===(Some(cacheEntry))
+
+      // the refreshed entry replaces the old one
+      cache.put(("test.local", Ip()), cacheEntry, ttl)
+      localClock.set(9200)
+      cache.cached(DnsProtocol.Resolve("test.local")) should ===(Some(cacheEntry))
+      cache.shouldPrefetch(("test.local", Ip()), 0.1) should ===(true)
+      cache.shouldPrefetch(("other.local", Ip()), 0.1) should ===(false)
+    }
+
+    "remove the entries that expire soonest when full" in {
+      val cache = new SimpleDnsCache(10)
+      (1 to 11).foreach { n =>
+        val ttl = Ttl.fromPositive(n.seconds)
+        val name = s"test-$n.local"
+        cache.put(
+          (name, Ip()),
+          DnsProtocol.Resolved(name, immutable.Seq(ARecord(name, ttl, InetAddress.getByName("127.0.0.1")))),
+          ttl)
+      }
+      cache.cached(DnsProtocol.Resolve("test-1.local")) should ===(None)
+      cache.cached(DnsProtocol.Resolve("test-2.local")) should ===(None)
+      cache.cached(DnsProtocol.Resolve("test-3.local")) should !==(None)
+      cache.cached(DnsProtocol.Resolve("test-11.local")) should !==(None)
+    }
+
   }
 
   // TODO test that the old protocol is converted correctly
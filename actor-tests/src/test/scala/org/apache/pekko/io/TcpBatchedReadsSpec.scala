@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.io
+
+import org.apache.pekko
+import pekko.actor.ActorRef
+import pekko.io.Tcp._
+import pekko.testkit.PekkoSpec
+import pekko.util.ByteString
+
+class TcpBatchedReadsSpec extends PekkoSpec("""
+    pekko.io.tcp.batched-reads = on
+    pekko.io.tcp.nr-of-selectors-per-core = 0.5
+    """) with TcpIntegrationSpecSupport {
+
+  def verifyActorTermination(actor: ActorRef): Unit = {
+    watch(actor)
+    expectTerminated(actor)
+  }
+
+  "The TCP transport with batched reads" should {
+
+    "use the configured number of selectors per core" in {
+      val expected = math.max(math.ceil(Runtime.getRuntime.availableProcessors * 0.5).toInt, 1)
+      Tcp(system).Settings.NrOfSelectors should ===(expected)
+    }
+
+    "deliver the data read on the selector to the handler" in new TestSetup {
+      val (clientHandler, clientConnection, serverHandler, serverConnection) = establishNewClientConnection()
+
+      (1 to 100).foreach { n =>
+        val data = ByteString(s"ping-$n")
+        clientHandler.send(clientConnection, Write(data))
+        serverHandler.expectMsg(Received(data))
+        serverHandler.send(serverConnection, Write(data))
+        clientHandler.expectMsg(Received(data))
+      }
+
+      clientHandler.send(clientConnection, Close)
+      clientHandler.expectMsg(Closed)
+      serverHandler.expectMsg(PeerClosed)
+      verifyActorTermination(clientConnection)
+      verifyActorTermination(serverConnection)
+    }
+
+    "deliver large writes in order and handle the end of the stream" in new TestSetup {
+      val (clientHandler, clientConnection, serverHandler, serverConnection) = establishNewClientConnection()
+
+      val data = ByteString(Array.tabulate[Byte](1000000)(_.toByte))
+      serverHandler.send(serverConnection, Write(data))
+      serverHandler.send(serverConnection, Close)
+      serverHandler.expectMsg(Closed)
+
+      var received = ByteString.empty
+      while (received.size < data.size) received ++= clientHandler.expectMsgType[Received].data
+      received should ===(data)
+      clientHandler.expectMsg(PeerClosed)
+
+      verifyActorTermination(clientConnection)
+      verifyActorTermination(serverConnection)
+    }
+
+    "not deliver data read on the selector after the close event" in new TestSetup {
+      val (clientHandler, clientConnection, serverHandler, serverConnection) = establishNewClientConnection()
+
+      val chunk = ByteString(Array.fill[Byte](10000)(42))
+      (1 to 100).foreach(_ => serverHandler.send(serverConnection, Write(chunk)))
+      clientHandler.expectMsgType[Received]
+      clientHandler.send(clientConnection, Close)
+
+      clientHandler.fishForMessage() {
+        case Closed      => true
+        case _: Received => false
+      }
+      clientHandler.expectNoMessage()
+      verifyActorTermination(clientConnection)
+    }
+
+    "not read while reading is suspended" in new TestSetup {
+      val (clientHandler, clientConnection, serverHandler, serverConnection) = establishNewClientConnection()
+
+      clientHandler.send(clientConnection, SuspendReading)
+      // the suspension is applied by the select loop
+      Thread.sleep(100)
+      serverHandler.send(serverConnection, Write(ByteString("hello")))
+      clientHandler.expectNoMessage()
+
+      clientHandler.send(clientConnection, ResumeReading)
+      clientHandler.expectMsg(Received(ByteString("hello")))
+    }
+  }
+}
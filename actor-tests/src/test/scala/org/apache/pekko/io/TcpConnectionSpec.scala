@@ -297,6 +297,25 @@ class TcpConnectionSpec extends PekkoSpec("""
       }
     }
 
+    "write a CompoundWrite of many small chunks spanning several buffers in order" in new EstablishedConnectionTest() {
+      run {
+        val writer = TestProbe()
+        val chunks = (0 until 2000).map(n => ByteString(Array.fill[Byte](500)(n.toByte)))
+        val compoundWrite = chunks.zipWithIndex.foldRight(Write.empty: WriteCommand) {
+          case ((chunk, n), tail) => Write(chunk, if (n % 100 == 99) Ack(n) else NoAck) +: tail
+        }
+        val size = chunks.map(_.size).sum
+
+        val buffer = ByteBuffer.allocate(size)
+        writer.send(connectionActor, compoundWrite)
+
+        pullFromServerSide(remaining = size, into = buffer)
+        buffer.flip()
+        ByteString(buffer) should ===(chunks.reduce(_ ++ _))
+        (99 until 2000 by 100).foreach(n => writer.expectMsg(Ack(n)))
+      }
+    }
+
     /*
      * Disabled on Windows: https://support.microsoft.com/kb/214397
      *
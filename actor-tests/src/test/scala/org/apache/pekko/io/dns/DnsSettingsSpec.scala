@@ -34,6 +34,7 @@ class DnsSettingsSpec extends PekkoSpec {
           ndots = 1
           positive-ttl = forever
           negative-ttl = never
+          prefetch-before-expiry = 0.1
         """)
 
   "DNS settings" must {
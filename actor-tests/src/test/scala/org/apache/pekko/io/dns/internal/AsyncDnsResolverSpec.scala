@@ -14,6 +14,7 @@
 package org.apache.pekko.io.dns.internal
 
 import java.net.{ Inet6Address, InetAddress }
+import java.util.concurrent.atomic.AtomicLong
 
 import scala.collection.{ immutable => im }
 import scala.concurrent.duration._
@@ -43,6 +44,7 @@ class AsyncDnsResolverSpec extends PekkoSpec("""
           ndots = 1
           positive-ttl = forever
           negative-ttl = never
+          prefetch-before-expiry = 0.1
         """)
 
   trait Setup {
@@ -189,6 +191,39 @@ class AsyncDnsResolverSpec extends PekkoSpec("""
       senderProbe.expectMsg(Resolved("cats.com", im.Seq(ipv4Record)))
     }
 
+    "prefetch a record that is requested shortly before it expires" in new Setup {
+      val config = defaultConfig
+        .withValue("positive-ttl", ConfigValueFactory.fromAnyRef("2s"))
+        .withValue("prefetch-before-expiry", ConfigValueFactory.fromAnyRef(0.3))
+      val localClock = new AtomicLong(0)
+      val cache: SimpleDnsCache = new SimpleDnsCache() {
+        override protected def clock() = localClock.get
+      }
+      override val r = resolver(List(dnsClient1.ref), config, cache)
+      val ipv4Record = ARecord("cats.com", Ttl.fromPositive(100.seconds), InetAddress.getByName("127.0.0.1"))
+      val request = Resolve("cats.com", Ip(ipv4 = true, ipv6 = false))
+
+      r ! request
+      dnsClient1.expectMsg(Question4(1, "cats.com"))
+      dnsClient1.reply(Answer(1, im.Seq(ipv4Record)))
+      senderProbe.expectMsg(Resolved("cats.com", im.Seq(ipv4Record)))
+
+      // less than 30% of the 2 s time to live left
+      localClock.set(1500)
+      // replied from the cache while the name is resolved again
+      r ! request
+      senderProbe.expectMsg(Resolved("cats.com", im.Seq(ipv4Record)))
+      dnsClient1.expectMsg(Question4(2, "cats.com"))
+      dnsClient1.reply(Answer(2, im.Seq(ipv4Record)))
+
+      // the first records have expired, wait until the prefetched ones have replaced them
+      localClock.set(2200)
+      awaitAssert(cache.cached(request) should ===(Some(Resolved("cats.com", im.Seq(ipv4Record)))))
+      r ! request
+      senderProbe.expectMsg(Resolved("cats.com", im.Seq(ipv4Record)))
+      dnsClient1.expectNoMessage(50.millis)
+    }
+
     "always use resolver if positive-ttl = never" in new Setup {
       val configWithSmallTtl = defaultConfig.withValue("positive-ttl", ConfigValueFactory.fromAnyRef("never"))
       override val r = resolver(List(dnsClient1.ref), configWithSmallTtl)
@@ -235,9 +270,9 @@ class AsyncDnsResolverSpec extends PekkoSpec("""
     }
   }
 
-  def resolver(clients: List[ActorRef], config: Config): ActorRef = {
+  def resolver(clients: List[ActorRef], config: Config, cache: SimpleDnsCache = new SimpleDnsCache()): ActorRef = {
     val settings = new DnsSettings(system.asInstanceOf[ExtendedActorSystem], config)
-    system.actorOf(Props(new AsyncDnsResolver(settings, new SimpleDnsCache(),
+    system.actorOf(Props(new AsyncDnsResolver(settings, cache,
       (_, _) => {
         clients
       })))
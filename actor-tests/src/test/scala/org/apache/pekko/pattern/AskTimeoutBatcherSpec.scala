@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.pattern
+
+import scala.concurrent.{ Await, Future }
+import scala.concurrent.duration._
+import scala.util.Failure
+
+import org.apache.pekko
+import pekko.actor._
+import pekko.testkit.PekkoSpec
+import pekko.util.Timeout
+
+class AskTimeoutBatcherSpec extends PekkoSpec("pekko.actor.ask-timeout-batch-window = 10ms") {
+
+  private def provider = system.asInstanceOf[ExtendedActorSystem].provider
+
+  "Asks with batched timeouts" must {
+
+    "time out all asks sharing a batched timeout, but not before their timeout" in {
+      import system.dispatcher
+      implicit val timeout: Timeout = Timeout(300.millis)
+      val silent = system.actorOf(Props(new Actor { def receive = Actor.emptyBehavior }))
+      val echo = system.actorOf(Props(new Actor { def receive = { case x => sender() ! x } }))
+      val start = System.nanoTime()
+      val timingOut = (1 to 100).map(n => silent ? n)
+      val replied = (1 to 100).map(n => echo ? n)
+      Future.sequence(replied).futureValue should ===(1 to 100)
+      timingOut.foreach { f =>
+        Await.ready(f, 3.seconds).value.get match {
+          case Failure(_: AskTimeoutException) =>
+          case v                               => fail("" + v + " was not Failure(AskTimeoutException)")
+        }
+      }
+      (System.nanoTime() - start).nanos should be >= timeout.duration
+    }
+
+    "not retain the reply, target and sender of a completed ask until the timeout" in {
+      val a = PromiseActorRef.forAsk(provider, Timeout(10.seconds), "target", "String", "test", testActor)
+      val entry = a.timeoutEntry
+      (entry.ref should be).theSameInstanceAs(a)
+
+      a ! "reply"
+      a.result.future.futureValue should ===("reply")
+      a.isTerminated should ===(true)
+      entry.ref should be(null)
+      a.timeoutEntry should be(null)
+      a.askTargetName should be(null)
+      a.askSender should be(null)
+      a.askOnTimeout should be(null)
+    }
+  }
+}
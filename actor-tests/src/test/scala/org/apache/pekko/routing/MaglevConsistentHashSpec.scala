@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.routing
+
+import scala.concurrent.Await
+
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import org.apache.pekko
+import pekko.actor.{ Actor, ActorRef, Props }
+import pekko.pattern.ask
+import pekko.routing.ConsistentHashingRouter.ConsistentHashableEnvelope
+import pekko.testkit.{ DefaultTimeout, ImplicitSender, PekkoSpec }
+
+class MaglevConsistentHashSpec extends AnyWordSpec with Matchers {
+
+  val nodes = (1 to 10).map(n => s"node-$n")
+  val keys = (1 to 10000).map(n => s"key-$n")
+
+  "A MaglevConsistentHash" must {
+
+    "spread the keys evenly over the nodes" in {
+      val table = MaglevConsistentHash(nodes, MaglevConsistentHash.DefaultTableSize)
+      val counts = keys.groupBy(key => table.nodeFor(key)).map { case (_, ks) => ks.size }
+      counts.size should ===(nodes.size)
+      counts.foreach(_ should (be > 800 and be < 1200))
+    }
+
+    "not depend on the order the nodes are added in" in {
+      val table1 = MaglevConsistentHash(nodes, 1031)
+      val table2 = nodes.reverse.foldLeft(MaglevConsistentHash(List.empty[String], 1031))(_ :+ _)
+      keys.foreach(key => table1.nodeFor(key) should ===(table2.nodeFor(key)))
+    }
+
+    "only move a small fraction of the keys of other nodes when a node is removed" in {
+      val table = MaglevConsistentHash(nodes, MaglevConsistentHash.DefaultTableSize)
+      val removed = table :- "node-3"
+      val moved = keys.count { key =>
+        val before = table.nodeFor(key)
+        before != "node-3" && removed.nodeFor(key) != before
+      }
+      moved should be < (keys.size / 50)
+      keys.foreach(key => removed.nodeFor(key) should !==("node-3"))
+    }
+
+    "lookup with bytes keys" in {
+      val table = MaglevConsistentHash(nodes, 1031)
+      table.nodeFor("key-1".getBytes("UTF-8")) should ===(table.nodeFor("key-1".getBytes("UTF-8")))
+    }
+
+    "add nodes with the same toString only once" in {
+      val table = MaglevConsistentHash(List("a", "b", "a"), 1031) :+ "b"
+      (table :- "a" :- "b").isEmpty should ===(true)
+    }
+
+    "throw IllegalStateException when empty" in {
+      val table = MaglevConsistentHash(List.empty[String], 1031)
+      table.isEmpty should ===(true)
+      intercept[IllegalStateException] {
+        table.nodeFor("key-1")
+      }
+    }
+
+    "require a prime table size" in {
+      intercept[IllegalArgumentException] {
+        MaglevConsistentHash(nodes, 1024)
+      }
+    }
+  }
+}
+
+object MaglevConsistentHashingRouterSpec {
+  val config = """
+    pekko.actor.deployment.default.consistent-hashing-lookup = maglev
+    pekko.actor.deployment.default.maglev-table-size = 1031
+    """
+
+  class Echo extends Actor {
+    def receive = {
+      case _ => sender() ! self
+    }
+  }
+}
+
+class MaglevConsistentHashingRouterSpec
+    extends PekkoSpec(MaglevConsistentHashingRouterSpec.config)
+    with DefaultTimeout
+    with ImplicitSender {
+  import MaglevConsistentHashingRouterSpec._
+
+  "A consistent hashing router with maglev lookup" must {
+
+    "select the same routee for the same key" in {
+      val router = system.actorOf(ConsistentHashingPool(nrOfInstances = 5).props(Props[Echo]()), "router")
+
+      router ! ConsistentHashableEnvelope("a", "a")
+      val destinationA = expectMsgType[ActorRef]
+      router ! ConsistentHashableEnvelope("a", "a")
+      expectMsg(destinationA)
+
+      val routees = Await.result(router ? GetRoutees, timeout.duration).asInstanceOf[Routees].routees
+      routees.size should ===(5)
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.routing
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+import org.apache.pekko
+import pekko.actor.{ Actor, ActorRef, Props }
+import pekko.pattern.ask
+import pekko.testkit.{ DefaultTimeout, ImplicitSender, PekkoSpec, TestLatch }
+
+object PowerOfTwoChoicesSpec {
+  final case class Block(latch: TestLatch)
+
+  class Worker extends Actor {
+    def receive = {
+      case Block(latch) =>
+        sender() ! self
+        Await.ready(latch, TestLatch.DefaultTimeout)
+      case _ =>
+        sender() ! self
+    }
+  }
+}
+
+class PowerOfTwoChoicesSpec extends PekkoSpec with DefaultTimeout with ImplicitSender {
+  import PowerOfTwoChoicesSpec._
+
+  "power of two choices pool" must {
+
+    "deliver messages to the routee that is not busy" in {
+      val router = system.actorOf(PowerOfTwoChoicesPool(2).props(Props[Worker]()))
+
+      val latch = TestLatch(1)
+      router ! Block(latch)
+      val busy = expectMsgType[ActorRef]
+
+      (1 to 10).foreach { n =>
+        // let the load of the routees be observed again
+        Thread.sleep(2)
+        router ! n
+        expectMsgType[ActorRef] should !==(busy)
+      }
+
+      latch.countDown()
+    }
+
+    "route to all routees" in {
+      val router = system.actorOf(PowerOfTwoChoicesPool(3).props(Props[Worker]()))
+      val routees = Await.result(router ? GetRoutees, timeout.duration).asInstanceOf[Routees].routees
+      routees.size should ===(3)
+
+      (1 to 30).foreach(n => router ! n)
+      receiveN(30).toSet.size should ===(3)
+    }
+  }
+
+  "power of two choices group" must {
+
+    "route messages to the routees" in {
+      val workers = (1 to 3).map(n => system.actorOf(Props[Worker](), s"worker-$n"))
+      val router = system.actorOf(PowerOfTwoChoicesGroup(workers.map(_.path.toStringWithoutAddress)).props())
+
+      (1 to 30).foreach(n => router ! n)
+      val recipients = receiveN(30, 5.seconds).toSet
+      recipients.size should be > 1
+      recipients.foreach(recipient => workers should contain(recipient))
+    }
+  }
+}
@@ -716,6 +716,45 @@ class ByteStringSpec extends AnyWordSpec with Matchers with Checkers {
       compact.indexOf('g', 5) should ===(5)
       compact.indexOf('g', 6) should ===(-1)
     }
+    "indexOf in long ByteStrings" in {
+      val bytes = Array.tabulate[Byte](300)(i => (i % 100).toByte)
+      bytes(250) = -1
+      for (offset <- 0 until 9) {
+        val byteString1 = ByteString.fromArrayUnsafe(bytes, offset, bytes.length - offset)
+        for (b <- List[Byte](0, 7, 99, -1, 100); from <- List(-1, 0, 1, 41, 99, 200, 299)) {
+          val expected = bytes.indexOf(b, offset + math.max(from, 0)) match {
+            case -1 => -1
+            case i  => i - offset
+          }
+          byteString1.indexOf(b, from) should ===(expected)
+          byteString1.compact.indexOf(b, from) should ===(expected)
+          (byteString1.take(100) ++ byteString1.drop(100)).indexOf(b, from) should ===(expected)
+        }
+      }
+      // elements of other types are compared like with ==
+      val byteString = ByteString(bytes)
+      byteString.indexOf(99) should ===(99)
+      byteString.indexOf(99L) should ===(99)
+      byteString.indexOf(99.0) should ===(99)
+      byteString.indexOf('c') should ===(99)
+      byteString.indexOf(255) should ===(-1)
+      byteString.indexOf(-1) should ===(250)
+      byteString.indexOf(BigInt(99)) should ===(99)
+      byteString.indexOf("c") should ===(-1)
+    }
+    "equals" in {
+      val bytes = Array.tabulate[Byte](100)(_.toByte)
+      val compact = ByteString(bytes)
+      for (offset <- 0 until 9) {
+        val byteString1 = ByteString.fromArrayUnsafe(bytes, offset, bytes.length - offset)
+        val copy = ByteString(bytes.drop(offset))
+        byteString1 should ===(copy)
+        (byteString1.take(10) ++ byteString1.drop(10)) should ===(copy)
+        byteString1 should !==(compact.drop(offset + 1) :+ 0.toByte)
+      }
+      compact should ===(bytes.toVector)
+      compact should !==(ByteString(bytes.updated(99, 0.toByte)))
+    }
     "copyToArray" in {
       val byteString = ByteString(1, 2) ++ ByteString(3) ++ ByteString(4)
 
@@ -1346,6 +1385,20 @@ class ByteStringSpec extends AnyWordSpec with Matchers with Checkers {
           data.toSeq == builder.result()
         }
       }
+
+      "reusing the builder after the size was hinted" in {
+        check { (array1: Array[Byte], array2: Array[Byte]) =>
+          val builder = ByteString.newBuilder
+          builder.sizeHint(array1.length)
+          builder.putBytes(array1)
+          val result1 = builder.result()
+          builder.clear()
+          builder.putBytes(array2)
+          builder.putByte(1)
+          val result2 = builder.result()
+          result1 == ByteString(array1) && result2 == (ByteString(array2) :+ 1.toByte)
+        }
+      }
     }
 
     "encode data correctly" when {
@@ -153,6 +153,46 @@ public class BehaviorBuilderTest extends JUnitSuite {
     probe.expectMessage("message");
   }
 
+  @Test
+  public void caseSelectedInOrderAddedWithManyCases() {
+    final TestProbe<Object> probe = testKit.createTestProbe();
+    Behavior<Object> behavior =
+        BehaviorBuilder.create()
+            .onMessage(Integer.class, i -> i > 100, i -> reply(probe, "big int"))
+            .onMessageEquals("foo", () -> reply(probe, "equals foo"))
+            .onMessage(One.class, o -> reply(probe, "One"))
+            .onMessage(Message.class, m -> reply(probe, "Message"))
+            .onMessage(Integer.class, i -> reply(probe, "int"))
+            .onMessage(Long.class, l -> reply(probe, "long"))
+            .onMessage(Double.class, d -> reply(probe, "double"))
+            .onMessage(String.class, str -> reply(probe, "string"))
+            .onAnyMessage(msg -> reply(probe, "any"))
+            .build();
+    ActorRef<Object> ref = testKit.spawn(behavior);
+    // twice to use the cached dispatch table
+    for (int n = 0; n < 2; n++) {
+      ref.tell(1000);
+      probe.expectMessage("big int");
+      ref.tell(10);
+      probe.expectMessage("int");
+      ref.tell("foo");
+      probe.expectMessage("equals foo");
+      ref.tell("bar");
+      probe.expectMessage("string");
+      ref.tell(new One());
+      probe.expectMessage("One");
+      ref.tell(new MyList<String>());
+      probe.expectMessage("Message");
+      ref.tell('c');
+      probe.expectMessage("any");
+    }
+  }
+
+  private static Behavior<Object> reply(TestProbe<Object> probe, String msg) {
+    probe.ref().tell(msg);
+    return Behaviors.same();
+  }
+
   interface CounterMessage {};
 
   static final class Increase implements CounterMessage {};
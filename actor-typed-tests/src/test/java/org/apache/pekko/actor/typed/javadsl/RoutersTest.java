@@ -44,6 +44,11 @@ public class RoutersTest extends JUnitSuite {
 
     Behavior<String> pool =
         Routers.pool(5, Behaviors.<String>empty()).withRandomRouting().withRoundRobinRouting();
+
+    Behavior<String> loadAwareGroup = Routers.group(key).withPowerOfTwoChoicesRouting();
+
+    Behavior<String> loadAwarePool =
+        Routers.pool(5, Behaviors.<String>empty()).withPowerOfTwoChoicesRouting();
   }
 
   @Test
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.actor.typed
+
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import org.apache.pekko
+import pekko.actor.InvalidMessageException
+import pekko.actor.testkit.typed.scaladsl.{ ScalaTestWithActorTestKit, TestProbe }
+import pekko.actor.typed.scaladsl.Behaviors
+
+class TellAllSpec extends ScalaTestWithActorTestKit() with AnyWordSpecLike {
+
+  private def forwardTo(probe: TestProbe[String]): Behavior[String] =
+    Behaviors.receiveMessage { msg =>
+      probe.ref ! msg
+      Behaviors.same
+    }
+
+  "ActorRef.tellAll" must {
+
+    "deliver all messages in order" in {
+      val probe = createTestProbe[String]()
+      val ref = spawn(forwardTo(probe))
+      val msgs = (1 to 100).map(_.toString)
+      ref.tellAll(msgs)
+      msgs.foreach(probe.expectMessage(_))
+
+      ref.tellAll(java.util.Arrays.asList("a", "b"))
+      probe.expectMessage("a")
+      probe.expectMessage("b")
+    }
+
+    "not send any message of a batch that contains null" in {
+      val probe = createTestProbe[String]()
+      val ref = spawn(forwardTo(probe))
+      intercept[InvalidMessageException] {
+        ref.tellAll(List("a", null))
+      }
+      probe.expectNoMessage()
+    }
+  }
+}
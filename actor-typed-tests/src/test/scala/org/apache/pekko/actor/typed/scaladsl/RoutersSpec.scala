@@ -37,9 +37,11 @@ class RoutersSpec extends ScalaTestWithActorTestKit("""
 
   def compileOnlyApiCoverage(): Unit = {
     Routers.group(ServiceKey[String]("key")).withRandomRouting().withRoundRobinRouting()
+    Routers.group(ServiceKey[String]("key")).withPowerOfTwoChoicesRouting(preferLocalRoutees = true)
 
     Routers.pool(10)(Behaviors.empty[Any]).withRandomRouting()
     Routers.pool(10)(Behaviors.empty[Any]).withRoundRobinRouting()
+    Routers.pool(10)(Behaviors.empty[Any]).withPowerOfTwoChoicesRouting()
     Routers.pool(10)(Behaviors.empty[Any]).withConsistentHashingRouting(1, (msg: Any) => msg.toString)
   }
 
@@ -81,6 +83,21 @@ class RoutersSpec extends ScalaTestWithActorTestKit("""
       messages should ===(sent.toSet)
     }
 
+    "route messages to all children with power of two choices" in {
+      val childCounter = new AtomicInteger(0)
+      val probe = createTestProbe[Int]()
+      val pool = spawn(Routers.pool[String](3)(Behaviors.setup[String] { _ =>
+        val id = childCounter.getAndIncrement()
+        Behaviors.receiveMessage { _ =>
+          probe.ref ! id
+          Behaviors.same
+        }
+      }).withPowerOfTwoChoicesRouting())
+
+      (0 to 29).foreach(n => pool ! s"message-$n")
+      probe.receiveMessages(30).toSet should ===(Set(0, 1, 2))
+    }
+
     "keep routing to the rest of the children if some children stops" in {
       val probe = createTestProbe[String]()
       val pool = spawn(Routers.pool[String](4)(Behaviors.receiveMessage {
@@ -14,11 +14,13 @@
 package org.apache.pekko.actor.typed
 
 import scala.annotation.unchecked.uncheckedVariance
+import scala.collection.immutable
 
 import org.apache.pekko
 import pekko.{ actor => classic }
 import pekko.actor.typed.internal.InternalRecipientRef
 import pekko.annotation.DoNotInherit
+import pekko.japi.Util
 
 /**
  * An ActorRef is the identity or address of an Actor instance. It is valid
@@ -41,6 +43,22 @@ trait ActorRef[-T] extends RecipientRef[T] with java.lang.Comparable[ActorRef[_]
    */
   def tell(msg: T): Unit
 
+  /**
+   * Scala API: Send all messages, in order, to the Actor referenced by this ActorRef using *at-most-once*
+   * messaging semantics. Same as calling `tell` for each of them, but a local Actor is only scheduled
+   * to run once for the whole batch instead of once per message.
+   */
+  def tellAll(msgs: immutable.Iterable[T]): Unit =
+    msgs.foreach(tell)
+
+  /**
+   * Java API: Send all messages, in order, to the Actor referenced by this ActorRef using *at-most-once*
+   * messaging semantics. Same as calling `tell` for each of them, but a local Actor is only scheduled
+   * to run once for the whole batch instead of once per message.
+   */
+  def tellAll(msgs: java.lang.Iterable[_ <: T]): Unit =
+    tellAll(Util.immutableSeq(msgs))
+
   /**
    * Narrow the type of this `ActorRef`, which is always a safe operation.
    */
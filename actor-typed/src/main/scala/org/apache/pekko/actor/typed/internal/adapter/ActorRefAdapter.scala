@@ -15,6 +15,8 @@ package org.apache.pekko.actor.typed
 package internal
 package adapter
 
+import scala.collection.immutable
+
 import org.apache.pekko
 import pekko.{ actor => classic }
 import pekko.actor.ActorRefProvider
@@ -37,6 +39,11 @@ import pekko.dispatch.sysmsg
     classicRef ! msg
   }
 
+  override def tellAll(msgs: immutable.Iterable[T]): Unit = {
+    if (msgs.exists(_ == null)) throw new InvalidMessageException("[null] is not an allowed message")
+    classicRef.tellAll(msgs, classic.Actor.noSender)
+  }
+
   // impl ActorRefImpl
   override def isLocal: Boolean = classicRef.isLocal
   // impl ActorRefImpl
@@ -51,6 +51,11 @@ private[pekko] final case class GroupRouterBuilder[T] private[pekko] (
   def withRoundRobinRouting(preferLocalRoutees: Boolean): GroupRouterBuilder[T] =
     copy(preferLocalRoutees = preferLocalRoutees, logicFactory = _ => new RoutingLogics.RoundRobinLogic[T])
 
+  def withPowerOfTwoChoicesRouting(): GroupRouterBuilder[T] = withPowerOfTwoChoicesRouting(false)
+
+  def withPowerOfTwoChoicesRouting(preferLocalRoutees: Boolean): GroupRouterBuilder[T] =
+    copy(preferLocalRoutees = preferLocalRoutees, logicFactory = _ => new RoutingLogics.PowerOfTwoChoicesLogic[T])
+
   def withConsistentHashingRouting(
       virtualNodesFactor: Int,
       mapping: function.Function[T, String]): GroupRouterBuilder[T] =
@@ -51,6 +51,9 @@ private[pekko] final case class PoolRouterBuilder[T](
 
   def withRoundRobinRouting(): PoolRouterBuilder[T] = copy(logicFactory = _ => new RoutingLogics.RoundRobinLogic[T])
 
+  def withPowerOfTwoChoicesRouting(): PoolRouterBuilder[T] =
+    copy(logicFactory = _ => new RoutingLogics.PowerOfTwoChoicesLogic[T])
+
   def withConsistentHashingRouting(virtualNodesFactor: Int, mapping: function.Function[T, String]): PoolRouter[T] =
     withConsistentHashingRouting(virtualNodesFactor, mapping.apply(_))
 
@@ -15,11 +15,15 @@ package org.apache.pekko.actor.typed.internal.routing
 
 import java.util.concurrent.ThreadLocalRandom
 
+import scala.collection.immutable
+
 import org.apache.pekko
+import pekko.{ actor => classic }
 import pekko.actor.Address
 import pekko.actor.typed.ActorRef
+import pekko.actor.typed.internal.adapter.ActorRefAdapter
 import pekko.annotation.InternalApi
-import pekko.routing.ConsistentHash
+import pekko.routing.{ ActorRefRoutee, ConsistentHash, PowerOfTwoChoicesRoutingLogic, Routee }
 
 /**
  * Kept in the behavior, not shared between instances, meant to be stateful.
@@ -121,4 +125,39 @@ private[pekko] object RoutingLogics {
     }
   }
 
+  /**
+   * Delegates to the classic [[pekko.routing.PowerOfTwoChoicesRoutingLogic]], which observes the mailboxes
+   * of local routees through their classic refs.
+   */
+  final class PowerOfTwoChoicesLogic[T] extends RoutingLogic[T] {
+
+    private val logic = PowerOfTwoChoicesRoutingLogic()
+
+    private var routees: immutable.IndexedSeq[Routee] = Vector.empty
+
+    private var routeeToRef: Map[Routee, ActorRef[T]] = Map.empty
+
+    override def selectRoutee(msg: T): ActorRef[T] = routeeToRef(logic.select(msg, routees))
+
+    override def routeesUpdated(newRoutees: Set[ActorRef[T]]): Unit = {
+      routeeToRef = newRoutees.iterator.map { ref =>
+        val routee = ref match {
+          case adapter: ActorRefAdapter[_] => ActorRefRoutee(adapter.classicRef)
+          case _                           => TypedRoutee(ref)
+        }
+        routee -> ref
+      }.toMap
+      routees = routeeToRef.keysIterator.toVector
+    }
+  }
+
+  /**
+   * Routee with unknown mailbox, for refs that are not adapted classic refs. Only used for selecting
+   * the routee, the router sends the messages to the typed ref.
+   */
+  private final case class TypedRoutee[T](ref: ActorRef[T]) extends Routee {
+    override def send(message: Any, sender: classic.ActorRef): Unit =
+      ref.unsafeUpcast[Any] ! message
+  }
+
 }
@@ -26,6 +26,7 @@ import pekko.annotation.InternalApi
 import pekko.japi.function.{ Function => JFunction }
 import pekko.japi.function.{ Predicate => JPredicate }
 import pekko.japi.function.Creator
+import pekko.util.ClassDispatchTable
 import pekko.util.OptionVal
 
 /**
@@ -193,7 +194,25 @@ object BehaviorBuilder {
 private final class BuiltBehavior[T](messageHandlers: Array[Case[T, T]], signalHandlers: Array[Case[T, Signal]])
     extends ExtensibleBehavior[T] {
 
-  override def receive(ctx: TypedActorContext[T], msg: T): Behavior[T] = receive(msg, messageHandlers, 0)
+  // null if there are too few message handlers for a dispatch table to pay off
+  private val messageDispatch: ClassDispatchTable =
+    if (messageHandlers.length < ClassDispatchTable.MinCases) null
+    else new ClassDispatchTable(messageHandlers.map(c => (if (c.`type`.isDefined) c.`type`.get else null): Class[_]))
+
+  override def receive(ctx: TypedActorContext[T], msg: T): Behavior[T] =
+    if (messageDispatch eq null) receive(msg, messageHandlers, 0)
+    else dispatch(msg)
+
+  private def dispatch(msg: T): Behavior[T] = {
+    val candidates = messageDispatch.candidates(msg.getClass)
+    var i = 0
+    while (i < candidates.length) {
+      val Case(_, predicate, handler) = messageHandlers(candidates(i))
+      if (predicate.isEmpty || predicate.get.apply(msg)) return handler(msg)
+      i += 1
+    }
+    Behaviors.unhandled[T]
+  }
 
   override def receiveSignal(ctx: TypedActorContext[T], msg: Signal): Behavior[T] = receive(msg, signalHandlers, 0)
 
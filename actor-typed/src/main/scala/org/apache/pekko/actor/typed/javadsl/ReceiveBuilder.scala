@@ -17,7 +17,7 @@ import org.apache.pekko
 import pekko.actor.typed.{ Behavior, MessageAdaptionFailure, Signal }
 import pekko.annotation.InternalApi
 import pekko.japi.function.{ Creator, Function => JFunction, Predicate => JPredicate }
-import pekko.util.OptionVal
+import pekko.util.{ ClassDispatchTable, OptionVal }
 
 import scala.annotation.tailrec
 
@@ -211,7 +211,25 @@ private final class BuiltReceive[T](
     extends Receive[T] {
   import ReceiveBuilder.Case
 
-  override def receiveMessage(msg: T): Behavior[T] = receive[T](msg, messageHandlers, 0)
+  // null if there are too few message handlers for a dispatch table to pay off
+  private val messageDispatch: ClassDispatchTable =
+    if (messageHandlers.length < ClassDispatchTable.MinCases) null
+    else new ClassDispatchTable(messageHandlers.map(c => (if (c.`type`.isDefined) c.`type`.get else null): Class[_]))
+
+  override def receiveMessage(msg: T): Behavior[T] =
+    if (messageDispatch eq null) receive[T](msg, messageHandlers, 0)
+    else dispatch(msg)
+
+  private def dispatch(msg: T): Behavior[T] = {
+    val candidates = messageDispatch.candidates(msg.getClass)
+    var i = 0
+    while (i < candidates.length) {
+      val Case(_, predicate, handler) = messageHandlers(candidates(i))
+      if (predicate.isEmpty || predicate.get.test(msg)) return handler(msg)
+      i += 1
+    }
+    Behaviors.unhandled[T]
+  }
 
   override def receiveSignal(msg: Signal): Behavior[T] = receive[Signal](msg, signalHandlers, 0)
 
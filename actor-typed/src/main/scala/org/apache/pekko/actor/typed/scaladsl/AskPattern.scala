@@ -142,29 +142,26 @@ object AskPattern {
 
   private final class PromiseRef[U](target: InternalRecipientRef[_], timeout: Timeout) {
 
-    // Note: _promiseRef mustn't have a type pattern, since it can be null
-    private[this] val (_ref: ActorRef[U], _future: Future[U], _promiseRef) =
+    // not using a tuple and pattern for the fields to avoid allocating it for every ask
+    private[this] val failure: Future[U] =
       if (target.isTerminated)
-        (
-          adapt.ActorRefAdapter[U](target.provider.deadLetters),
-          Future.failed[U](new TimeoutException(s"Recipient[$target] had already been terminated.")),
-          null)
+        Future.failed[U](new TimeoutException(s"Recipient[$target] had already been terminated."))
       else if (timeout.duration.length <= 0)
-        (
-          adapt.ActorRefAdapter[U](target.provider.deadLetters),
-          Future.failed[U](
-            new IllegalArgumentException(s"Timeout length must be positive, question not sent to [$target]")),
-          null)
-      else {
-        // messageClassName "unknown' is set later, after applying the message factory
-        val a = PromiseActorRef(target.provider, timeout, target, "unknown", target.refPrefix, onTimeout = onTimeout)
-        val b = adapt.ActorRefAdapter[U](a)
-        (b, a.result.future.asInstanceOf[Future[U]], a)
-      }
+        Future.failed[U](
+          new IllegalArgumentException(s"Timeout length must be positive, question not sent to [$target]"))
+      else null
+
+    // messageClassName "unknown' is set later, after applying the message factory
+    val promiseRef: PromiseActorRef =
+      if (failure eq null)
+        PromiseActorRef.forAsk(target.provider, timeout, target, "unknown", target.refPrefix, onTimeout = onTimeout)
+      else null
+
+    val ref: ActorRef[U] =
+      adapt.ActorRefAdapter[U](if (promiseRef eq null) target.provider.deadLetters else promiseRef)
 
-    val ref: ActorRef[U] = _ref
-    val future: Future[U] = _future
-    val promiseRef: PromiseActorRef = _promiseRef
+    val future: Future[U] =
+      if (promiseRef eq null) failure else promiseRef.result.future.asInstanceOf[Future[U]]
 
     @InternalStableApi
     private[pekko] def ask[T](target: InternalRecipientRef[T], message: T, @unused timeout: Timeout): Future[U] = {
@@ -90,6 +90,30 @@ trait GroupRouter[T] extends Behavior[T] {
    */
   def withRoundRobinRouting(preferLocalRoutees: Boolean): GroupRouter[T]
 
+  /**
+   * Route messages to the less loaded of two randomly selected routees, the "power of two choices".
+   *
+   * For routees in the same actor system the load is the number of messages in the mailbox weighted with
+   * how long the routee takes to process a message, which keeps the latency low also when messages take
+   * different time to process. For remote routees the load is based on the number of messages recently
+   * routed to them.
+   */
+  def withPowerOfTwoChoicesRouting(): GroupRouter[T]
+
+  /**
+   * Route messages to the less loaded of two randomly selected routees, the "power of two choices".
+   *
+   * For routees in the same actor system the load is the number of messages in the mailbox weighted with
+   * how long the routee takes to process a message, which keeps the latency low also when messages take
+   * different time to process. For remote routees the load is based on the number of messages recently
+   * routed to them.
+   *
+   * @param preferLocalRoutees if the value is false, all reachable routees will be used;
+   *                           if the value is true and there are local routees, only local routees will be used.
+   *                           if the value is true and there is no local routees, remote routees will be used.
+   */
+  def withPowerOfTwoChoicesRouting(preferLocalRoutees: Boolean): GroupRouter[T]
+
   /**
    * Route messages by using consistent hashing.
    *
@@ -146,6 +170,14 @@ trait PoolRouter[T] extends Behavior[T] {
    */
   def withRoundRobinRouting(): PoolRouter[T]
 
+  /**
+   * Route messages to the less loaded of two randomly selected routees, the "power of two choices".
+   *
+   * The load is the number of messages in the mailbox of the routee weighted with how long it takes to
+   * process a message, which keeps the latency low also when messages take different time to process.
+   */
+  def withPowerOfTwoChoicesRouting(): PoolRouter[T]
+
   /**
    * Route messages by using consistent hashing.
    *
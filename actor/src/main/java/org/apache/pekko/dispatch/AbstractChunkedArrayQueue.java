@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.dispatch;
+
+import org.apache.pekko.util.Unsafe;
+
+/**
+ * Lock-free multiple-producer single-consumer queue storing its elements in a linked list of
+ * fixed size array chunks, optionally bounded.
+ *
+ * Producers claim a slot by incrementing the producer index with CAS; the producer claiming the
+ * last slot of a chunk links the next chunk. The consumer keeps one exhausted chunk as spare which
+ * is reused for the next link, so that adding elements does not allocate as long as the queue
+ * length stays within two chunks.
+ *
+ * Like {@link AbstractNodeQueue} the consumer spins when a slot has been claimed by a producer but
+ * the element is not yet visible, returning null there would break actor scheduling.
+ */
+public abstract class AbstractChunkedArrayQueue<T> {
+    private final int chunkSize;
+    private final int chunkMask;
+    private final long capacity;
+
+    @SuppressWarnings("unused")
+    private volatile long _producerIndexDoNotCallMeDirectly;
+
+    @SuppressWarnings("unused")
+    private volatile Chunk _producerChunkDoNotCallMeDirectly;
+
+    @SuppressWarnings("unused")
+    private volatile long _consumerIndexDoNotCallMeDirectly;
+
+    @SuppressWarnings("unused")
+    private volatile Chunk _spareChunkDoNotCallMeDirectly;
+
+    // only accessed by the consumer
+    private Chunk consumerChunk;
+
+    /**
+     * @param chunkSize number of elements per chunk, must be a power of two
+     * @param capacity maximum number of elements in the queue, Long.MAX_VALUE for unbounded
+     */
+    protected AbstractChunkedArrayQueue(final int chunkSize, final long capacity) {
+        if (chunkSize < 2 || Integer.bitCount(chunkSize) != 1)
+            throw new IllegalArgumentException("AbstractChunkedArrayQueue.chunkSize must be a power of two >= 2");
+        if (capacity < 0) throw new IllegalArgumentException("AbstractChunkedArrayQueue.capacity must be >= 0");
+        this.chunkSize = chunkSize;
+        this.chunkMask = chunkSize - 1;
+        this.capacity = capacity;
+        final Chunk c = new Chunk(chunkSize, 0L);
+        consumerChunk = c;
+        Unsafe.instance.putObjectVolatile(this, producerChunkOffset, c);
+    }
+
+    private long getProducerIndex() {
+        return Unsafe.instance.getLongVolatile(this, producerIndexOffset);
+    }
+
+    private boolean casProducerIndex(long old, long nju) {
+        return Unsafe.instance.compareAndSwapLong(this, producerIndexOffset, old, nju);
+    }
+
+    private Chunk getProducerChunk() {
+        return (Chunk) Unsafe.instance.getObjectVolatile(this, producerChunkOffset);
+    }
+
+    private long getConsumerIndex() {
+        return Unsafe.instance.getLongVolatile(this, consumerIndexOffset);
+    }
+
+    /**
+     * Add an element to the queue.
+     *
+     * This method can be used from any thread.
+     *
+     * @param value the element to be added; must not be null
+     * @return false if the queue was full
+     */
+    protected final boolean offer(final T value) {
+        if (value == null) throw new NullPointerException("AbstractChunkedArrayQueue element must not be null");
+        for (;;) {
+            final Chunk chunk = getProducerChunk();
+            final long base = chunk.getBase();
+            final long index = getProducerIndex();
+            // otherwise the chunk is full and the producer that claimed its last slot is
+            // about to link the next chunk, retry until producerChunk has been updated
+            if (index >= base && index - base < chunkSize) {
+                if (index - getConsumerIndex() >= capacity) return false;
+                if (casProducerIndex(index, index + 1)) {
+                    final int offset = (int) (index & chunkMask);
+                    if (offset == chunkMask) linkNextChunk(chunk, base + chunkSize);
+                    chunk.setOrdered(offset, value);
+                    return true;
+                }
+            }
+        }
+    }
+
+    private void linkNextChunk(final Chunk chunk, final long base) {
+        Chunk next = (Chunk) Unsafe.instance.getAndSetObject(this, spareChunkOffset, null);
+        if (next == null) next = new Chunk(chunkSize, base);
+        else next.setBase(base);
+        chunk.setNext(next);
+        Unsafe.instance.putObjectVolatile(this, producerChunkOffset, next);
+    }
+
+    /**
+     * Pull one element from the queue if there is one.
+     *
+     * Use this method only from the consumer thread!
+     *
+     * @return element if there was one, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    protected final T poll() {
+        final long index = getConsumerIndex();
+        Chunk chunk = consumerChunk;
+        if (index - chunk.getBase() == chunkSize) {
+            if (index == getProducerIndex()) return null;
+            // the next chunk is linked before any producer can claim a slot in it
+            Chunk next;
+            do {
+                next = chunk.next();
+            } while (next == null);
+            consumerChunk = next;
+            recycle(chunk);
+            chunk = next;
+        }
+        final int offset = (int) (index & chunkMask);
+        Object value = chunk.get(offset);
+        if (value == null) {
+            if (index == getProducerIndex()) return null;
+            // the slot has been claimed, this is not going to change until producer makes progress
+            do {
+                value = chunk.get(offset);
+            } while (value == null);
+        }
+        chunk.setOrdered(offset, null);
+        Unsafe.instance.putOrderedLong(this, consumerIndexOffset, index + 1);
+        return (T) value;
+    }
+
+    private void recycle(final Chunk chunk) {
+        chunk.setNext(null);
+        if (Unsafe.instance.getObjectVolatile(this, spareChunkOffset) == null)
+            Unsafe.instance.putOrderedObject(this, spareChunkOffset, chunk);
+    }
+
+    /**
+     * Query the queue whether it is empty right now.
+     *
+     * This method can be used from any thread.
+     *
+     * @return true if queue was empty at some point in the past
+     */
+    public final boolean isEmpty() {
+        return getConsumerIndex() == getProducerIndex();
+    }
+
+    /**
+     * The number of elements in the queue, may be off while producers or the
+     * consumer are concurrently modifying the queue.
+     *
+     * This method can be used from any thread.
+     *
+     * @return number of elements in the queue at some time in the past
+     */
+    public final int size() {
+        final long consumer = getConsumerIndex();
+        final long size = getProducerIndex() - consumer;
+        if (size <= 0) return 0;
+        else if (size >= Integer.MAX_VALUE) return Integer.MAX_VALUE;
+        else return (int) size;
+    }
+
+    private final static long producerIndexOffset;
+    private final static long producerChunkOffset;
+    private final static long consumerIndexOffset;
+    private final static long spareChunkOffset;
+
+    static {
+        try {
+          producerIndexOffset = Unsafe.instance.objectFieldOffset(AbstractChunkedArrayQueue.class.getDeclaredField("_producerIndexDoNotCallMeDirectly"));
+          producerChunkOffset = Unsafe.instance.objectFieldOffset(AbstractChunkedArrayQueue.class.getDeclaredField("_producerChunkDoNotCallMeDirectly"));
+          consumerIndexOffset = Unsafe.instance.objectFieldOffset(AbstractChunkedArrayQueue.class.getDeclaredField("_consumerIndexDoNotCallMeDirectly"));
+          spareChunkOffset = Unsafe.instance.objectFieldOffset(AbstractChunkedArrayQueue.class.getDeclaredField("_spareChunkDoNotCallMeDirectly"));
+        } catch(Throwable t){
+            throw new ExceptionInInitializerError(t);
+        }
+    }
+
+    private static final class Chunk {
+        private final Object[] slots;
+
+        @SuppressWarnings("unused")
+        private volatile long _baseDoNotCallMeDirectly;
+
+        @SuppressWarnings("unused")
+        private volatile Chunk _nextDoNotCallMeDirectly;
+
+        Chunk(final int size, final long base) {
+            this.slots = new Object[size];
+            this._baseDoNotCallMeDirectly = base;
+        }
+
+        long getBase() {
+            return Unsafe.instance.getLongVolatile(this, baseOffset);
+        }
+
+        void setBase(final long base) {
+            Unsafe.instance.putLongVolatile(this, baseOffset, base);
+        }
+
+        Chunk next() {
+            return (Chunk) Unsafe.instance.getObjectVolatile(this, nextOffset);
+        }
+
+        void setNext(final Chunk next) {
+            Unsafe.instance.putOrderedObject(this, nextOffset, next);
+        }
+
+        Object get(final int offset) {
+            return Unsafe.instance.getObjectVolatile(slots, slotsBase + ((long) offset << slotsShift));
+        }
+
+        void setOrdered(final int offset, final Object value) {
+            Unsafe.instance.putOrderedObject(slots, slotsBase + ((long) offset << slotsShift), value);
+        }
+
+        private final static long baseOffset;
+        private final static long nextOffset;
+        private final static long slotsBase;
+        private final static int slotsShift;
+
+        static {
+            try {
+                baseOffset = Unsafe.instance.objectFieldOffset(Chunk.class.getDeclaredField("_baseDoNotCallMeDirectly"));
+                nextOffset = Unsafe.instance.objectFieldOffset(Chunk.class.getDeclaredField("_nextDoNotCallMeDirectly"));
+                slotsBase = Unsafe.instance.arrayBaseOffset(Object[].class);
+                slotsShift = 31 - Integer.numberOfLeadingZeros(Unsafe.instance.arrayIndexScale(Object[].class));
+            } catch(Throwable t){
+                throw new ExceptionInInitializerError(t);
+            }
+        }
+    }
+}
@@ -13,7 +13,10 @@
 
 package org.apache.pekko.japi.pf;
 
+import java.util.ArrayList;
+
 import org.apache.pekko.actor.AbstractActor.Receive;
+import org.apache.pekko.util.ClassDispatchTable;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 
@@ -44,14 +47,17 @@ import scala.runtime.BoxedUnit;
  *   );
  * }
  * </pre>
+ *
+ * <p>A receive with many cases is built as a dispatch table indexed by the class of the message,
+ * so that a message is only tested against the cases that can match its class, still in the
+ * order they were added.
  */
 public class ReceiveBuilder {
 
-  private PartialFunction<Object, BoxedUnit> statements = null;
+  private final ArrayList<PartialFunction<Object, BoxedUnit>> statements = new ArrayList<>();
 
   protected void addStatement(PartialFunction<Object, BoxedUnit> statement) {
-    if (statements == null) statements = statement;
-    else statements = statements.orElse(statement);
+    statements.add(statement);
   }
 
   /**
@@ -60,11 +66,19 @@ public class ReceiveBuilder {
    *
    * @return a PartialFunction for this builder.
    */
+  @SuppressWarnings("unchecked")
   public Receive build() {
     PartialFunction<Object, BoxedUnit> empty = CaseStatement.empty();
 
-    if (statements == null) return new Receive(empty);
-    else return new Receive(statements.orElse(empty)); // FIXME why no new Receive(statements)?
+    if (statements.isEmpty()) return new Receive(empty);
+    else if (statements.size() >= ClassDispatchTable.MinCases())
+      return new Receive(
+          new ClassDispatchStatements(statements.toArray(new PartialFunction[statements.size()])));
+    else {
+      PartialFunction<Object, BoxedUnit> chained = statements.get(0);
+      for (int i = 1; i < statements.size(); i++) chained = chained.orElse(statements.get(i));
+      return new Receive(chained.orElse(empty)); // FIXME why no new Receive(statements)?
+    }
   }
 
   /**
@@ -108,7 +122,8 @@ public class ReceiveBuilder {
           }
         };
 
-    addStatement(new UnitCaseStatement<Object, Object>(predicate, (FI.UnitApply<Object>) apply));
+    addStatement(
+        new UnitCaseStatement<Object, Object>(predicate, (FI.UnitApply<Object>) apply, type, true));
 
     return this;
   }
@@ -166,7 +181,9 @@ public class ReceiveBuilder {
           }
         };
 
-    addStatement(new UnitCaseStatement<Object, Object>(fiPredicate, (FI.UnitApply<Object>) apply));
+    addStatement(
+        new UnitCaseStatement<Object, Object>(
+            fiPredicate, (FI.UnitApply<Object>) apply, type, false));
 
     return this;
   }
@@ -195,7 +212,9 @@ public class ReceiveBuilder {
           }
         };
 
-    addStatement(new UnitCaseStatement<Object, Object>(fiPredicate, (FI.UnitApply<Object>) apply));
+    addStatement(
+        new UnitCaseStatement<Object, Object>(
+            fiPredicate, (FI.UnitApply<Object>) apply, type, false));
 
     return this;
   }
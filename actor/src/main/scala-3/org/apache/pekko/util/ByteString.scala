@@ -235,13 +235,18 @@ object ByteString {
     override def indexOf[B >: Byte](elem: B, from: Int): Int = {
       if (from >= length) -1
       else {
-        var found = -1
-        var i = math.max(from, 0)
-        while (i < length && found == -1) {
-          if (bytes(i) == elem) found = i
-          i += 1
+        val value = ByteArrays.byteValueOf(elem)
+        if (value == ByteArrays.NotAByte) -1
+        else if (value != ByteArrays.UnknownByte) ByteArrays.indexOf(bytes, value.toByte, math.max(from, 0), length)
+        else {
+          var found = -1
+          var i = math.max(from, 0)
+          while (i < length && found == -1) {
+            if (bytes(i) == elem) found = i
+            i += 1
+          }
+          found
         }
-        found
       }
     }
 
@@ -424,16 +429,27 @@ object ByteString {
     override def indexOf[B >: Byte](elem: B, from: Int): Int = {
       if (from >= length) -1
       else {
-        var found = -1
-        var i = math.max(from, 0)
-        while (i < length && found == -1) {
-          if (bytes(startIndex + i) == elem) found = i
-          i += 1
+        val value = ByteArrays.byteValueOf(elem)
+        if (value == ByteArrays.NotAByte) -1
+        else if (value != ByteArrays.UnknownByte) {
+          val found = ByteArrays.indexOf(bytes, value.toByte, startIndex + math.max(from, 0), startIndex + length)
+          if (found == -1) -1 else found - startIndex
+        } else {
+          var found = -1
+          var i = math.max(from, 0)
+          while (i < length && found == -1) {
+            if (bytes(startIndex + i) == elem) found = i
+            i += 1
+          }
+          found
         }
-        found
       }
     }
 
+    /** INTERNAL API: Tests if the bytes are equal to the bytes of `that`, which must have the same length. */
+    private[pekko] def sameBytes(that: ByteString1): Boolean =
+      ByteArrays.equals(bytes, startIndex, that.bytes, that.startIndex, length)
+
     override def copyToArray[B >: Byte](dest: Array[B], start: Int, len: Int): Int = {
       // min of the bytes available to copy, bytes there is room for in dest and the requested number of bytes
       val toCopy = math.min(math.min(len, length), dest.length - start)
@@ -826,6 +842,31 @@ sealed abstract class ByteString
     Iterator.iterate(this)(_.drop(size)).takeWhile(_.nonEmpty).map(_.take(size))
   }
 
+  override def equals(that: Any): Boolean = that match {
+    case bs: ByteString => (this eq bs) || (length == bs.length && sameBytes(bs))
+    case _              => super.equals(that)
+  }
+
+  // compares the arrays when both are contiguous, without boxing the bytes otherwise
+  private def sameBytes(that: ByteString): Boolean = {
+    val a = toByteString1OrNull
+    val b = that.toByteString1OrNull
+    if ((a ne null) && (b ne null)) a.sameBytes(b)
+    else {
+      val i = iterator
+      val j = that.iterator
+      var same = true
+      while (same && i.hasNext) same = i.next() == j.next()
+      same
+    }
+  }
+
+  private def toByteString1OrNull: ByteString.ByteString1 = this match {
+    case b: ByteString.ByteString1  => b
+    case b: ByteString.ByteString1C => b.toByteString1
+    case _                          => null
+  }
+
   override def toString(): String = {
     val maxSize = 100
     if (size > maxSize)
@@ -1078,6 +1119,9 @@ sealed abstract class CompactByteString extends ByteString with Serializable {
  * A mutable builder for efficiently creating a [[org.apache.pekko.util.ByteString]].
  *
  * The created ByteString is not automatically compacted.
+ *
+ * When the final size is hinted with `sizeHint` before the bytes are added, the
+ * created ByteString uses the array of the builder without copying it.
  */
 final class ByteStringBuilder extends Builder[Byte, ByteString] {
   builder =>
@@ -1114,9 +1158,16 @@ final class ByteStringBuilder extends Builder[Byte, ByteString] {
 
   private def clearTemp(): Unit = {
     if (_tempLength > 0) {
-      val arr = new Array[Byte](_tempLength)
-      Array.copy(_temp, 0, arr, 0, _tempLength)
-      _builder += ByteString1(arr)
+      if (_tempLength == _tempCapacity) {
+        // the array is full, e.g. when the size was hinted, hand it over instead of copying it
+        _builder += ByteString1(_temp)
+        _temp = null
+        _tempCapacity = 0
+      } else {
+        val arr = new Array[Byte](_tempLength)
+        Array.copy(_temp, 0, arr, 0, _tempLength)
+        _builder += ByteString1(arr)
+      }
       _tempLength = 0
     }
   }
@@ -335,6 +335,14 @@ private[pekko] trait Cell {
   final def sendMessage(message: Any, sender: ActorRef): Unit =
     sendMessage(Envelope(message, sender, system))
 
+  /**
+   * Enqueue messages to be sent to the actor, in order; may or may not actually
+   * schedule the actor to run, depending on which type of cell it is.
+   * Throws InvalidMessageException without sending any of the messages if one of them is null,
+   * otherwise only allowed to throw Fatal Throwables.
+   */
+  def sendMessages(messages: immutable.Iterable[Any], sender: ActorRef): Unit
+
   /**
    * Enqueue a message to be sent to the actor; may or may not actually
    * schedule the actor to run, depending on which type of cell it is.
@@ -29,6 +29,7 @@ import pekko.event.AddressTerminatedTopic
 import pekko.event.EventStream
 import pekko.event.Logging
 import pekko.event.MarkerLoggingAdapter
+import pekko.japi.Util
 import pekko.pattern.PromiseActorRef
 import pekko.serialization.JavaSerializer
 import pekko.serialization.Serialization
@@ -156,6 +157,26 @@ abstract class ActorRef extends java.lang.Comparable[ActorRef] with Serializable
    */
   def !(message: Any)(implicit sender: ActorRef = Actor.noSender): Unit
 
+  /**
+   * Scala API: Sends all of the messages to this ActorRef in order, with the same sender. The semantics are
+   * the same as sending them one by one, but a local actor is only scheduled to run once for the whole batch
+   * instead of once per message.
+   *
+   * Pass [[pekko.actor.ActorRef]] `noSender` or `null` as sender if there is nobody to reply to
+   */
+  def tellAll(messages: immutable.Iterable[Any], sender: ActorRef): Unit =
+    messages.foreach(this.!(_)(sender))
+
+  /**
+   * Java API: Sends all of the messages to this ActorRef in order, with the same sender. The semantics are
+   * the same as sending them one by one, but a local actor is only scheduled to run once for the whole batch
+   * instead of once per message.
+   *
+   * Pass [[pekko.actor.ActorRef]] `noSender` or `null` as sender if there is nobody to reply to
+   */
+  final def tellAll(messages: java.lang.Iterable[_], sender: ActorRef): Unit =
+    tellAll(Util.immutableSeq(messages), sender)
+
   /**
    * Forwards the message and passes the original sender actor as the sender.
    *
@@ -457,6 +478,9 @@ private[pekko] class LocalActorRef private[pekko] (
   override def !(message: Any)(implicit sender: ActorRef = Actor.noSender): Unit =
     actorCell.sendMessage(message, sender)
 
+  override def tellAll(messages: immutable.Iterable[Any], sender: ActorRef): Unit =
+    actorCell.sendMessages(messages, sender)
+
   override def restart(cause: Throwable): Unit = actorCell.restart(cause)
 
   @throws(classOf[java.io.ObjectStreamException])
@@ -24,7 +24,7 @@ import scala.compat.java8.FutureConverters
 import scala.compat.java8.OptionConverters._
 import scala.concurrent.{ ExecutionContext, ExecutionContextExecutor, Future, Promise }
 import scala.concurrent.blocking
-import scala.concurrent.duration.Duration
+import scala.concurrent.duration.{ Duration, FiniteDuration }
 import scala.util.{ Failure, Success, Try }
 import scala.util.control.{ ControlThrowable, NonFatal }
 
@@ -40,6 +40,7 @@ import pekko.dispatch._
 import pekko.event._
 import pekko.event.Logging.DefaultLogger
 import pekko.japi.Util.immutableSeq
+import pekko.pattern.AskTimeoutBatcher
 import pekko.serialization.SerializationExtension
 import pekko.util._
 import pekko.util.Helpers.toRootLowerCase
@@ -420,6 +421,7 @@ object ActorSystem {
     final val SupervisorStrategyClass: String = getString("pekko.actor.guardian-supervisor-strategy")
     final val CreationTimeout: Timeout = Timeout(config.getMillisDuration("pekko.actor.creation-timeout"))
     final val UnstartedPushTimeout: Timeout = Timeout(config.getMillisDuration("pekko.actor.unstarted-push-timeout"))
+    final val AskTimeoutBatchWindow: FiniteDuration = config.getMillisDuration("pekko.actor.ask-timeout-batch-window")
 
     final val AllowJavaSerialization: Boolean = getBoolean("pekko.actor.allow-java-serialization")
     @deprecated("Always enabled from Akka 2.6.0", "Akka 2.6.0")
@@ -438,6 +440,7 @@ object ActorSystem {
     final val LoggingFilter: String = getString("pekko.logging-filter")
     final val LoggerStartTimeout: Timeout = Timeout(config.getMillisDuration("pekko.logger-startup-timeout"))
     final val LogConfigOnStart: Boolean = config.getBoolean("pekko.log-config-on-start")
+    final val LazyExtensions: Boolean = config.getBoolean("pekko.lazy-extensions")
     final val LogDeadLetters: Int = toRootLowerCase(config.getString("pekko.log-dead-letters")) match {
       case "off" | "false" => 0
       case "on" | "true"   => Int.MaxValue
@@ -481,6 +484,14 @@ object ActorSystem {
         "pekko.coordinated-shutdown.terminate-actor-system=off is not a supported configuration combination.")
 
     final val DefaultVirtualNodesFactor: Int = getInt("pekko.actor.deployment.default.virtual-nodes-factor")
+    final val ConsistentHashingLookup: String =
+      getString("pekko.actor.deployment.default.consistent-hashing-lookup") match {
+        case lookup @ ("ring" | "maglev") => lookup
+        case other =>
+          throw new ConfigurationException(
+            s"Unknown pekko.actor.deployment.default.consistent-hashing-lookup [$other], use ring or maglev")
+      }
+    final val MaglevTableSize: Int = getInt("pekko.actor.deployment.default.maglev-table-size")
 
     if (ConfigVersion != Version)
       throw new pekko.ConfigurationException(
@@ -964,6 +975,10 @@ private[pekko] class ActorSystemImpl(
 
   val mailboxes: Mailboxes = new Mailboxes(settings, eventStream, dynamicAccess, deadLetters)
 
+  // null if not enabled
+  private val dispatcherInstrumentation: DispatcherInstrumentation =
+    DispatcherInstrumentation(settings, dynamicAccess)
+
   val dispatchers: Dispatchers = new Dispatchers(
     settings,
     DefaultDispatcherPrerequisites(
@@ -973,11 +988,21 @@ private[pekko] class ActorSystemImpl(
       dynamicAccess,
       settings,
       mailboxes,
-      defaultExecutionContext),
+      defaultExecutionContext,
+      dispatcherInstrumentation),
     log)
 
   val dispatcher: ExecutionContextExecutor = dispatchers.defaultGlobalDispatcher
 
+  /**
+   * INTERNAL API: null if ask timeouts are not batched
+   */
+  @InternalApi
+  private[pekko] lazy val askTimeoutBatcher: AskTimeoutBatcher =
+    if (settings.AskTimeoutBatchWindow > Duration.Zero)
+      new AskTimeoutBatcher(scheduler, settings.AskTimeoutBatchWindow.toNanos, dispatchers.internalDispatcher)
+    else null
+
   private[this] final val terminationCallbacks = new TerminationCallbacks(provider.terminationFuture)(dispatcher)
 
   override def whenTerminated: Future[Terminated] = terminationCallbacks.terminationFuture
@@ -1041,6 +1066,7 @@ private[pekko] class ActorSystemImpl(
     try {
 
       registerOnTermination(stopScheduler())
+      if (dispatcherInstrumentation ne null) registerOnTermination(dispatcherInstrumentation.shutdown())
       // the provider is expected to start default loggers, LocalActorRefProvider does this
       provider.init(this)
       // at this point it should be initialized "enough" for most extensions that we might want to guard against otherwise
@@ -1230,7 +1256,9 @@ private[pekko] class ActorSystemImpl(
       }
     }
 
-    loadExtensions("pekko.library-extensions", throwOnLoadFail = true)
+    // the library extensions are loaded when they are first used with lazy-extensions, the ones
+    // listed in pekko.extensions are always started since that's what they are listed for
+    if (!LazyExtensions) loadExtensions("pekko.library-extensions", throwOnLoadFail = true)
     loadExtensions("pekko.extensions", throwOnLoadFail = false)
   }
 
@@ -0,0 +1,583 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.actor
+
+import java.io.Closeable
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.{ AtomicIntegerArray, AtomicLong, AtomicReference }
+
+import scala.annotation.tailrec
+import scala.collection.immutable
+import scala.concurrent.{ Await, ExecutionContext, Future, Promise }
+import scala.concurrent.duration._
+import scala.util.control.NonFatal
+
+import com.typesafe.config.Config
+
+import org.apache.pekko
+import pekko.event.LoggingAdapter
+import pekko.util.Helpers
+import pekko.util.Unsafe.{ instance => unsafe }
+
+/**
+ * This scheduler implementation is based on hierarchical timing wheels as
+ * described by Varghese and Lauck: `levels` wheels of `ticks-per-wheel` buckets
+ * each, where one bucket of a wheel spans a full rotation of the next finer
+ * wheel. Tasks are put into the finest wheel that covers their deadline and
+ * cascade down into finer wheels when the bucket holding them is reached, which
+ * means that a task is touched at most `levels` times, however far in the future
+ * it is scheduled (the [[LightArrayRevolverScheduler]] revisits a task on every
+ * rotation of its single wheel).
+ *
+ * The buckets are doubly linked lists which are only accessed by the timer
+ * thread. New and cancelled tasks are handed to the timer thread via lock-free
+ * stacks linked through the tasks themselves, so that neither scheduling nor
+ * cancelling allocates anything but the task. Cancelled tasks are unlinked from
+ * their bucket within one tick, instead of being left in the wheel until their
+ * deadline, which keeps the memory footprint proportional to the number of live
+ * timers when most timers are cancelled (e.g. ask timeouts).
+ *
+ * Tasks expiring in the same tick which are consecutive in their bucket and use
+ * the same ExecutionContext are handed to it as one Runnable of up to
+ * `expiry-batch-size` tasks.
+ *
+ * Like the [[LightArrayRevolverScheduler]] this scheduler does not obtain a
+ * current time stamp when scheduling single-shot tasks, instead it always
+ * rounds up the task delay to a full multiple of the TickDuration.
+ */
+class HierarchicalTimingWheelScheduler(config: Config, log: LoggingAdapter, threadFactory: ThreadFactory)
+    extends Scheduler
+    with Closeable {
+
+  import Helpers.ConfigOps
+  import Helpers.Requiring
+
+  val WheelSize =
+    config
+      .getInt("pekko.scheduler.ticks-per-wheel")
+      .requiring(ticks => ticks >= 2 && (ticks & (ticks - 1)) == 0, "ticks-per-wheel must be a power of 2")
+  val TickDuration =
+    config
+      .getMillisDuration("pekko.scheduler.tick-duration")
+      .requiring(
+        _ >= 10.millis || !Helpers.isWindows,
+        "minimum supported pekko.scheduler.tick-duration on Windows is 10ms")
+      .requiring(_ >= 1.millis, "minimum supported pekko.scheduler.tick-duration is 1ms")
+  val ShutdownTimeout = config.getMillisDuration("pekko.scheduler.shutdown-timeout")
+
+  private val wheelBits = Integer.numberOfTrailingZeros(WheelSize)
+
+  val Levels =
+    config
+      .getInt("pekko.scheduler.hierarchical-timing-wheel.levels")
+      .requiring(
+        levels => levels >= 1 && levels * wheelBits <= 62,
+        "hierarchical-timing-wheel.levels must be >= 1 and levels * log2(ticks-per-wheel) must not exceed 62")
+  val ExpiryBatchSize =
+    config
+      .getInt("pekko.scheduler.hierarchical-timing-wheel.expiry-batch-size")
+      .requiring(_ >= 1, "hierarchical-timing-wheel.expiry-batch-size must be >= 1")
+
+  import HierarchicalTimingWheelScheduler._
+
+  private def roundUp(d: FiniteDuration): FiniteDuration = {
+    val dn = d.toNanos
+    val r = ((dn - 1) / tickNanos + 1) * tickNanos
+    if (r != dn && r > 0 && dn > 0) r.nanos else d
+  }
+
+  /**
+   * Clock implementation is replaceable (for testing); the implementation must
+   * return a monotonically increasing series of Long nanoseconds.
+   */
+  protected def clock(): Long = System.nanoTime
+
+  /**
+   * Overridable for tests
+   */
+  protected def getShutdownTimeout: FiniteDuration = ShutdownTimeout
+
+  /**
+   * Overridable for tests
+   */
+  protected def waitNanos(nanos: Long): Unit = {
+    // see https://www.javamex.com/tutorials/threads/sleep_issues.shtml
+    val sleepMs = if (Helpers.isWindows) (nanos + 4999999) / 10000000 * 10 else (nanos + 999999) / 1000000
+    try Thread.sleep(sleepMs)
+    catch {
+      case _: InterruptedException => Thread.currentThread().interrupt() // we got woken up
+    }
+  }
+
+  /**
+   * The number of tasks currently held by each wheel, starting with the finest one.
+   * Tasks scheduled or cancelled within the last tick may not be accounted for yet.
+   */
+  def wheelOccupancy: immutable.IndexedSeq[Int] = Vector.tabulate(Levels)(level => occupancy.get(level))
+
+  override def scheduleWithFixedDelay(initialDelay: FiniteDuration, delay: FiniteDuration)(runnable: Runnable)(
+      implicit executor: ExecutionContext): Cancellable = {
+    checkMaxDelay(roundUp(delay).toNanos)
+    super.scheduleWithFixedDelay(initialDelay, delay)(runnable)
+  }
+
+  override def schedule(initialDelay: FiniteDuration, delay: FiniteDuration, runnable: Runnable)(
+      implicit executor: ExecutionContext): Cancellable = {
+    checkMaxDelay(roundUp(delay).toNanos)
+    try new AtomicReference[Cancellable](InitialRepeatMarker) with Cancellable { self =>
+        compareAndSet(
+          InitialRepeatMarker,
+          schedule(
+            executor,
+            new AtomicLong(clock() + initialDelay.toNanos) with Runnable {
+              override def run(): Unit = {
+                try {
+                  runnable.run()
+                  val driftNanos = clock() - getAndAdd(delay.toNanos)
+                  if (self.get != null)
+                    swap(schedule(executor, this, Duration.fromNanos(Math.max(delay.toNanos - driftNanos, 1))))
+                } catch {
+                  case _: SchedulerException => // ignore failure to enqueue or terminated target actor
+                }
+              }
+            },
+            roundUp(initialDelay)))
+
+        @tailrec private def swap(c: Cancellable): Unit = {
+          get match {
+            case null => if (c != null) c.cancel()
+            case old  => if (!compareAndSet(old, c)) swap(c)
+          }
+        }
+
+        final def cancel(): Boolean = {
+          @tailrec def tailrecCancel(): Boolean = {
+            get match {
+              case null => false
+              case c =>
+                if (c.cancel()) compareAndSet(c, null)
+                else compareAndSet(c, null) || tailrecCancel()
+            }
+          }
+
+          tailrecCancel()
+        }
+
+        override def isCancelled: Boolean = get == null
+      }
+    catch {
+      case cause @ SchedulerException(msg) => throw new IllegalStateException(msg, cause)
+    }
+  }
+
+  override def scheduleOnce(delay: FiniteDuration, runnable: Runnable)(
+      implicit executor: ExecutionContext): Cancellable =
+    try schedule(executor, runnable, roundUp(delay))
+    catch {
+      case cause @ SchedulerException(msg) => throw new IllegalStateException(msg, cause)
+    }
+
+  override def close(): Unit = {
+
+    def runTask(task: Runnable): Unit = {
+      try task.run()
+      catch {
+        case e: InterruptedException => throw e
+        case _: SchedulerException   => // ignore terminated actors
+        case NonFatal(e)             => log.error(e, "exception while executing timer task")
+      }
+    }
+
+    Await.result(stop(), getShutdownTimeout).foreach { holder =>
+      holder.task match {
+        case task: Scheduler.TaskRunOnClose =>
+          runTask(task)
+        case _ => // don't run
+      }
+    }
+  }
+
+  override val maxFrequency: Double = 1.second / TickDuration
+
+  /*
+   * BELOW IS THE ACTUAL TIMER IMPLEMENTATION
+   */
+
+  private val start = clock()
+  private val tickNanos = TickDuration.toNanos
+  private val wheelMask = WheelSize - 1
+  private val submitted = new TaskStack(cancellations = false)
+  private val cancelled = new TaskStack(cancellations = true)
+  // only updated by the timer thread
+  private val occupancy = new AtomicIntegerArray(Levels)
+
+  private def schedule(ec: ExecutionContext, r: Runnable, delay: FiniteDuration): Cancellable =
+    if (delay.length <= 0L) { // use simple comparision instead of Ordering for performance
+      if (stopped.get != null) throw SchedulerException("cannot enqueue after timer shutdown")
+      ec.execute(r)
+      NotCancellable
+    } else if (stopped.get != null) {
+      throw SchedulerException("cannot enqueue after timer shutdown")
+    } else {
+      val delayNanos = delay.toNanos
+      checkMaxDelay(delayNanos)
+
+      val task = new TaskHolder(r, delayNanos, ec, cancelled)
+      submitted.push(task)
+      if (stopped.get != null && task.cancel())
+        throw SchedulerException("cannot enqueue after timer shutdown")
+      task
+    }
+
+  private def checkMaxDelay(delayNanos: Long): Unit =
+    if (delayNanos / tickNanos > Int.MaxValue)
+      // 1 second margin in the error message due to rounding
+      throw new IllegalArgumentException(
+        s"Task scheduled with [${delayNanos.nanos.toSeconds}] seconds delay, " +
+        s"which is too far in future, maximum delay is [${(tickNanos * Int.MaxValue).nanos.toSeconds - 1}] seconds")
+
+  private val stopped = new AtomicReference[Promise[immutable.Seq[TaskHolder]]]
+  private def stop(): Future[immutable.Seq[TaskHolder]] = {
+    val p = Promise[immutable.Seq[TaskHolder]]()
+    if (stopped.compareAndSet(null, p)) {
+      // Interrupting the timer thread to make it shut down faster is not good since
+      // it could be in the middle of executing the scheduled tasks, which might not
+      // respond well to being interrupted.
+      // Instead we just wait one more tick for it to finish.
+      p.future
+    } else Future.successful(Nil)
+  }
+
+  @volatile private var timerThread: Thread = threadFactory.newThread(new Runnable {
+
+    var currentTick = 0L // the next tick to be processed
+    val wheels = Array.fill(Levels)(new Array[TaskHolder](WheelSize))
+    // the tasks of the current expiry batch, they all use batchExecutionContext
+    var batch = new Array[Runnable](ExpiryBatchSize)
+    var batchSize = 0
+    var batchExecutionContext: ExecutionContext = null
+
+    private def clearAll(): immutable.Seq[TaskHolder] = {
+      val b = Vector.newBuilder[TaskHolder]
+      @tailrec def collect(task: TaskHolder, next: TaskHolder => TaskHolder): Unit =
+        if (task ne null) {
+          b += task
+          collect(next(task), next)
+        }
+      for (bucket <- wheels; head <- bucket) collect(head, _.next)
+      collect(submitted.drain(), _.nextSubmitted)
+      for (level <- 0 until Levels) occupancy.set(level, 0)
+      b.result()
+    }
+
+    private def link(task: TaskHolder, level: Int, slot: Int): Unit = {
+      val bucket = wheels(level)
+      val head = bucket(slot)
+      task.level = level
+      task.slot = slot
+      task.next = head
+      if (head ne null) head.prev = task
+      bucket(slot) = task
+      occupancy.lazySet(level, occupancy.get(level) + 1)
+    }
+
+    private def unlink(task: TaskHolder): Unit = {
+      val level = task.level
+      val prev = task.prev
+      val next = task.next
+      if (prev eq null) wheels(level)(task.slot) = next else prev.next = next
+      if (next ne null) next.prev = prev
+      task.prev = null
+      task.next = null
+      task.level = NotInWheel
+      occupancy.lazySet(level, occupancy.get(level) - 1)
+    }
+
+    /**
+     * Removes all tasks from the bucket, returning its former head, the tasks are still linked via `next`.
+     */
+    private def takeBucket(level: Int, slot: Int): TaskHolder = {
+      val bucket = wheels(level)
+      val head = bucket(slot)
+      bucket(slot) = null
+      var count = 0
+      var task = head
+      while (task ne null) {
+        task.level = NotInWheel
+        count += 1
+        task = task.next
+      }
+      occupancy.lazySet(level, occupancy.get(level) - count)
+      head
+    }
+
+    private def insert(task: TaskHolder): Unit = {
+      val remaining = task.deadline - currentTick
+      if (task.isCancelled) () // dropped when cascading
+      else if (remaining <= 0L) expire(task)
+      else {
+        var level = 0
+        while (level < Levels - 1 && remaining >= (1L << ((level + 1) * wheelBits))) level += 1
+        val horizon = 1L << (Levels * wheelBits)
+        // tasks beyond the coarsest wheel are parked in its last bucket and re-inserted when it is reached
+        val target = if (remaining < horizon) task.deadline else currentTick + horizon - 1
+        link(task, level, ((target >>> (level * wheelBits)) & wheelMask).toInt)
+      }
+    }
+
+    @tailrec private def insertAll(task: TaskHolder): Unit =
+      if (task ne null) {
+        val next = task.next
+        task.next = null
+        task.prev = null
+        insert(task)
+        insertAll(next)
+      }
+
+    @tailrec private def checkSubmitted(task: TaskHolder, time: Long): Unit =
+      if (task ne null) {
+        val next = task.nextSubmitted
+        task.nextSubmitted = null
+        if (!task.isCancelled) {
+          task.deadline = (
+            time - start + // calculate the nanos since timer start
+            task.delayNanos + // adding the desired delay
+            tickNanos - 1 // rounding up
+          ) / tickNanos // and converting to tick number
+          insert(task)
+        }
+        checkSubmitted(next, time)
+      }
+
+    @tailrec private def checkCancelled(task: TaskHolder): Unit =
+      if (task ne null) {
+        val next = task.nextCancelled
+        task.nextCancelled = null
+        // not yet in a wheel if it was cancelled before being submitted, or already expired
+        if (task.level != NotInWheel) unlink(task)
+        checkCancelled(next)
+      }
+
+    private def checkQueues(time: Long): Unit = {
+      checkSubmitted(submitted.drain(), time)
+      checkCancelled(cancelled.drain())
+      flushBatch()
+    }
+
+    private def expire(task: TaskHolder): Unit = task.extractTask(ExecutedTask) match {
+      case ExecutedTask | CancelledTask => ()
+      case runnable =>
+        val ec = task.executionContext
+        if ((batchExecutionContext ne ec) || batchSize == ExpiryBatchSize) {
+          flushBatch()
+          batchExecutionContext = ec
+        }
+        batch(batchSize) = runnable
+        batchSize += 1
+    }
+
+    private def flushBatch(): Unit =
+      if (batchSize > 0) {
+        val ec = batchExecutionContext
+        val runnable =
+          if (batchSize == 1) {
+            val r = batch(0)
+            batch(0) = null
+            r
+          } else {
+            val b = new ExpiryBatch(batch, batchSize, ec)
+            batch = new Array[Runnable](ExpiryBatchSize)
+            b
+          }
+        batchSize = 0
+        batchExecutionContext = null
+        try ec.execute(runnable)
+        catch {
+          case _: InterruptedException => Thread.currentThread().interrupt()
+          case NonFatal(e)             => ec.reportFailure(e)
+        }
+      }
+
+    private def processTick(): Unit = {
+      // cascade the coarser wheels whose next bucket starts with this tick, coarsest first so
+      // that tasks cascaded into a bucket that is also reached now are cascaded further
+      var level = Levels - 1
+      while (level > 0) {
+        val shift = level * wheelBits
+        if ((currentTick & ((1L << shift) - 1)) == 0L)
+          insertAll(takeBucket(level, ((currentTick >>> shift) & wheelMask).toInt))
+        level -= 1
+      }
+
+      @tailrec def expireAll(task: TaskHolder): Unit =
+        if (task ne null) {
+          val next = task.next
+          task.next = null
+          task.prev = null
+          expire(task)
+          expireAll(next)
+        }
+      expireAll(takeBucket(0, (currentTick & wheelMask).toInt))
+      flushBatch()
+
+      currentTick += 1
+    }
+
+    override final def run(): Unit =
+      try nextTick()
+      catch {
+        case t: Throwable =>
+          log.error(t, "exception on the timer thread of the HierarchicalTimingWheelScheduler")
+          stopped.get match {
+            case null =>
+              val thread = threadFactory.newThread(this)
+              log.info("starting new timer thread of the HierarchicalTimingWheelScheduler")
+              try thread.start()
+              catch {
+                case e: Throwable =>
+                  log.error(e, "HierarchicalTimingWheelScheduler cannot start new thread, ship’s going down!")
+                  stopped.set(Promise.successful(Nil))
+                  clearAll()
+              }
+              timerThread = thread
+            case p =>
+              assert(stopped.compareAndSet(p, Promise.successful(Nil)), "Stop signal violated in scheduler")
+              p.success(clearAll())
+          }
+          throw t
+      }
+
+    @tailrec final def nextTick(): Unit = {
+      val time = clock()
+      val sleepTime = start + (currentTick * tickNanos) - time
+
+      // new tasks are inserted before processing the tick so that they can't miss their bucket
+      checkQueues(time)
+      if (sleepTime > 0) waitNanos(sleepTime)
+      else processTick()
+
+      stopped.get match {
+        case null => nextTick()
+        case p =>
+          assert(stopped.compareAndSet(p, Promise.successful(Nil)), "Stop signal violated in scheduler")
+          p.success(clearAll())
+      }
+    }
+  })
+
+  timerThread.start()
+}
+
+object HierarchicalTimingWheelScheduler {
+  private[this] val taskOffset = unsafe.objectFieldOffset(classOf[TaskHolder].getDeclaredField("task"))
+
+  private final val NotInWheel = -1
+
+  /**
+   * INTERNAL API
+   *
+   * Lock-free stack of tasks linked through one of their fields. The timer thread takes all of
+   * them at once, in the order they have been pushed.
+   */
+  private[actor] final class TaskStack(cancellations: Boolean) extends AtomicReference[TaskHolder] {
+
+    @tailrec def push(task: TaskHolder): Unit = {
+      val head = get
+      if (cancellations) task.nextCancelled = head else task.nextSubmitted = head
+      if (!compareAndSet(head, task)) push(task)
+    }
+
+    def drain(): TaskHolder = {
+      @tailrec def reverse(task: TaskHolder, reversed: TaskHolder): TaskHolder =
+        if (task eq null) reversed
+        else if (cancellations) {
+          val next = task.nextCancelled
+          task.nextCancelled = reversed
+          reverse(next, task)
+        } else {
+          val next = task.nextSubmitted
+          task.nextSubmitted = reversed
+          reverse(next, task)
+        }
+      reverse(getAndSet(null), null)
+    }
+  }
+
+  /**
+   * INTERNAL API
+   */
+  private[actor] final class TaskHolder(
+      @volatile var task: Runnable,
+      val delayNanos: Long,
+      val executionContext: ExecutionContext,
+      cancelled: TaskStack)
+      extends Cancellable {
+
+    // published to the timer thread by pushing the task onto a TaskStack
+    var nextSubmitted: TaskHolder = _
+    var nextCancelled: TaskHolder = _
+
+    // only accessed by the timer thread
+    var deadline: Long = 0L
+    var level: Int = NotInWheel
+    var slot: Int = 0
+    var prev: TaskHolder = _
+    var next: TaskHolder = _
+
+    @tailrec
+    private[HierarchicalTimingWheelScheduler] def extractTask(replaceWith: Runnable): Runnable =
+      task match {
+        case t @ (ExecutedTask | CancelledTask) => t
+        case x                                  => if (unsafe.compareAndSwapObject(this, taskOffset, x, replaceWith)) x else extractTask(replaceWith)
+      }
+
+    override def cancel(): Boolean = extractTask(CancelledTask) match {
+      case ExecutedTask | CancelledTask => false
+      case _ =>
+        cancelled.push(this)
+        true
+    }
+
+    override def isCancelled: Boolean = task eq CancelledTask
+  }
+
+  /**
+   * INTERNAL API
+   *
+   * Tasks that expired in the same tick, run one after the other on their ExecutionContext.
+   */
+  private final class ExpiryBatch(tasks: Array[Runnable], size: Int, executionContext: ExecutionContext)
+      extends Runnable {
+    override def run(): Unit = {
+      var i = 0
+      while (i < size) {
+        try tasks(i).run()
+        catch {
+          case _: InterruptedException => Thread.currentThread().interrupt()
+          case NonFatal(e)             => executionContext.reportFailure(e)
+        }
+        i += 1
+      }
+    }
+  }
+
+  private val CancelledTask = new Runnable { def run = () }
+  private val ExecutedTask = new Runnable { def run = () }
+
+  private val NotCancellable: Cancellable = new Cancellable {
+    def cancel(): Boolean = false
+    def isCancelled: Boolean = false
+  }
+
+  private val InitialRepeatMarker: Cancellable = new Cancellable {
+    def cancel(): Boolean = false
+    def isCancelled: Boolean = false
+  }
+}
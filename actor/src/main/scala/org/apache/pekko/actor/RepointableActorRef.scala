@@ -191,6 +191,9 @@ private[pekko] class RepointableActorRef(
 
   def !(message: Any)(implicit sender: ActorRef = Actor.noSender): Unit = underlying.sendMessage(message, sender)
 
+  override def tellAll(messages: immutable.Iterable[Any], sender: ActorRef): Unit =
+    underlying.sendMessages(messages, sender)
+
   def sendSystemMessage(message: SystemMessage) = underlying.sendSystemMessage(message)
 
   @throws(classOf[java.io.ObjectStreamException])
@@ -286,6 +289,11 @@ private[pekko] class UnstartedCell(
     }
   }
 
+  def sendMessages(messages: immutable.Iterable[Any], sender: ActorRef): Unit = {
+    val envelopes = messages.iterator.map(Envelope(_, sender, system)).toVector
+    envelopes.foreach(sendMessage)
+  }
+
   def sendSystemMessage(msg: SystemMessage): Unit = {
     lock.lock() // we cannot lose system messages, ever, and we cannot throw an Error from here as well
     try {
@@ -14,6 +14,7 @@
 package org.apache.pekko.actor.dungeon
 
 import scala.annotation.tailrec
+import scala.collection.immutable
 import scala.util.control.{ NoStackTrace, NonFatal }
 import scala.util.control.Exception.Catcher
 
@@ -172,6 +173,18 @@ private[pekko] trait Dispatch { this: ActorCell =>
       dispatcher.dispatch(this, msgToDispatch)
     } catch handleException
 
+  def sendMessages(messages: immutable.Iterable[Any], sender: ActorRef): Unit = {
+    // create all envelopes first, a null message must fail the send before anything is enqueued
+    val envelopes = messages.iterator.map(Envelope(_, sender, system)).toVector
+    try {
+      val msgsToDispatch =
+        if (system.settings.SerializeAllMessages) envelopes.map(serializeAndDeserialize)
+        else envelopes
+
+      dispatcher.dispatchAll(this, msgsToDispatch)
+    } catch handleException
+  }
+
   private def serializeAndDeserialize(envelope: Envelope): Envelope = {
 
     val unwrappedMessage =
@@ -17,6 +17,7 @@ import java.{ util => ju }
 import java.util.concurrent._
 
 import scala.annotation.tailrec
+import scala.collection.immutable
 import scala.concurrent.{ ExecutionContext, ExecutionContextExecutor }
 import scala.concurrent.duration.{ Duration, FiniteDuration }
 import scala.util.control.NonFatal
@@ -26,7 +27,7 @@ import com.typesafe.config.Config
 
 import org.apache.pekko
 import pekko.actor._
-import pekko.annotation.InternalStableApi
+import pekko.annotation.{ InternalApi, InternalStableApi }
 import pekko.dispatch.affinity.AffinityPoolConfigurator
 import pekko.dispatch.sysmsg._
 import pekko.event.EventStream
@@ -305,6 +306,15 @@ abstract class MessageDispatcher(val configurator: MessageDispatcherConfigurator
    */
   protected[pekko] def dispatch(receiver: ActorCell, invocation: Envelope): Unit
 
+  /**
+   * Will be called when the dispatcher is to queue several invocations for the same receiver,
+   * in order. By default they are dispatched one by one.
+   *
+   * INTERNAL API
+   */
+  protected[pekko] def dispatchAll(receiver: ActorCell, invocations: immutable.Seq[Envelope]): Unit =
+    invocations.foreach(dispatch(receiver, _))
+
   /**
    * Suggest to register the provided mailbox for execution
    *
@@ -331,6 +341,33 @@ abstract class MessageDispatcher(val configurator: MessageDispatcherConfigurator
    */
   @inline protected[pekko] final val isThroughputDeadlineTimeDefined = throughputDeadlineTime.toMillis > 0
 
+  /**
+   * INTERNAL API
+   *
+   * Per mailbox adjustment of `throughput`, `null` if not enabled.
+   */
+  @InternalApi private[pekko] final val adaptiveThroughput: AdaptiveThroughput =
+    AdaptiveThroughput(configurator.config, throughput)
+
+  /**
+   * INTERNAL API
+   *
+   * Instrumentation of the actor system, `null` if not enabled.
+   */
+  @InternalApi private[pekko] final val instrumentation: DispatcherInstrumentation =
+    configurator.prerequisites match {
+      case p: DefaultDispatcherPrerequisites => p.instrumentation
+      case _                                 => null
+    }
+
+  /**
+   * INTERNAL API
+   *
+   * A mailbox run is sampled when the number of runs masked with this is 0.
+   */
+  @InternalApi private[pekko] final val instrumentationSampleMask: Int =
+    if (instrumentation eq null) 0 else instrumentation.sampleInterval - 1
+
   /**
    * INTERNAL API
    */
@@ -374,6 +411,8 @@ abstract class MessageDispatcherConfigurator(_config: Config, val prerequisites:
         new ThreadPoolExecutorConfigurator(config.getConfig("thread-pool-executor"), prerequisites)
       case "affinity-pool-executor" =>
         new AffinityPoolConfigurator(config.getConfig("affinity-pool-executor"), prerequisites)
+      case "virtual-thread-executor" =>
+        new VirtualThreadExecutorConfigurator(config.getConfig("virtual-thread-executor"), prerequisites)
 
       case fqcn =>
         val args = List(classOf[Config] -> config, classOf[DispatcherPrerequisites] -> prerequisites)
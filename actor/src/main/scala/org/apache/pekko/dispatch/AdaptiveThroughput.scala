@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.dispatch
+
+import com.typesafe.config.Config
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.util.Helpers.ConfigOps
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[pekko] object AdaptiveThroughput {
+
+  /**
+   * Reads the `adaptive-throughput` section of a dispatcher config, returns `null` if it is not enabled
+   * (to keep the check in `Mailbox.run` allocation free).
+   */
+  def apply(config: Config, throughput: Int): AdaptiveThroughput =
+    if (config.hasPath("adaptive-throughput.enabled") && config.getBoolean("adaptive-throughput.enabled")) {
+      val min = config.getInt("adaptive-throughput.min")
+      val max = config.getInt("adaptive-throughput.max")
+      require(min >= 1, "adaptive-throughput.min must be >= 1")
+      require(max >= min, "adaptive-throughput.max must be >= adaptive-throughput.min")
+      new AdaptiveThroughput(
+        min,
+        max,
+        initialThroughput = math.min(max, math.max(min, throughput)),
+        config.getNanosDuration("adaptive-throughput.target-batch-time").toNanos)
+    } else null
+}
+
+/**
+ * INTERNAL API
+ *
+ * Adjusts the number of messages a mailbox processes per scheduling, separately for each mailbox.
+ *
+ * After each run of a mailbox the batch size is compared to how many messages fit into
+ * `targetBatchTimeNanos` given the observed processing time per message:
+ *
+ *  - if the batch took longer than the target the actor yields sooner next time, so that slow
+ *    actors don't delay other actors on the same dispatcher
+ *  - if the whole batch was processed within the target and there are more messages queued the batch
+ *    size grows (at most doubling per run), so that hot actors with cheap messages are not
+ *    rescheduled for every few messages
+ */
+@InternalApi
+private[pekko] final class AdaptiveThroughput(
+    val minThroughput: Int,
+    val maxThroughput: Int,
+    val initialThroughput: Int,
+    val targetBatchTimeNanos: Long) {
+
+  /**
+   * @param current the batch size of the run that just completed
+   * @param processed number of messages processed in the run
+   * @param elapsedNanos time spent processing the messages
+   * @param hasMoreMessages if there were messages left in the queue after the run
+   * @return the batch size to use for the next run of the mailbox
+   */
+  def nextThroughput(current: Int, processed: Int, elapsedNanos: Long, hasMoreMessages: Boolean): Int =
+    if (processed <= 0) current
+    else if (elapsedNanos > targetBatchTimeNanos) clamp(fitting(processed, elapsedNanos))
+    else if (processed >= current && hasMoreMessages)
+      clamp(math.min(current.toLong * 2, fitting(processed, elapsedNanos)))
+    else current
+
+  private def fitting(processed: Int, elapsedNanos: Long): Long = {
+    val nanosPerMessage = elapsedNanos / processed
+    if (nanosPerMessage <= 0L) maxThroughput
+    else targetBatchTimeNanos / nanosPerMessage
+  }
+
+  private def clamp(n: Long): Int =
+    if (n <= minThroughput) minThroughput
+    else if (n >= maxThroughput) maxThroughput
+    else n.toInt
+}
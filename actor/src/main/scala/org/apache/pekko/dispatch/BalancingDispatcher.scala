@@ -17,6 +17,7 @@ import java.util.{ Comparator, Iterator }
 import java.util.concurrent.ConcurrentSkipListSet
 
 import scala.annotation.tailrec
+import scala.collection.immutable
 import scala.concurrent.duration.Duration
 import scala.concurrent.duration.FiniteDuration
 
@@ -109,6 +110,34 @@ private[pekko] class BalancingDispatcher(
     if (!registerForExecution(receiver.mailbox, false, false)) teamWork()
   }
 
+  /**
+   * INTERNAL API
+   *
+   * Enqueues all invocations to the shared queue and then, like `dispatch` does per invocation, schedules
+   * the receiver or wakes up another member of the team for each of them, so that the batch is spread
+   * over the team.
+   */
+  protected[pekko] override def dispatchAll(receiver: ActorCell, invocations: immutable.Seq[Envelope]): Unit = {
+    val self = receiver.self
+    var enqueued = 0
+    try {
+      invocations.foreach { invocation =>
+        messageQueue.enqueue(self, invocation)
+        enqueued += 1
+      }
+    } finally {
+      if (enqueued > 0) {
+        if (registerForExecution(receiver.mailbox, false, false)) enqueued -= 1
+        // each teamWork schedules at most one more member, no need to try more often than the team is large
+        var remaining = math.min(enqueued, team.size)
+        while (remaining > 0) {
+          teamWork()
+          remaining -= 1
+        }
+      }
+    }
+  }
+
   protected def teamWork(): Unit =
     if (attemptTeamWork) {
       @tailrec def scheduleOne(i: Iterator[ActorCell] = team.iterator): Unit =
@@ -16,6 +16,7 @@ package org.apache.pekko.dispatch
 import java.util.concurrent.{ ExecutorService, RejectedExecutionException }
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater
 
+import scala.collection.immutable
 import scala.concurrent.duration.Duration
 import scala.concurrent.duration.FiniteDuration
 
@@ -51,7 +52,11 @@ class Dispatcher(
   import configurator.prerequisites._
 
   private class LazyExecutorServiceDelegate(factory: ExecutorServiceFactory) extends ExecutorServiceDelegate {
-    lazy val executor: ExecutorService = factory.createExecutorService
+    lazy val executor: ExecutorService = {
+      val created = factory.createExecutorService
+      if (instrumentation ne null) instrumentation.executorCreated(id, created)
+      created
+    }
     def copy(): LazyExecutorServiceDelegate = new LazyExecutorServiceDelegate(factory)
   }
 
@@ -74,6 +79,26 @@ class Dispatcher(
     registerForExecution(mbox, true, false)
   }
 
+  /**
+   * INTERNAL API
+   *
+   * Enqueues all invocations before scheduling the mailbox, so that it is only scheduled once
+   * for the whole batch.
+   */
+  protected[pekko] override def dispatchAll(receiver: ActorCell, invocations: immutable.Seq[Envelope]): Unit = {
+    val mbox = receiver.mailbox
+    val self = receiver.self
+    var enqueued = false
+    try {
+      invocations.foreach { invocation =>
+        mbox.enqueue(self, invocation)
+        enqueued = true
+      }
+    } finally {
+      if (enqueued) registerForExecution(mbox, true, false)
+    }
+  }
+
   /**
    * INTERNAL API
    */
@@ -133,6 +158,7 @@ class Dispatcher(
       hasSystemMessageHint: Boolean): Boolean = {
     if (mbox.canBeScheduledForExecution(hasMessageHint, hasSystemMessageHint)) { // This needs to be here to ensure thread safety and no races
       if (mbox.setAsScheduled()) {
+        if (instrumentation ne null) mbox.runState.scheduledAtNanos = System.nanoTime()
         try {
           executorService.execute(mbox)
           true
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.dispatch
+
+import java.util.concurrent.ExecutorService
+
+import org.apache.pekko
+import pekko.ConfigurationException
+import pekko.actor.{ ActorRef, ActorSystem, DynamicAccess }
+import pekko.annotation.{ ApiMayChange, InternalApi }
+
+/**
+ * Service provider interface for observing how the dispatchers of an actor system run actors, e.g. to
+ * collect metrics of mailbox sizes, message processing times and scheduling delays.
+ *
+ * One instance is created per actor system from the class configured with
+ * `pekko.actor.dispatcher-instrumentation.class`, which must have a public constructor
+ * taking the [[pekko.actor.ActorSystem.Settings]]. The built-in implementation is [[DispatcherMetrics]].
+ *
+ * Only every `sampleInterval`:th run of each mailbox is measured and reported. The callbacks are invoked
+ * on the threads running the actors, concurrently for different actors, and must be thread safe and
+ * return quickly.
+ */
+@ApiMayChange
+abstract class DispatcherInstrumentation {
+
+  /**
+   * Every n:th run of a mailbox is measured, must be a power of two. 1 measures every run.
+   */
+  def sampleInterval: Int
+
+  /**
+   * Called each time the executor of a dispatcher has been (re)created, e.g. to expose the size
+   * and the queue of the thread pool.
+   */
+  def executorCreated(dispatcherId: String, executor: ExecutorService): Unit
+
+  /**
+   * Called for each message processed by a sampled mailbox run.
+   *
+   * @param processingNanos time spent in the actor processing the message
+   */
+  def messageProcessed(dispatcherId: String, actor: ActorRef, processingNanos: Long): Unit
+
+  /**
+   * Called at the end of a sampled mailbox run.
+   *
+   * @param scheduleDelayNanos time from the mailbox being submitted to the executor until the run started,
+   *                           or -1 if not known
+   * @param messages number of messages processed in the run
+   * @param processingNanos total time spent processing the messages
+   * @param mailboxSize number of messages left in the mailbox for bounded mailboxes and the chunked array
+   *                    mailbox, always 0 for the other mailboxes since they can't count efficiently
+   */
+  def mailboxRun(
+      dispatcherId: String,
+      actor: ActorRef,
+      scheduleDelayNanos: Long,
+      messages: Int,
+      processingNanos: Long,
+      mailboxSize: Int): Unit
+
+  /**
+   * Called when the actor system has terminated.
+   */
+  def shutdown(): Unit = ()
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[pekko] object DispatcherInstrumentation {
+
+  /**
+   * The configured instrumentation, or null if not enabled
+   */
+  def apply(settings: ActorSystem.Settings, dynamicAccess: DynamicAccess): DispatcherInstrumentation =
+    settings.config.getString("pekko.actor.dispatcher-instrumentation.class") match {
+      case "" => null
+      case fqcn =>
+        val instrumentation = dynamicAccess
+          .createInstanceFor[DispatcherInstrumentation](fqcn, List(classOf[ActorSystem.Settings] -> settings))
+          .recover {
+            case exception =>
+              throw new ConfigurationException(
+                s"Cannot instantiate DispatcherInstrumentation [$fqcn], make sure it extends " +
+                "[org.apache.pekko.dispatch.DispatcherInstrumentation] and has a public constructor with " +
+                "[org.apache.pekko.actor.ActorSystem.Settings] parameter",
+                exception)
+          }
+          .get
+        val interval = instrumentation.sampleInterval
+        if (interval < 1 || Integer.bitCount(interval) != 1)
+          throw new ConfigurationException(
+            s"sampleInterval of DispatcherInstrumentation [$fqcn] must be a power of two, was [$interval]")
+        instrumentation
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.dispatch
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.{ ConcurrentHashMap, ExecutorService, ForkJoinPool, ThreadPoolExecutor }
+import java.util.concurrent.atomic.{ AtomicLong, AtomicLongArray, LongAccumulator, LongAdder }
+import javax.management.ObjectName
+
+import scala.collection.immutable
+import scala.util.control.NonFatal
+
+import org.apache.pekko
+import pekko.actor.{ ActorRef, ActorSystem }
+import pekko.annotation.{ ApiMayChange, InternalApi }
+import pekko.util.ccompat.JavaConverters._
+
+/**
+ * Built-in [[DispatcherInstrumentation]] that keeps sampled counters and histograms per dispatcher and
+ * per actor. Enable it with
+ * `pekko.actor.dispatcher-instrumentation.class = "org.apache.pekko.dispatch.DispatcherMetrics"`.
+ *
+ * The metrics of a system are read with `DispatcherMetrics.get(system)`. When `jmx-enabled` is on, the
+ * metrics of each dispatcher are also available as an MBean named
+ * `org.apache.pekko:type=Dispatcher,system=<system name>,name=<dispatcher id>`.
+ *
+ * Only sampled mailbox runs are counted, the totals are approximately the sample interval
+ * times the sampled counts.
+ */
+@ApiMayChange
+final class DispatcherMetrics(settings: ActorSystem.Settings) extends DispatcherInstrumentation {
+  import DispatcherMetrics._
+
+  private val config = settings.config.getConfig("pekko.actor.dispatcher-instrumentation")
+
+  override val sampleInterval: Int = config.getInt("sample-interval")
+
+  val MaxTrackedActors: Int = config.getInt("max-tracked-actors")
+
+  private val JmxEnabled = config.getBoolean("jmx-enabled")
+
+  private val dispatcherStats = new ConcurrentHashMap[String, DispatcherStats]
+  private val actorStats = new ConcurrentHashMap[ActorRef, ActorStats]
+  private val lastActorCleanup = new AtomicLong(System.nanoTime())
+
+  /**
+   * The metrics of all dispatchers that have run at least one actor or created their executor
+   */
+  def dispatchers: immutable.Seq[DispatcherSnapshot] =
+    dispatcherStats.values.asScala.iterator.map(_.snapshot()).toVector.sortBy(_.dispatcherId)
+
+  /**
+   * The metrics of the dispatcher with the given id, if it has run at least one actor or created its executor
+   */
+  def dispatcher(dispatcherId: String): Option[DispatcherSnapshot] =
+    Option(dispatcherStats.get(dispatcherId)).map(_.snapshot())
+
+  /**
+   * The metrics of the tracked actors, at most `max-tracked-actors` which are tracked from their first
+   * sampled mailbox run until they have terminated
+   */
+  def actors: immutable.Seq[ActorSnapshot] =
+    actorStats.entrySet.asScala.iterator.map(e => e.getValue.snapshot(e.getKey)).toVector
+
+  /**
+   * Clear all collected metrics
+   */
+  def reset(): Unit = {
+    dispatcherStats.values.asScala.foreach(_.reset())
+    actorStats.clear()
+  }
+
+  override def executorCreated(dispatcherId: String, executor: ExecutorService): Unit =
+    statsFor(dispatcherId).executor = executor
+
+  override def messageProcessed(dispatcherId: String, actor: ActorRef, processingNanos: Long): Unit = {
+    statsFor(dispatcherId).processingTime.record(processingNanos)
+    val stats = actorStatsFor(actor, dispatcherId)
+    if (stats ne null) stats.processingTime.record(processingNanos)
+  }
+
+  override def mailboxRun(
+      dispatcherId: String,
+      actor: ActorRef,
+      scheduleDelayNanos: Long,
+      messages: Int,
+      processingNanos: Long,
+      mailboxSize: Int): Unit = {
+    val stats = statsFor(dispatcherId)
+    stats.runs.increment()
+    stats.messages.add(messages)
+    if (scheduleDelayNanos >= 0) stats.scheduleDelay.record(scheduleDelayNanos)
+    stats.mailboxSize.record(mailboxSize)
+    val forActor = actorStatsFor(actor, dispatcherId)
+    if (forActor ne null) {
+      forActor.messages.add(messages)
+      forActor.lastMailboxSize = mailboxSize
+      forActor.maxMailboxSize.accumulate(mailboxSize)
+    }
+  }
+
+  override def shutdown(): Unit =
+    if (JmxEnabled) dispatcherStats.values.asScala.foreach(unregister)
+
+  private def statsFor(dispatcherId: String): DispatcherStats = {
+    val stats = dispatcherStats.get(dispatcherId)
+    if (stats ne null) stats
+    else {
+      val newStats = new DispatcherStats(dispatcherId)
+      dispatcherStats.putIfAbsent(dispatcherId, newStats) match {
+        case null =>
+          if (JmxEnabled) register(newStats)
+          newStats
+        case existing => existing
+      }
+    }
+  }
+
+  /**
+   * @return null if the actor isn't tracked because `max-tracked-actors` has been reached
+   */
+  private def actorStatsFor(actor: ActorRef, dispatcherId: String): ActorStats = {
+    val stats = actorStats.get(actor)
+    if (stats ne null) stats
+    else {
+      if (actorStats.size >= MaxTrackedActors) removeTerminatedActors()
+      if (actorStats.size < MaxTrackedActors) {
+        val newStats = new ActorStats(dispatcherId)
+        actorStats.putIfAbsent(actor, newStats) match {
+          case null     => newStats
+          case existing => existing
+        }
+      } else null
+    }
+  }
+
+  private def removeTerminatedActors(): Unit = {
+    val last = lastActorCleanup.get
+    val now = System.nanoTime()
+    // at most once per second, this is a scan of all tracked actors
+    if (now - last > 1000000000L && lastActorCleanup.compareAndSet(last, now))
+      actorStats.keySet.removeIf(_.isTerminated)
+  }
+
+  private def objectName(stats: DispatcherStats): ObjectName =
+    new ObjectName(
+      s"org.apache.pekko:type=Dispatcher,system=${ObjectName.quote(settings.name)}," +
+      s"name=${ObjectName.quote(stats.dispatcherId)}")
+
+  private def register(stats: DispatcherStats): Unit =
+    try ManagementFactory.getPlatformMBeanServer.registerMBean(stats, objectName(stats))
+    catch {
+      // e.g. another system with the same name in the same JVM
+      case NonFatal(_) =>
+    }
+
+  private def unregister(stats: DispatcherStats): Unit =
+    try ManagementFactory.getPlatformMBeanServer.unregisterMBean(objectName(stats))
+    catch {
+      case NonFatal(_) =>
+    }
+}
+
+@ApiMayChange
+object DispatcherMetrics {
+
+  /**
+   * The built-in dispatcher metrics of the system, if enabled with `pekko.actor.dispatcher-instrumentation.class`
+   */
+  def get(system: ActorSystem): Option[DispatcherMetrics] =
+    system.dispatchers.prerequisites match {
+      case p: DefaultDispatcherPrerequisites =>
+        p.instrumentation match {
+          case m: DispatcherMetrics => Some(m)
+          case _                    => None
+        }
+      case _ => None
+    }
+
+  /**
+   * Percentiles of the recorded values, which are accurate to within 25% of the value.
+   */
+  final case class HistogramSnapshot(count: Long, mean: Double, p50: Long, p90: Long, p99: Long, max: Long)
+
+  /**
+   * @param sampledRuns number of sampled mailbox runs
+   * @param sampledMessages number of messages processed in the sampled mailbox runs
+   * @param scheduleDelayNanos time from a mailbox being submitted to the executor until it runs
+   * @param processingTimeNanos time spent processing a message
+   * @param mailboxSize number of messages left in a mailbox after a run, 0 for mailbox types that can't count
+   *                    efficiently, such as the default unbounded mailbox
+   * @param poolSize current number of threads of the executor, -1 if not known
+   * @param activeThreads current number of threads running tasks, -1 if not known
+   * @param queuedTasks current number of tasks waiting for a thread, -1 if not known
+   */
+  final case class DispatcherSnapshot(
+      dispatcherId: String,
+      sampledRuns: Long,
+      sampledMessages: Long,
+      scheduleDelayNanos: HistogramSnapshot,
+      processingTimeNanos: HistogramSnapshot,
+      mailboxSize: HistogramSnapshot,
+      poolSize: Int,
+      activeThreads: Int,
+      queuedTasks: Long)
+
+  /**
+   * @param sampledMessages number of messages processed in the sampled mailbox runs
+   * @param processingTimeNanos time spent processing a message
+   * @param mailboxSize number of messages left in the mailbox after the last sampled run
+   * @param maxMailboxSize maximum number of messages left in the mailbox after a sampled run
+   */
+  final case class ActorSnapshot(
+      actor: ActorRef,
+      dispatcherId: String,
+      sampledMessages: Long,
+      processingTimeNanos: HistogramSnapshot,
+      mailboxSize: Int,
+      maxMailboxSize: Int)
+
+  /**
+   * INTERNAL API
+   *
+   * Lock-free histogram of non-negative values with 4 buckets per power of two, so that the
+   * reported percentiles are at most 25% larger than the actual values.
+   */
+  @InternalApi
+  private[dispatch] final class Histogram {
+    private val buckets = new AtomicLongArray(Histogram.BucketCount)
+    private val sum = new LongAdder
+    private val maxValue = new LongAccumulator((a, b) => java.lang.Math.max(a, b), 0L)
+
+    def record(value: Long): Unit = {
+      val v = if (value < 0L) 0L else value
+      buckets.incrementAndGet(Histogram.bucketOf(v))
+      sum.add(v)
+      maxValue.accumulate(v)
+    }
+
+    def reset(): Unit = {
+      var i = 0
+      while (i < buckets.length) {
+        buckets.set(i, 0L)
+        i += 1
+      }
+      sum.reset()
+      maxValue.reset()
+    }
+
+    def snapshot(): HistogramSnapshot = {
+      val counts = Array.tabulate(buckets.length)(i => buckets.get(i))
+      val count = counts.sum
+      val max = maxValue.get
+      def percentile(p: Double): Long =
+        if (count == 0L) 0L
+        else {
+          val target = java.lang.Math.max(1L, java.lang.Math.ceil(p * count).toLong)
+          var cumulative = 0L
+          var i = 0
+          while (cumulative + counts(i) < target) {
+            cumulative += counts(i)
+            i += 1
+          }
+          java.lang.Math.min(Histogram.upperBound(i), max)
+        }
+      HistogramSnapshot(
+        count,
+        if (count == 0L) 0.0 else sum.sum.toDouble / count,
+        percentile(0.5),
+        percentile(0.9),
+        percentile(0.99),
+        max)
+    }
+  }
+
+  /**
+   * INTERNAL API
+   */
+  @InternalApi
+  private[dispatch] object Histogram {
+    private final val MaxExponent = 40 // larger values, ~18 minutes in nanos, go to the last bucket
+    final val BucketCount = (MaxExponent - 1) * 4 + 4
+
+    def bucketOf(value: Long): Int =
+      if (value < 4L) value.toInt
+      else {
+        val exponent = 63 - java.lang.Long.numberOfLeadingZeros(value)
+        if (exponent > MaxExponent) BucketCount - 1
+        else (exponent - 1) * 4 + ((value >>> (exponent - 2)) & 3L).toInt
+      }
+
+    def upperBound(bucket: Int): Long =
+      if (bucket < 4) bucket.toLong
+      else if (bucket == BucketCount - 1) Long.MaxValue
+      else {
+        val exponent = bucket / 4 + 1
+        ((4L + bucket % 4 + 1) << (exponent - 2)) - 1
+      }
+  }
+
+  /**
+   * INTERNAL API
+   */
+  @InternalApi
+  private[dispatch] final class DispatcherStats(val dispatcherId: String) extends DispatcherStatsMXBean {
+    val runs = new LongAdder
+    val messages = new LongAdder
+    val scheduleDelay = new Histogram
+    val processingTime = new Histogram
+    val mailboxSize = new Histogram
+    @volatile var executor: ExecutorService = _
+
+    def reset(): Unit = {
+      runs.reset()
+      messages.reset()
+      scheduleDelay.reset()
+      processingTime.reset()
+      mailboxSize.reset()
+    }
+
+    def snapshot(): DispatcherSnapshot = {
+      val (poolSize, activeThreads, queuedTasks) = pool()
+      DispatcherSnapshot(
+        dispatcherId,
+        runs.sum,
+        messages.sum,
+        scheduleDelay.snapshot(),
+        processingTime.snapshot(),
+        mailboxSize.snapshot(),
+        poolSize,
+        activeThreads,
+        queuedTasks)
+    }
+
+    override def getDispatcherId: String = dispatcherId
+    override def getSampledRuns: Long = runs.sum
+    override def getSampledMessages: Long = messages.sum
+    override def getScheduleDelayMicros: Array[Long] = micros(scheduleDelay.snapshot())
+    override def getProcessingTimeMicros: Array[Long] = micros(processingTime.snapshot())
+    override def getMailboxSize: Array[Long] = {
+      val s = mailboxSize.snapshot()
+      Array(s.p50, s.p90, s.p99, s.max)
+    }
+    override def getPoolSize: Int = pool()._1
+    override def getActiveThreads: Int = pool()._2
+    override def getQueuedTasks: Long = pool()._3
+
+    private def pool(): (Int, Int, Long) = executor match {
+      case tpe: ThreadPoolExecutor => (tpe.getPoolSize, tpe.getActiveCount, tpe.getQueue.size.toLong)
+      case fjp: ForkJoinPool =>
+        (fjp.getPoolSize, fjp.getActiveThreadCount, fjp.getQueuedSubmissionCount + fjp.getQueuedTaskCount)
+      case _ => (-1, -1, -1L)
+    }
+
+    private def micros(s: HistogramSnapshot): Array[Long] =
+      Array(s.p50 / 1000, s.p90 / 1000, s.p99 / 1000, s.max / 1000)
+  }
+
+  /**
+   * INTERNAL API
+   */
+  @InternalApi
+  private[dispatch] final class ActorStats(val dispatcherId: String) {
+    val messages = new LongAdder
+    val processingTime = new Histogram
+    @volatile var lastMailboxSize: Int = 0
+    val maxMailboxSize = new LongAccumulator((a, b) => java.lang.Math.max(a, b), 0L)
+
+    def snapshot(actor: ActorRef): ActorSnapshot =
+      ActorSnapshot(
+        actor,
+        dispatcherId,
+        messages.sum,
+        processingTime.snapshot(),
+        lastMailboxSize,
+        maxMailboxSize.get.toInt)
+  }
+}
+
+/**
+ * JMX view of the [[DispatcherMetrics]] of one dispatcher. The distributions are given
+ * as the 50th, 90th and 99th percentile and the maximum.
+ */
+@ApiMayChange
+trait DispatcherStatsMXBean {
+  def getDispatcherId: String
+  def getSampledRuns: Long
+  def getSampledMessages: Long
+  def getScheduleDelayMicros: Array[Long]
+  def getProcessingTimeMicros: Array[Long]
+  def getMailboxSize: Array[Long]
+  def getPoolSize: Int
+  def getActiveThreads: Int
+  def getQueuedTasks: Long
+}
@@ -52,7 +52,8 @@ private[pekko] final case class DefaultDispatcherPrerequisites(
     dynamicAccess: DynamicAccess,
     settings: ActorSystem.Settings,
     mailboxes: Mailboxes,
-    defaultExecutionContext: Option[ExecutionContext])
+    defaultExecutionContext: Option[ExecutionContext],
+    instrumentation: DispatcherInstrumentation)
     extends DispatcherPrerequisites
 
 object Dispatchers {
@@ -381,16 +382,20 @@ class BalancingDispatcherConfigurator(_config: Config, _prerequisites: Dispatche
 class PinnedDispatcherConfigurator(config: Config, prerequisites: DispatcherPrerequisites)
     extends MessageDispatcherConfigurator(config, prerequisites) {
 
-  private val threadPoolConfig: ThreadPoolConfig = configureExecutor() match {
-    case e: ThreadPoolExecutorConfigurator => e.threadPoolConfig
+  private val executorServiceFactoryProvider: ExecutorServiceFactoryProvider = configureExecutor() match {
+    case e: ThreadPoolExecutorConfigurator    => e.threadPoolConfig.copy(corePoolSize = 1, maxPoolSize = 1)
+    case v: VirtualThreadExecutorConfigurator =>
+      // the pool of the one virtual thread is configured by the thread-pool-executor section, e.g. keep-alive-time
+      v.pinnedExecutorServiceFactoryProvider(
+        new ThreadPoolExecutorConfigurator(config.getConfig("thread-pool-executor"), prerequisites).threadPoolConfig)
     case _ =>
       prerequisites.eventStream.publish(
         Warning(
           "PinnedDispatcherConfigurator",
           this.getClass,
-          "PinnedDispatcher [%s] not configured to use ThreadPoolExecutor, falling back to default config.".format(
+          "PinnedDispatcher [%s] not configured to use ThreadPoolExecutor or virtual threads, falling back to default config.".format(
             config.getString("id"))))
-      ThreadPoolConfig()
+      ThreadPoolConfig(corePoolSize = 1, maxPoolSize = 1)
   }
 
   /**
@@ -402,6 +407,6 @@ class PinnedDispatcherConfigurator(config: Config, prerequisites: DispatcherPrer
       null,
       config.getString("id"),
       config.getMillisDuration("shutdown-timeout"),
-      threadPoolConfig)
+      executorServiceFactoryProvider)
 
 }
@@ -121,6 +121,18 @@ private[pekko] abstract class Mailbox(val messageQueue: MessageQueue)
   @volatile
   protected var _systemQueueDoNotCallMeDirectly: SystemMessage = _ // null by default
 
+  /*
+   * Only allocated when the dispatcher uses instrumentation or adaptive throughput. Only accessed
+   * by the thread that scheduled the mailbox and from run(), which is never executed concurrently,
+   * and the Scheduled status transitions provide the needed memory visibility.
+   */
+  private[this] var _runState: MailboxRunState = _
+
+  private[dispatch] final def runState: MailboxRunState = {
+    if (_runState eq null) _runState = new MailboxRunState
+    _runState
+  }
+
   @inline
   final def currentStatus: Mailbox.Status = Unsafe.instance.getIntVolatile(this, AbstractMailbox.mailboxStatusOffset)
 
@@ -238,7 +250,9 @@ private[pekko] abstract class Mailbox(val messageQueue: MessageQueue)
     try {
       if (!isClosed) { // Volatile read, needed here
         processAllSystemMessages() // First, deal with any system messages
-        processMailbox() // Then deal with messages
+        val instrumentation = dispatcher.instrumentation
+        if (instrumentation eq null) processMessages() // Then deal with messages
+        else processMessagesInstrumented(instrumentation)
       }
     } finally {
       setAsIdle() // Volatile write, needed here
@@ -264,27 +278,94 @@ private[pekko] abstract class Mailbox(val messageQueue: MessageQueue)
         throw anything
     }
 
+  private final def processMessages(): Unit = {
+    val adaptive = dispatcher.adaptiveThroughput
+    if (adaptive eq null) processMailbox()
+    else processMailboxAdaptive(adaptive)
+  }
+
+  /**
+   * Process the messages in the mailbox, measuring every n:th run for the [[DispatcherInstrumentation]]
+   */
+  private final def processMessagesInstrumented(instrumentation: DispatcherInstrumentation): Unit = {
+    val state = runState
+    val scheduledAt = state.scheduledAtNanos
+    state.scheduledAtNanos = 0L
+    state.runCount += 1
+    if ((state.runCount & dispatcher.instrumentationSampleMask) == 0) {
+      val startNs = System.nanoTime
+      state.sampledRun = true
+      state.sampledMessages = 0
+      state.sampledProcessingNanos = 0L
+      try processMessages()
+      finally {
+        state.sampledRun = false
+        instrumentation.mailboxRun(
+          dispatcher.id,
+          actor.self,
+          if (scheduledAt == 0L) -1L else startNs - scheduledAt,
+          state.sampledMessages,
+          state.sampledProcessingNanos,
+          sampledMailboxSize)
+      }
+    } else processMessages()
+  }
+
+  // only the bounded and the chunked array queues can count their messages in constant time
+  private final def sampledMailboxSize: Int = messageQueue match {
+    case _: BoundedMessageQueueSemantics | _: ChunkedArrayMessageQueue => numberOfMessages
+    case _                                                              => 0
+  }
+
+  private final def invokeSampled(state: MailboxRunState, next: Envelope): Unit = {
+    val startNs = System.nanoTime
+    try actor.invoke(next)
+    finally {
+      val processingNanos = System.nanoTime - startNs
+      state.sampledMessages += 1
+      state.sampledProcessingNanos += processingNanos
+      dispatcher.instrumentation.messageProcessed(dispatcher.id, actor.self, processingNanos)
+    }
+  }
+
+  /**
+   * Process the messages in the mailbox, with a batch size adjusted to the processing time
+   * of earlier runs, see [[AdaptiveThroughput]]
+   */
+  private final def processMailboxAdaptive(adaptive: AdaptiveThroughput): Unit = {
+    val state = runState
+    val batch = if (state.adaptiveThroughputBatch > 0) state.adaptiveThroughputBatch else adaptive.initialThroughput
+    val startNs = System.nanoTime
+    val left = processMailbox(left = batch)
+    val elapsedNs = System.nanoTime - startNs
+    state.adaptiveThroughputBatch = adaptive.nextThroughput(batch, batch - left, elapsedNs, hasMessages)
+  }
+
   /**
    * Process the messages in the mailbox
+   *
+   * @return the remaining number of messages that could have been processed in this batch
    */
   @tailrec private final def processMailbox(
       left: Int = java.lang.Math.max(dispatcher.throughput, 1),
       deadlineNs: Long =
         if (dispatcher.isThroughputDeadlineTimeDefined)
           System.nanoTime + dispatcher.throughputDeadlineTime.toNanos
-        else 0L): Unit =
+        else 0L): Int =
     if (shouldProcessMessage) {
       val next = dequeue()
       if (next ne null) {
         if (Mailbox.debug) println("" + actor.self + " processing message " + next)
-        actor.invoke(next)
+        val state = _runState
+        if ((state ne null) && state.sampledRun) invokeSampled(state, next) else actor.invoke(next)
         if (Thread.interrupted())
           throw new InterruptedException("Interrupted while processing actor messages")
         processAllSystemMessages()
         if ((left > 1) && (!dispatcher.isThroughputDeadlineTimeDefined || (System.nanoTime - deadlineNs) < 0))
           processMailbox(left - 1, deadlineNs)
-      }
-    }
+        else left - 1
+      } else left
+    } else left
 
   /**
    * Will at least try to process all queued system messages: in case of
@@ -361,6 +442,23 @@ private[pekko] abstract class Mailbox(val messageQueue: MessageQueue)
     }
 }
 
+/**
+ * INTERNAL API
+ *
+ * State of a mailbox for the [[DispatcherInstrumentation]] and the [[AdaptiveThroughput]], which is
+ * only allocated when the dispatcher uses one of them.
+ */
+private[dispatch] final class MailboxRunState {
+  // written before the mailbox is submitted to the executor
+  var scheduledAtNanos: Long = 0L
+  var runCount: Int = 0
+  var sampledRun: Boolean = false
+  var sampledMessages: Int = 0
+  var sampledProcessingNanos: Long = 0L
+  // batch size when the dispatcher uses adaptive throughput, 0 until the first run
+  var adaptiveThroughputBatch: Int = 0
+}
+
 /**
  * A MessageQueue is one of the core components in forming an Akka Mailbox.
  * The MessageQueue is where the normal messages that are sent to Actors will be enqueued (and subsequently dequeued)
@@ -421,6 +519,66 @@ class NodeMessageQueue extends AbstractNodeQueue[Envelope] with MessageQueue wit
   }
 }
 
+/**
+ * Lock-free unbounded multiple-producer single-consumer queue storing the envelopes in linked
+ * array chunks, allocation free in steady state. See [[AbstractChunkedArrayQueue]].
+ */
+class ChunkedArrayMessageQueue(chunkSize: Int)
+    extends AbstractChunkedArrayQueue[Envelope](chunkSize, Long.MaxValue)
+    with MessageQueue
+    with UnboundedMessageQueueSemantics {
+
+  final def enqueue(receiver: ActorRef, handle: Envelope): Unit = offer(handle)
+
+  final def dequeue(): Envelope = poll()
+
+  final def numberOfMessages: Int = size()
+
+  final def hasMessages: Boolean = !isEmpty()
+
+  @tailrec final def cleanUp(owner: ActorRef, deadLetters: MessageQueue): Unit = {
+    val envelope = dequeue()
+    if (envelope ne null) {
+      deadLetters.enqueue(owner, envelope)
+      cleanUp(owner, deadLetters)
+    }
+  }
+}
+
+/**
+ * Lock-free bounded non-blocking multiple-producer single-consumer queue storing the envelopes in linked
+ * array chunks, allocation free in steady state. See [[AbstractChunkedArrayQueue]].
+ * Discards overflowing messages into DeadLetters.
+ */
+class BoundedChunkedArrayMessageQueue(chunkSize: Int, capacity: Int)
+    extends AbstractChunkedArrayQueue[Envelope](chunkSize, capacity.toLong)
+    with MessageQueue
+    with BoundedMessageQueueSemantics {
+  final def pushTimeOut: Duration = Duration.Undefined
+
+  final def enqueue(receiver: ActorRef, handle: Envelope): Unit =
+    if (!offer(handle))
+      receiver
+        .asInstanceOf[InternalActorRef]
+        .provider
+        .deadLetters
+        .tell(DeadLetter(handle.message, handle.sender, receiver), handle.sender)
+
+  final def dequeue(): Envelope = poll()
+
+  final def numberOfMessages: Int = size()
+
+  final def hasMessages: Boolean = !isEmpty()
+
+  @tailrec final def cleanUp(owner: ActorRef, deadLetters: MessageQueue): Unit = {
+    val envelope = dequeue()
+    if (envelope ne null) {
+      deadLetters.enqueue(owner, envelope)
+      cleanUp(owner, deadLetters)
+    }
+  }
+}
+
 /**
  * Lock-free bounded non-blocking multiple-producer single-consumer queue.
  * Discards overflowing messages into DeadLetters.
@@ -706,6 +864,47 @@ case class NonBlockingBoundedMailbox(capacity: Int)
     new BoundedNodeMessageQueue(capacity)
 }
 
+/**
+ * SingleConsumerOnlyChunkedArrayMailbox is a multiple-producer single-consumer, unbounded MailboxType
+ * that stores messages in linked arrays of `mailbox-chunk-size` elements, and that does not allocate
+ * per message as long as the queue length stays within two chunks. This reduces the GC pressure of
+ * actors receiving very high message rates compared to the node based queues of [[UnboundedMailbox]]
+ * and [[SingleConsumerOnlyUnboundedMailbox]], at the cost of a chunk per actor.
+ *
+ * It can't have multiple consumers, which rules out using it with BalancingPool (BalancingDispatcher) for instance.
+ */
+final case class SingleConsumerOnlyChunkedArrayMailbox(chunkSize: Int)
+    extends MailboxType
+    with ProducesMessageQueue[ChunkedArrayMessageQueue] {
+
+  def this(settings: ActorSystem.Settings, config: Config) = this(config.getInt("mailbox-chunk-size"))
+
+  final override def create(owner: Option[ActorRef], system: Option[ActorSystem]): MessageQueue =
+    new ChunkedArrayMessageQueue(chunkSize)
+}
+
+/**
+ * NonBlockingBoundedChunkedArrayMailbox is the bounded variant of [[SingleConsumerOnlyChunkedArrayMailbox]].
+ * Noteworthy is that it discards overflow as DeadLetters.
+ *
+ * It can't have multiple consumers, which rules out using it with BalancingPool (BalancingDispatcher) for instance.
+ *
+ * NOTE: NonBlockingBoundedChunkedArrayMailbox does not use `mailbox-push-timeout-time` as it is non-blocking.
+ */
+final case class NonBlockingBoundedChunkedArrayMailbox(capacity: Int, chunkSize: Int)
+    extends MailboxType
+    with ProducesMessageQueue[BoundedChunkedArrayMessageQueue] {
+
+  def this(settings: ActorSystem.Settings, config: Config) =
+    this(config.getInt("mailbox-capacity"), config.getInt("mailbox-chunk-size"))
+
+  if (capacity < 0)
+    throw new IllegalArgumentException("The capacity for NonBlockingBoundedChunkedArrayMailbox can not be negative")
+
+  final override def create(owner: Option[ActorRef], system: Option[ActorSystem]): MessageQueue =
+    new BoundedChunkedArrayMessageQueue(chunkSize, capacity)
+}
+
 /**
  * BoundedMailbox is the default bounded MailboxType used by Akka Actors.
  */
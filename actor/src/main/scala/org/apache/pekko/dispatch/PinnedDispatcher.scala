@@ -22,6 +22,9 @@ import pekko.actor.ActorCell
 /**
  * Dedicates a unique thread for each actor passed in as reference. Served through its messageQueue.
  *
+ * The `executorServiceFactoryProvider` must create single threaded executors, see the constructor
+ * taking a [[ThreadPoolConfig]].
+ *
  * The preferred way of creating dispatchers is to define configuration of it and use the
  * the `lookup` method in [[pekko.dispatch.Dispatchers]].
  */
@@ -30,14 +33,21 @@ class PinnedDispatcher(
     _actor: ActorCell,
     _id: String,
     _shutdownTimeout: FiniteDuration,
-    _threadPoolConfig: ThreadPoolConfig)
-    extends Dispatcher(
+    _executorServiceFactoryProvider: ExecutorServiceFactoryProvider)
+    extends Dispatcher(_configurator, _id, Int.MaxValue, Duration.Zero, _executorServiceFactoryProvider, _shutdownTimeout) {
+
+  def this(
+      _configurator: MessageDispatcherConfigurator,
+      _actor: ActorCell,
+      _id: String,
+      _shutdownTimeout: FiniteDuration,
+      _threadPoolConfig: ThreadPoolConfig) =
+    this(
       _configurator,
+      _actor,
       _id,
-      Int.MaxValue,
-      Duration.Zero,
-      _threadPoolConfig.copy(corePoolSize = 1, maxPoolSize = 1),
-      _shutdownTimeout) {
+      _shutdownTimeout,
+      _threadPoolConfig.copy(corePoolSize = 1, maxPoolSize = 1): ExecutorServiceFactoryProvider)
 
   @volatile
   private var owner: ActorCell = _actor
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.dispatch
+
+import java.util.concurrent.{ Executor, ExecutorService, ForkJoinPool, ThreadFactory, TimeUnit }
+
+import scala.util.control.NonFatal
+
+import com.typesafe.config.Config
+
+import org.apache.pekko
+import pekko.ConfigurationException
+import pekko.annotation.InternalApi
+import pekko.dispatch.ForkJoinExecutorConfigurator.PekkoForkJoinPool
+import pekko.event.Logging.Warning
+import pekko.util.JavaVersion
+
+/**
+ * INTERNAL API
+ *
+ * Access to the virtual thread API of JDK 21+ through reflection, since Pekko is still built for older JDKs.
+ * Reflection is only used when creating the `ThreadFactory` and `ExecutorService`, not per thread.
+ */
+@InternalApi
+private[dispatch] object VirtualThreadSupport {
+
+  /**
+   * Virtual threads are a final (non-preview) feature from JDK 21
+   */
+  val isSupported: Boolean = JavaVersion.majorVersion >= 21
+
+  private def builderClass: Class[_] = Class.forName("java.lang.Thread$Builder")
+
+  /**
+   * Creates a `Thread.Builder.OfVirtual` using the given carrier thread scheduler. The JDK does not expose
+   * a public API for this so it requires `--add-opens java.base/java.lang=ALL-UNNAMED`.
+   * Returns `None` if the builder could not be created.
+   */
+  private def builderWithScheduler(scheduler: Executor): Option[AnyRef] =
+    try {
+      val ctor = Class.forName("java.lang.ThreadBuilders$VirtualThreadBuilder").getDeclaredConstructor(classOf[Executor])
+      ctor.setAccessible(true)
+      Some(ctor.newInstance(scheduler).asInstanceOf[AnyRef])
+    } catch {
+      case NonFatal(_) => None
+    }
+
+  /**
+   * Create a `ThreadFactory` for virtual threads named `prefix` followed by a sequence number.
+   *
+   * @param scheduler dedicated carrier thread scheduler, or `None` to use the JVM wide default scheduler
+   * @return the thread factory and whether the given scheduler is used by it
+   */
+  def newVirtualThreadFactory(
+      prefix: String,
+      scheduler: Option[Executor],
+      exceptionHandler: Thread.UncaughtExceptionHandler,
+      contextClassLoader: Option[ClassLoader]): (ThreadFactory, Boolean) = {
+    require(isSupported, "Virtual threads require JDK 21 or later")
+    val withScheduler = scheduler.flatMap(builderWithScheduler)
+    val builder = withScheduler.getOrElse(classOf[Thread].getMethod("ofVirtual").invoke(null))
+    val named = builderClass
+      .getMethod("name", classOf[String], java.lang.Long.TYPE)
+      .invoke(builder, prefix, java.lang.Long.valueOf(0L))
+    val withHandler = builderClass
+      .getMethod("uncaughtExceptionHandler", classOf[Thread.UncaughtExceptionHandler])
+      .invoke(named, exceptionHandler)
+    val factory = builderClass.getMethod("factory").invoke(withHandler).asInstanceOf[ThreadFactory]
+
+    val tf = contextClassLoader match {
+      case Some(classLoader) =>
+        new ThreadFactory {
+          override def newThread(r: Runnable): Thread = {
+            val t = factory.newThread(r)
+            t.setContextClassLoader(classLoader)
+            t
+          }
+        }
+      case None => factory
+    }
+    (tf, withScheduler.isDefined)
+  }
+
+  /**
+   * `Executors.newThreadPerTaskExecutor(threadFactory)`
+   */
+  def newThreadPerTaskExecutor(threadFactory: ThreadFactory): ExecutorService =
+    classOf[java.util.concurrent.Executors]
+      .getMethod("newThreadPerTaskExecutor", classOf[ThreadFactory])
+      .invoke(null, threadFactory)
+      .asInstanceOf[ExecutorService]
+}
+
+/**
+ * Configurator for an executor that runs each task in a new virtual thread (requires JDK 21 or later).
+ *
+ * Virtual threads are cheap to create and to block, which makes this executor a good fit for dispatchers
+ * running blocking IO, e.g. JDBC calls, and for the `PinnedDispatcher`. It does not perform better than the
+ * `fork-join-executor` for non-blocking actors.
+ *
+ * When `carrier-pool.enabled = on` the virtual threads of the dispatcher are scheduled on a dedicated
+ * `ForkJoinPool` with a bounded number of carrier threads. Otherwise, or if the JDK doesn't allow installing
+ * a custom scheduler, the JVM wide scheduler is used, which is sized by the `jdk.virtualThreadScheduler.parallelism`
+ * system property.
+ */
+class VirtualThreadExecutorConfigurator(config: Config, prerequisites: DispatcherPrerequisites)
+    extends ExecutorServiceConfigurator(config, prerequisites) {
+
+  if (!VirtualThreadSupport.isSupported)
+    throw new ConfigurationException(
+      s"The virtual-thread-executor requires JDK 21 or later, current is [${JavaVersion.majorVersion}]")
+
+  /**
+   * Number of carrier threads of the dedicated scheduler, `0` if the JVM wide scheduler is used.
+   */
+  val carrierParallelism: Int =
+    if (config.getBoolean("carrier-pool.enabled"))
+      ThreadPoolConfig.scaledPoolSize(
+        config.getInt("carrier-pool.parallelism-min"),
+        config.getDouble("carrier-pool.parallelism-factor"),
+        config.getInt("carrier-pool.parallelism-max"))
+    else 0
+
+  private final class VirtualThreadExecutorService(
+      val executor: ExecutorService,
+      carrierPool: Option[ExecutorService])
+      extends ExecutorServiceDelegate {
+    override def shutdown(): Unit = {
+      executor.shutdown()
+      carrierPool.foreach(_.shutdown())
+    }
+
+    override def shutdownNow(): java.util.List[Runnable] = {
+      val notRun = executor.shutdownNow()
+      carrierPool.foreach(_.shutdownNow())
+      notRun
+    }
+
+    override def awaitTermination(l: Long, timeUnit: TimeUnit): Boolean =
+      carrierPool match {
+        case Some(pool) =>
+          val deadline = System.nanoTime() + timeUnit.toNanos(l)
+          executor.awaitTermination(l, timeUnit) &&
+          pool.awaitTermination(math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+        case None => executor.awaitTermination(l, timeUnit)
+      }
+  }
+
+  private def virtualThreadFactory(
+      threadFactory: ThreadFactory,
+      scheduler: Option[ExecutorService]): (ThreadFactory, Boolean) =
+    threadFactory match {
+      case m: MonitorableThreadFactory =>
+        VirtualThreadSupport.newVirtualThreadFactory(m.name + "-", scheduler, m.exceptionHandler, m.contextClassLoader)
+      case _ =>
+        VirtualThreadSupport.newVirtualThreadFactory("pekko-virtual-", scheduler, MonitorableThreadFactory.doNothing, None)
+    }
+
+  private def newCarrierPool(threadFactory: ThreadFactory): Option[ExecutorService] =
+    if (carrierParallelism > 0) {
+      val carrierThreadFactory: ForkJoinPool.ForkJoinWorkerThreadFactory = threadFactory match {
+        case m: MonitorableThreadFactory => m.withName(m.name + "-carrier")
+        case _                           => ForkJoinPool.defaultForkJoinWorkerThreadFactory
+      }
+      Some(new PekkoForkJoinPool(carrierParallelism, carrierThreadFactory, MonitorableThreadFactory.doNothing))
+    } else None
+
+  private def warnDefaultScheduler(id: String): Unit =
+    prerequisites.eventStream.publish(
+      Warning(
+        "VirtualThreadExecutorConfigurator",
+        this.getClass,
+        s"Could not install dedicated carrier pool for dispatcher [$id], using the JVM wide virtual thread scheduler. " +
+        "Add [--add-opens java.base/java.lang=ALL-UNNAMED] to the JVM options to enable it."))
+
+  def createExecutorServiceFactory(id: String, threadFactory: ThreadFactory): ExecutorServiceFactory = {
+    val tf = threadFactory match {
+      case m: MonitorableThreadFactory =>
+        // add the dispatcher id to the thread names
+        m.withName(m.name + "-" + id)
+      case other => other
+    }
+
+    new ExecutorServiceFactory {
+      def createExecutorService: ExecutorService = {
+        val carrierPool = newCarrierPool(tf)
+        val (virtualTf, usesCarrierPool) = virtualThreadFactory(tf, carrierPool)
+        if (carrierPool.isDefined && !usesCarrierPool) {
+          carrierPool.foreach(_.shutdown())
+          warnDefaultScheduler(id)
+          new VirtualThreadExecutorService(VirtualThreadSupport.newThreadPerTaskExecutor(virtualTf), None)
+        } else
+          new VirtualThreadExecutorService(VirtualThreadSupport.newThreadPerTaskExecutor(virtualTf), carrierPool)
+      }
+    }
+  }
+
+  /**
+   * INTERNAL API
+   *
+   * Used by the [[PinnedDispatcher]]: a single threaded pool per actor where the one thread is virtual.
+   */
+  @InternalApi
+  private[pekko] def pinnedExecutorServiceFactoryProvider(threadPoolConfig: ThreadPoolConfig)
+      : ExecutorServiceFactoryProvider =
+    new ExecutorServiceFactoryProvider {
+      def createExecutorServiceFactory(id: String, threadFactory: ThreadFactory): ExecutorServiceFactory = {
+        val tf = threadFactory match {
+          case m: MonitorableThreadFactory => m.withName(m.name + "-" + id)
+          case other                       => other
+        }
+        // the carrier pool of a pinned actor would only ever run one virtual thread, use the shared scheduler
+        val (virtualTf, _) = virtualThreadFactory(tf, None)
+        threadPoolConfig.copy(corePoolSize = 1, maxPoolSize = 1).createExecutorServiceFactory(id, virtualTf)
+      }
+    }
+}
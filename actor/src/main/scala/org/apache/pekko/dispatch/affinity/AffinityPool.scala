@@ -17,7 +17,7 @@ import java.lang.Integer.reverseBytes
 import java.util.Collections
 import java.util.concurrent._
 import java.util.concurrent.TimeUnit.MICROSECONDS
-import java.util.concurrent.atomic.AtomicReference
+import java.util.concurrent.atomic.{ AtomicInteger, AtomicLongArray, AtomicReference }
 import java.util.concurrent.locks.LockSupport
 
 import scala.annotation.{ switch, tailrec }
@@ -107,7 +107,40 @@ private[affinity] object AffinityPool {
     }
   }
 
-  private final class BoundedAffinityTaskQueue(capacity: Int) extends AbstractBoundedNodeQueue[Runnable](capacity)
+  private[affinity] sealed trait AffinityTaskQueue {
+    def add(task: Runnable): Boolean
+    def poll(): Runnable
+    def size(): Int
+  }
+
+  // only polled by the worker that owns it
+  private[affinity] final class BoundedAffinityTaskQueue(capacity: Int) extends AffinityTaskQueue {
+    private[this] val queue = new AbstractBoundedNodeQueue[Runnable](capacity) {}
+
+    override def add(task: Runnable): Boolean = queue.add(task)
+    override def poll(): Runnable = queue.poll()
+    override def size(): Int = queue.size()
+  }
+
+  // polled by the worker that owns it and by the other workers in its group when work stealing is enabled
+  private[affinity] final class StealableAffinityTaskQueue(capacity: Int) extends AffinityTaskQueue {
+    private[this] val queue = new ConcurrentLinkedQueue[Runnable]
+    private[this] val count = new AtomicInteger
+
+    override def add(task: Runnable): Boolean =
+      if (count.incrementAndGet() > capacity) {
+        count.decrementAndGet()
+        false
+      } else queue.add(task)
+
+    override def poll(): Runnable = {
+      val task = queue.poll()
+      if (task ne null) count.decrementAndGet()
+      task
+    }
+
+    override def size(): Int = count.get
+  }
 }
 
 /**
@@ -116,6 +149,12 @@ private[affinity] object AffinityPool {
  * it used to run. In situations where we see a lot of cache ping pong, this
  * might lead to significant performance improvements.
  *
+ * With work stealing enabled, a worker with an empty queue takes tasks from the
+ * fullest queue of the other workers in its group, if that has at least
+ * `stealThreshold` tasks waiting.
+ *
+ * @param workStealingGroups the group of each worker, empty if work stealing is disabled
+ *
  * INTERNAL API
  */
 @InternalApi
@@ -127,14 +166,38 @@ private[pekko] class AffinityPool(
     threadFactory: ThreadFactory,
     idleCpuLevel: Int,
     final val queueSelector: QueueSelector,
-    rejectionHandler: RejectionHandler)
+    rejectionHandler: RejectionHandler,
+    workStealingGroups: immutable.IndexedSeq[Int],
+    stealThreshold: Int)
     extends AbstractExecutorService {
 
+  def this(
+      id: String,
+      parallelism: Int,
+      affinityGroupSize: Int,
+      threadFactory: ThreadFactory,
+      idleCpuLevel: Int,
+      queueSelector: QueueSelector,
+      rejectionHandler: RejectionHandler) =
+    this(
+      id,
+      parallelism,
+      affinityGroupSize,
+      threadFactory,
+      idleCpuLevel,
+      queueSelector,
+      rejectionHandler,
+      Vector.empty,
+      Int.MaxValue)
+
   if (parallelism <= 0)
     throw new IllegalArgumentException("Size of pool cannot be less or equal to 0")
 
   import AffinityPool._
 
+  if (workStealingGroups.nonEmpty && workStealingGroups.size != parallelism)
+    throw new IllegalArgumentException("Work stealing groups must be defined for each worker")
+
   // Held while starting/shutting down workers/pool in order to make
   // the operations linear and enforce atomicity. An example of that would be
   // adding a worker. We want the creation of the worker, addition
@@ -148,22 +211,35 @@ private[pekko] class AffinityPool(
   // indicates the current state of the pool
   @volatile final private var poolState: PoolState = Uninitialized
 
-  private[this] final val workQueues = Array.fill(parallelism)(new BoundedAffinityTaskQueue(affinityGroupSize))
+  // AbstractBoundedNodeQueue only supports a single consumer, so the queues that can be stolen from are different
+  private[this] final val workQueues: Array[AffinityTaskQueue] = Array.fill(parallelism) {
+    if (workStealingGroups.isEmpty) new BoundedAffinityTaskQueue(affinityGroupSize)
+    else new StealableAffinityTaskQueue(affinityGroupSize)
+  }
   private[this] final val workers = mutable.Set[AffinityPoolWorker]()
 
+  // for each queue, the other queues in the same work stealing group
+  private[this] final val stealFrom: Array[Array[Int]] =
+    if (workStealingGroups.isEmpty) Array.fill(parallelism)(Array.emptyIntArray)
+    else
+      Array.tabulate(parallelism) { i =>
+        (0 until parallelism).filter(j => j != i && workStealingGroups(j) == workStealingGroups(i)).toArray
+      }
+  private[this] final val stolenTasks = new AtomicLongArray(parallelism)
+
   def start(): this.type =
     bookKeepingLock.withGuard {
       if (poolState == Uninitialized) {
         poolState = Initializing
-        workQueues.foreach(q => addWorker(workers, q))
+        workQueues.indices.foreach(i => addWorker(workers, i))
         poolState = Running
       }
       this
     }
 
   // WARNING: Only call while holding the bookKeepingLock
-  private def addWorker(workers: mutable.Set[AffinityPoolWorker], q: BoundedAffinityTaskQueue): Unit = {
-    val worker = new AffinityPoolWorker(q, new IdleStrategy(idleCpuLevel))
+  private def addWorker(workers: mutable.Set[AffinityPoolWorker], index: Int): Unit = {
+    val worker = new AffinityPoolWorker(index, workQueues(index), new IdleStrategy(idleCpuLevel))
     workers.add(worker)
     worker.start()
   }
@@ -185,7 +261,7 @@ private[pekko] class AffinityPool(
     bookKeepingLock.withGuard {
       workers.remove(w)
       if (abruptTermination && poolState == Running)
-        addWorker(workers, w.q)
+        addWorker(workers, w.index)
       else if (workers.isEmpty && !abruptTermination && poolState >= ShuttingDown) {
         poolState = ShutDown // transition to shutdown and try to transition to termination
         attemptPoolTermination()
@@ -239,13 +315,57 @@ private[pekko] class AffinityPool(
 
   override def isShutdown: Boolean = poolState >= ShutDown
 
+  /**
+   * Number of tasks currently waiting in the queue of each worker
+   */
+  def queueDepths: immutable.IndexedSeq[Int] = workQueues.iterator.map(_.size()).toVector
+
+  /**
+   * Number of tasks each worker has taken from the queues of other workers in its group
+   */
+  def stolenTaskCounts: immutable.IndexedSeq[Long] = (0 until parallelism).map(i => stolenTasks.get(i))
+
   override def isTerminated: Boolean = poolState == Terminated
 
   override def toString: String =
-    s"${Logging.simpleName(this)}(id = $id, parallelism = $parallelism, affinityGroupSize = $affinityGroupSize, threadFactory = $threadFactory, idleCpuLevel = $idleCpuLevel, queueSelector = $queueSelector, rejectionHandler = $rejectionHandler)"
+    s"${Logging.simpleName(this)}(id = $id, parallelism = $parallelism, affinityGroupSize = $affinityGroupSize, threadFactory = $threadFactory, idleCpuLevel = $idleCpuLevel, queueSelector = $queueSelector, rejectionHandler = $rejectionHandler, workStealingGroups = ${workStealingGroups
+      .mkString("[", ",", "]")}, stealThreshold = $stealThreshold)"
 
-  private[this] final class AffinityPoolWorker(val q: BoundedAffinityTaskQueue, val idleStrategy: IdleStrategy)
+  private[this] final class AffinityPoolWorker(
+      val index: Int,
+      val q: AffinityTaskQueue,
+      val idleStrategy: IdleStrategy)
       extends Runnable {
+    private[this] val victims = stealFrom(index)
+    private[this] var nextVictim = 0
+
+    // Take a task from the fullest queue in the group, if it is over the threshold.
+    // The queues of a group support concurrent consumers, and mailbox runs are never executed
+    // concurrently, so running a stolen task is safe, it only gives up on cache affinity for the stolen task.
+    private def steal(): Runnable =
+      if (victims.length == 0) null
+      else {
+        var victim = -1
+        var maxDepth = stealThreshold - 1
+        var i = 0
+        while (i < victims.length) {
+          // rotate the start so that equally loaded queues are picked evenly
+          val candidate = victims((nextVictim + i) % victims.length)
+          val depth = workQueues(candidate).size()
+          if (depth > maxDepth) {
+            maxDepth = depth
+            victim = candidate
+          }
+          i += 1
+        }
+        nextVictim = (nextVictim + 1) % victims.length
+        if (victim >= 0) {
+          val task = workQueues(victim).poll()
+          if (task ne null) stolenTasks.incrementAndGet(index)
+          task
+        } else null
+      }
+
     val thread: Thread = threadFactory.newThread(this)
 
     def start(): Unit =
@@ -256,7 +376,8 @@ private[pekko] class AffinityPool(
     override def run(): Unit = {
       // Returns true if it executed something, false otherwise
       def executeNext(): Boolean = {
-        val c = q.poll()
+        val polled = q.poll()
+        val c = if (polled ne null) polled else steal()
         val next = c ne null
         if (next) {
           c.run()
@@ -341,6 +462,26 @@ private[pekko] final class AffinityPoolConfigurator(config: Config, prerequisite
     }
     .get
 
+  private val workStealingGroups: immutable.IndexedSeq[Int] =
+    if (config.getBoolean("work-stealing.enabled")) {
+      val groupSizes = config.getString("work-stealing.grouping") match {
+        case "none" => Vector(1)
+        case "numa" =>
+          val nodes = CpuTopology.numaNodeCpuCounts()
+          if (nodes.isEmpty) Vector(1) else nodes
+        case n =>
+          val count =
+            try n.toInt
+            catch { case _: NumberFormatException => 0 }
+          Vector.fill(count.requiring(_ > 0, "work-stealing.grouping must be numa, none or a positive number"))(1)
+      }
+      CpuTopology.assignGroups(poolSize, groupSizes).toVector
+    } else Vector.empty
+
+  private val stealThreshold = config
+    .getInt("work-stealing.steal-threshold")
+    .requiring(_ >= 1, "work-stealing.steal-threshold must be greater than 0")
+
   override def createExecutorServiceFactory(id: String, threadFactory: ThreadFactory): ExecutorServiceFactory = {
     val tf = threadFactory match {
       case m: MonitorableThreadFactory =>
@@ -358,7 +499,9 @@ private[pekko] final class AffinityPoolConfigurator(config: Config, prerequisite
           tf,
           idleCpuLevel,
           queueSelectorFactory.create(),
-          rejectionHandlerFactory.create()).start()
+          rejectionHandlerFactory.create(),
+          workStealingGroups,
+          stealThreshold).start()
     }
   }
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.dispatch.affinity
+
+import java.io.File
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+
+import scala.collection.immutable
+import scala.util.control.NonFatal
+
+import org.apache.pekko.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ *
+ * CPU topology as exposed by Linux in `/sys/devices/system/node`.
+ */
+@InternalApi
+private[affinity] object CpuTopology {
+
+  private val NodeDirectory = "/sys/devices/system/node"
+  private val NodeName = "node(\\d+)".r
+
+  /**
+   * Number of CPUs of each NUMA node, ordered by node id. Empty if the topology can't be read,
+   * e.g. when not running on Linux.
+   */
+  def numaNodeCpuCounts(): immutable.IndexedSeq[Int] = numaNodeCpuCounts(new File(NodeDirectory))
+
+  def numaNodeCpuCounts(nodeDirectory: File): immutable.IndexedSeq[Int] =
+    try {
+      val nodes = Option(nodeDirectory.listFiles()).getOrElse(Array.empty[File]).toVector.flatMap { f =>
+        f.getName match {
+          case NodeName(id) =>
+            val cpulist = new File(f, "cpulist")
+            if (cpulist.isFile)
+              Some(id.toInt -> parseCpuList(new String(Files.readAllBytes(cpulist.toPath), StandardCharsets.US_ASCII)))
+            else None
+          case _ => None
+        }
+      }
+      nodes.sortBy(_._1).map(_._2).filter(_ > 0)
+    } catch {
+      case NonFatal(_) => Vector.empty
+    }
+
+  /**
+   * Number of CPUs in a Linux cpu list, e.g. `0-3,8-11` is 8 CPUs
+   */
+  def parseCpuList(cpuList: String): Int =
+    cpuList.trim.split(',').iterator.filter(_.nonEmpty).map { range =>
+      range.split('-') match {
+        case Array(_)        => 1
+        case Array(from, to) => to.trim.toInt - from.trim.toInt + 1
+        case _               => throw new IllegalArgumentException(s"Invalid cpu list [$cpuList]")
+      }
+    }.sum
+
+  /**
+   * Divide `workers` into groups proportionally to the sizes of the groups, e.g. the number of CPUs
+   * of NUMA nodes. Consecutive workers are placed in the same group.
+   *
+   * @return the group index of each worker
+   */
+  def assignGroups(workers: Int, groupSizes: immutable.IndexedSeq[Int]): Array[Int] = {
+    val total = groupSizes.sum
+    if (groupSizes.size <= 1 || total <= 0) Array.fill(workers)(0)
+    else {
+      val cumulative = groupSizes.scanLeft(0L)(_ + _).tail
+      Array.tabulate(workers) { worker =>
+        // the position of the middle of the worker in the range of all cpus
+        val position = ((2L * worker + 1) * total) / (2L * workers)
+        cumulative.indexWhere(position < _)
+      }
+    }
+  }
+}
@@ -14,15 +14,17 @@
 package org.apache.pekko.event
 
 import java.util.Comparator
-import java.util.concurrent.ConcurrentSkipListSet
+import java.util.concurrent.{ ConcurrentHashMap, ConcurrentSkipListSet }
 import java.util.concurrent.atomic.AtomicReference
 
 import scala.collection.immutable
 
 import org.apache.pekko
 import pekko.actor.{ ActorRef, ActorSystem }
+import pekko.annotation.InternalApi
 import pekko.util.{ Subclassification, SubclassifiedIndex }
 import pekko.util.Index
+import pekko.util.ccompat.JavaConverters._
 
 /**
  * Represents the base type for EventBuses
@@ -134,6 +136,7 @@ trait LookupClassification { this: EventBus =>
  * to one channel automatically and idempotently subscribes to all sub-channels.
  */
 trait SubchannelClassification { this: EventBus =>
+  import SubchannelClassification.Subscribers
 
   /**
    * The logic to form sub-class hierarchy
@@ -143,8 +146,9 @@ trait SubchannelClassification { this: EventBus =>
   // must be lazy to avoid initialization order problem with subclassification
   private lazy val subscriptions = new SubclassifiedIndex[Classifier, Subscriber]()
 
-  @volatile
-  private var cache = Map.empty[Classifier, Set[Subscriber]]
+  // copy-on-write per classifier, updated while holding the subscriptions lock, an entry is replaced but
+  // never modified so that publish can read it without locking
+  private val cache = new ConcurrentHashMap[Classifier, Subscribers[Subscriber]]
 
   /**
    * Returns the Classifier associated with the given Event
@@ -166,7 +170,7 @@ trait SubchannelClassification { this: EventBus =>
     val diff = subscriptions.removeValue(from, subscriber)
     // removeValue(K, V) does not return the diff to remove from or add to the cache
     // but instead the whole set of keys and values that should be updated in the cache
-    cache ++= diff
+    updateCache(diff)((_, cs) => cs)
     diff.nonEmpty
   }
 
@@ -176,17 +180,23 @@ trait SubchannelClassification { this: EventBus =>
 
   def publish(event: Event): Unit = {
     val c = classify(event)
+    val cached = cache.get(c)
     val recv =
-      if (cache contains c) cache(c) // c will never be removed from cache
+      if (cached ne null) cached // c will never be removed from cache
       else
         subscriptions.synchronized {
-          if (cache contains c) cache(c)
-          else {
-            addToCache(subscriptions.addKey(c))
-            cache(c)
+          if (!cache.containsKey(c)) addToCache(subscriptions.addKey(c))
+          cache.get(c) match {
+            case null => Subscribers.empty[Subscriber]
+            case subs => subs
           }
         }
-    recv.foreach(publish(event, _))
+    val subscribers = recv.array
+    var i = 0
+    while (i < subscribers.length) {
+      publish(event, subscribers(i).asInstanceOf[Subscriber])
+      i += 1
+    }
   }
 
   /**
@@ -196,20 +206,43 @@ trait SubchannelClassification { this: EventBus =>
   private[pekko] def hasSubscriptions(subscriber: Subscriber): Boolean =
     // FIXME binary incompatible, but I think it is safe to filter out this problem,
     //       since it is only called from new functionality in EventStreamUnsubscriber
-    cache.values.exists { _ contains subscriber }
+    cache.values.asScala.exists { _.set contains subscriber }
 
   private def removeFromCache(changes: immutable.Seq[(Classifier, Set[Subscriber])]): Unit =
-    cache = changes.foldLeft(cache) {
-      case (m, (c, cs)) => m.updated(c, m.getOrElse(c, Set.empty[Subscriber]).diff(cs))
-    }
+    updateCache(changes)(_.diff(_))
 
   private def addToCache(changes: immutable.Seq[(Classifier, Set[Subscriber])]): Unit =
-    cache = changes.foldLeft(cache) {
-      case (m, (c, cs)) => m.updated(c, m.getOrElse(c, Set.empty[Subscriber]).union(cs))
+    updateCache(changes)(_.union(_))
+
+  private def updateCache(changes: immutable.Seq[(Classifier, Set[Subscriber])])(
+      update: (Set[Subscriber], Set[Subscriber]) => Set[Subscriber]): Unit =
+    changes.foreach {
+      case (c, cs) =>
+        val old = cache.get(c)
+        cache.put(c, new Subscribers(update(if (old eq null) Set.empty[Subscriber] else old.set, cs)))
     }
 
 }
 
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[event] object SubchannelClassification {
+
+  /**
+   * The subscribers of a classifier, with an array copy of the set for fast iteration when publishing
+   */
+  final class Subscribers[S](val set: Set[S]) {
+    val array: Array[Any] = set.toArray[Any]
+  }
+
+  object Subscribers {
+    private val Empty = new Subscribers[Any](Set.empty)
+    def empty[S]: Subscribers[S] = Empty.asInstanceOf[Subscribers[S]]
+  }
+}
+
 /**
  * Maps Classifiers to Subscribers and selects which Subscriber should receive which publication through scanning through all Subscribers
  * through the matches(classifier, event) method
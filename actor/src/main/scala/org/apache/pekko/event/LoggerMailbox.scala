@@ -13,16 +13,23 @@
 
 package org.apache.pekko.event
 
+import java.util.concurrent.atomic.AtomicLong
+
 import com.typesafe.config.Config
 
 import org.apache.pekko
 import pekko.actor.ActorRef
 import pekko.actor.ActorSystem
+import pekko.actor.DeadLetter
+import pekko.actor.InternalActorRef
+import pekko.dispatch.AbstractBoundedNodeQueue
+import pekko.dispatch.Envelope
 import pekko.dispatch.MailboxType
 import pekko.dispatch.MessageQueue
 import pekko.dispatch.ProducesMessageQueue
 import pekko.dispatch.UnboundedMailbox
 import pekko.event.Logging.LogEvent
+import pekko.event.Logging.Warning
 import pekko.util.unused
 
 trait LoggerMessageQueueSemantics
@@ -48,9 +55,20 @@ private[pekko] class LoggerMailbox(@unused owner: ActorRef, system: ActorSystem)
     with LoggerMessageQueueSemantics {
 
   override def cleanUp(owner: ActorRef, deadLetters: MessageQueue): Unit = {
-    if (hasMessages) {
+    LoggerMailbox.drainToStandardOutLogger(this, system)
+    super.cleanUp(owner, deadLetters)
+  }
+}
+
+/**
+ * INTERNAL API
+ */
+private[pekko] object LoggerMailbox {
+
+  def drainToStandardOutLogger(queue: MessageQueue, system: ActorSystem): Unit = {
+    if (queue.hasMessages) {
       val logLevel = system.eventStream.logLevel
-      var envelope = dequeue()
+      var envelope = queue.dequeue()
       // Drain all remaining messages to the StandardOutLogger.
       // cleanUp is called after switching out the mailbox, which is why
       // this kind of look works without a limit.
@@ -65,9 +83,71 @@ private[pekko] class LoggerMailbox(@unused owner: ActorRef, system: ActorSystem)
             case _ => // skip
           }
 
-        envelope = dequeue()
+        envelope = queue.dequeue()
       }
     }
-    super.cleanUp(owner, deadLetters)
   }
 }
+
+/**
+ * INTERNAL API
+ *
+ * Mailbox for the loggers that holds at most `capacity` messages, so that the memory used by
+ * log events that the loggers can't keep up with is bounded. Log events that don't fit are
+ * dropped without blocking the logging thread, and the number of dropped events is logged as
+ * a warning before the next event that the logger receives.
+ */
+private[pekko] class BoundedLoggerMailboxType(@unused settings: ActorSystem.Settings, config: Config)
+    extends MailboxType
+    with ProducesMessageQueue[BoundedLoggerMailbox] {
+
+  private val capacity = config.getInt("capacity")
+  require(capacity > 0, "capacity of bounded-logger-queue must be > 0")
+
+  override def create(owner: Option[ActorRef], system: Option[ActorSystem]) = (owner, system) match {
+    case (Some(o), Some(s)) => new BoundedLoggerMailbox(o, s, capacity)
+    case _                  => throw new IllegalArgumentException("no mailbox owner or system given")
+  }
+}
+
+/**
+ * INTERNAL API
+ */
+private[pekko] class BoundedLoggerMailbox(@unused owner: ActorRef, system: ActorSystem, capacity: Int)
+    extends AbstractBoundedNodeQueue[Envelope](capacity)
+    with MessageQueue
+    with LoggerMessageQueueSemantics {
+
+  private val dropped = new AtomicLong
+
+  override def enqueue(receiver: ActorRef, handle: Envelope): Unit =
+    if (!add(handle)) handle.message match {
+      case _: LogEvent => dropped.incrementAndGet()
+      case _ =>
+        receiver
+          .asInstanceOf[InternalActorRef]
+          .provider
+          .deadLetters
+          .tell(DeadLetter(handle.message, handle.sender, receiver), handle.sender)
+    }
+
+  override def dequeue(): Envelope =
+    if (dropped.get == 0L) poll()
+    else {
+      val n = dropped.getAndSet(0L)
+      Envelope(
+        Warning(
+          Logging.simpleName(this),
+          classOf[BoundedLoggerMailbox],
+          s"[$n] log events were dropped because the logger couldn't keep up"),
+        ActorRef.noSender,
+        system)
+    }
+
+  override def numberOfMessages: Int = size()
+
+  override def hasMessages: Boolean = !isEmpty() || dropped.get != 0L
+
+  override def cleanUp(owner: ActorRef, deadLetters: MessageQueue): Unit =
+    LoggerMailbox.drainToStandardOutLogger(this, system)
+}
@@ -35,6 +35,7 @@ import pekko.event.LoggingAdapter
 import pekko.routing.RandomPool
 import pekko.util.Helpers.Requiring
 import pekko.util.SerializedSuspendableExecutionContext
+import pekko.util.unused
 
 abstract class SelectionHandlerSettings(config: Config) {
   import config._
@@ -79,6 +80,16 @@ private[io] trait ChannelRegistration extends NoSerializationVerificationNeeded
    * The `andThen` method is run from another thread so make sure it's safe to execute from there.
    */
   def cancelAndClose(andThen: () => Unit): Unit
+
+  /**
+   * Let the select loop run `read` when the channel is readable, instead of sending `ChannelReadable` to
+   * the channel actor. This saves a message to the channel actor for each read. `read` is run on the
+   * selector thread and returns false when the channel actor has to take over, e.g. at the end of the
+   * stream, and the channel actor is then sent `ChannelReadable`.
+   *
+   * Returns false if not supported by the registration, and the channel actor has to do the reads.
+   */
+  def readOnSelector(@unused read: () => Boolean): Boolean = false
 }
 
 private[io] object SelectionHandler {
@@ -108,6 +119,12 @@ private[io] object SelectionHandler {
   case object ChannelReadable extends DeadLetterSuppression
   case object ChannelWritable extends DeadLetterSuppression
 
+  /**
+   * Attachment of the selection keys of channels that are read on the selector thread,
+   * see [[ChannelRegistration.readOnSelector]]
+   */
+  private final class SelectorReader(val channelActor: ActorRef, val read: () => Boolean)
+
   private[io] abstract class SelectorBasedManager(selectorSettings: SelectionHandlerSettings, nrOfSelectors: Int)
       extends Actor {
 
@@ -170,11 +187,17 @@ private[io] object SelectionHandler {
                 // Cache because the performance implications of calling this on different platforms are not clear
                 val readyOps = key.readyOps()
                 key.interestOps(key.interestOps & ~readyOps) // prevent immediate reselection by always clearing
-                val connection = key.attachment.asInstanceOf[ActorRef]
+                val attachment = key.attachment
+                val connection = attachment match {
+                  case reader: SelectorReader => reader.channelActor
+                  case _                      => attachment.asInstanceOf[ActorRef]
+                }
                 readyOps match {
-                  case OP_READ                   => connection ! ChannelReadable
+                  case OP_READ                   => channelReadable(key, attachment, connection)
                   case OP_WRITE                  => connection ! ChannelWritable
-                  case OP_READ_AND_WRITE         => { connection ! ChannelWritable; connection ! ChannelReadable }
+                  case OP_READ_AND_WRITE =>
+                    connection ! ChannelWritable
+                    channelReadable(key, attachment, connection)
                   case x if (x & OP_ACCEPT) > 0  => connection ! ChannelAcceptable
                   case x if (x & OP_CONNECT) > 0 => connection ! ChannelConnectable
                   case x                         => log.warning("Invalid readyOps: [{}]", x)
@@ -199,6 +222,22 @@ private[io] object SelectionHandler {
 
     executionContext.execute(select) // start selection "loop"
 
+    private def channelReadable(key: SelectionKey, attachment: AnyRef, connection: ActorRef): Unit =
+      attachment match {
+        case reader: SelectorReader =>
+          val continueReading =
+            try reader.read()
+            catch {
+              case NonFatal(e) =>
+                if (settings.TraceLogging) log.debug("Read on selector failed: [{}]", e)
+                false
+            }
+          if (continueReading) key.interestOps(key.interestOps | OP_READ)
+          else connection ! ChannelReadable
+        case _ =>
+          connection ! ChannelReadable
+      }
+
     def register(channel: SelectableChannel, initialOps: Int)(implicit channelActor: ActorRef): Unit = {
       if (settings.TraceLogging) log.debug(s"Scheduling Registering channel $channel with initialOps $initialOps")
       execute {
@@ -213,6 +252,11 @@ private[io] object SelectionHandler {
                 def disableInterest(ops: Int): Unit = disableInterestOps(key, ops)
 
                 def cancelAndClose(andThen: () => Unit): Unit = cancelKeyAndClose(key, andThen)
+
+                override def readOnSelector(read: () => Boolean): Boolean = {
+                  attachReader(key, new SelectorReader(channelActor, read))
+                  true
+                }
               }
             } catch {
               case _: ClosedChannelException =>
@@ -272,6 +316,13 @@ private[io] object SelectionHandler {
         }
       }
 
+    private def attachReader(key: SelectionKey, reader: SelectorReader): Unit =
+      execute {
+        new Task {
+          def tryRun(): Unit = key.attach(reader)
+        }
+      }
+
     private def runThunk(andThen: () => Unit): Unit =
       execute {
         new Task {
@@ -13,10 +13,9 @@
 
 package org.apache.pekko.io
 
-import java.util.concurrent.atomic.AtomicReference
-
-import scala.annotation.tailrec
-import scala.collection.immutable
+import java.util.Comparator
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
 
 import scala.annotation.nowarn
 
@@ -35,13 +34,20 @@ private[io] trait PeriodicCacheCleanup {
   def cleanup(): Unit
 }
 
-class SimpleDnsCache extends Dns with PeriodicCacheCleanup with NoSerializationVerificationNeeded {
+/**
+ * Cache of resolved DNS records, which is shared by the resolver actors and can be read and updated
+ * concurrently without locking. It holds at most `maxEntries` entries, when the cache grows beyond that
+ * the expired entries and then the entries that expire soonest are removed.
+ */
+class SimpleDnsCache(maxEntries: Int) extends Dns with PeriodicCacheCleanup with NoSerializationVerificationNeeded {
   import SimpleDnsCache._
-  private val cacheRef = new AtomicReference(
-    new Cache[(String, RequestType), Resolved](
-      immutable.SortedSet()(expiryEntryOrdering()),
-      immutable.Map(),
-      () => clock()))
+
+  require(maxEntries > 0, "maxEntries must be > 0")
+
+  def this() = this(SimpleDnsCache.DefaultMaxEntries)
+
+  private val cache = new ConcurrentHashMap[(String, RequestType), CacheEntry]
+  private val evicting = new AtomicBoolean
 
   private val nanoBase = System.nanoTime()
 
@@ -55,9 +61,9 @@ class SimpleDnsCache extends Dns with PeriodicCacheCleanup with NoSerializationV
   @nowarn("msg=deprecated")
   override def cached(name: String): Option[Dns.Resolved] = {
     // adapt response to the old protocol
-    val ipv4 = cacheRef.get().get((name, Ip(ipv6 = false))).toList.flatMap(_.records)
-    val ipv6 = cacheRef.get().get((name, Ip(ipv4 = false))).toList.flatMap(_.records)
-    val both = cacheRef.get().get((name, Ip())).toList.flatMap(_.records)
+    val ipv4 = get((name, Ip(ipv6 = false))).toList.flatMap(_.records)
+    val ipv6 = get((name, Ip(ipv4 = false))).toList.flatMap(_.records)
+    val both = get((name, Ip())).toList.flatMap(_.records)
     val all = (ipv4 ++ ipv6 ++ both).collect {
       case r: ARecord    => r.ip
       case r: AAAARecord => r.ip
@@ -67,7 +73,7 @@ class SimpleDnsCache extends Dns with PeriodicCacheCleanup with NoSerializationV
   }
 
   override def cached(request: DnsProtocol.Resolve): Option[DnsProtocol.Resolved] =
-    cacheRef.get().get((request.name, request.requestType))
+    get((request.name, request.requestType))
 
   // Milliseconds since start
   protected def clock(): Long = {
@@ -81,23 +87,66 @@ class SimpleDnsCache extends Dns with PeriodicCacheCleanup with NoSerializationV
    */
   @InternalApi
   private[pekko] final def get(key: (String, RequestType)): Option[Resolved] = {
-    cacheRef.get().get(key)
+    val entry = cache.get(key)
+    if ((entry ne null) && entry.isValid(clock())) Some(entry.answer) else None
+  }
+
+  /**
+   * INTERNAL API: Returns `true` if the entry for the key is still valid but less than the given fraction
+   * of its time to live remains, and it was not returned for a prefetch before. The caller is then expected
+   * to resolve the name again and `put` the result, which replaces the entry, so that names that are
+   * requested frequently don't expire.
+   */
+  @InternalApi
+  private[pekko] final def shouldPrefetch(key: (String, RequestType), fraction: Double): Boolean = {
+    val entry = cache.get(key)
+    (entry ne null) && {
+      val now = clock()
+      entry.isValid(now) && entry.until != Long.MaxValue &&
+      (entry.until - now) < (entry.until - entry.created) * fraction &&
+      entry.prefetching.compareAndSet(false, true)
+    }
   }
 
-  @tailrec
   private[io] final def put(key: (String, RequestType), records: Resolved, ttl: CachePolicy): Unit = {
-    val c = cacheRef.get()
-    if (!cacheRef.compareAndSet(c, c.put(key, records, ttl)))
-      put(key, records, ttl)
+    val now = clock()
+    val until = ttl match {
+      case Forever  => Long.MaxValue
+      case Never    => now - 1
+      case ttl: Ttl => now + ttl.value.toMillis
+    }
+    cache.put(key, new CacheEntry(records, now, until))
+    if (cache.size > maxEntries) evict()
   }
 
-  @tailrec
   override final def cleanup(): Unit = {
-    val c = cacheRef.get()
-    if (!cacheRef.compareAndSet(c, c.cleanup()))
-      cleanup()
+    val now = clock()
+    val iter = cache.values.iterator
+    while (iter.hasNext) {
+      if (!iter.next().isValid(now)) iter.remove()
+    }
   }
 
+  // removes the expired entries and, if that was not enough, the entries that expire soonest, leaving
+  // some room so that not every put has to evict
+  private def evict(): Unit =
+    if (evicting.compareAndSet(false, true)) {
+      try {
+        cleanup()
+        if (cache.size > maxEntries) {
+          val excess = cache.size - maxEntries + maxEntries / 10
+          val entries = new java.util.ArrayList[java.util.Map.Entry[(String, RequestType), CacheEntry]](cache.entrySet)
+          entries.sort(untilOrdering)
+          var i = 0
+          while (i < excess && i < entries.size) {
+            val e = entries.get(i)
+            cache.remove(e.getKey, e.getValue)
+            i += 1
+          }
+        }
+      } finally evicting.set(false)
+    }
+
 }
 object SimpleDnsCache {
 
@@ -105,62 +154,23 @@ object SimpleDnsCache {
    * INTERNAL API
    */
   @InternalApi
-  private[io] class Cache[K, V](
-      queue: immutable.SortedSet[ExpiryEntry[K]],
-      cache: immutable.Map[K, CacheEntry[V]],
-      clock: () => Long) {
-    def get(name: K): Option[V] = {
-      for {
-        e <- cache.get(name)
-        if e.isValid(clock())
-      } yield e.answer
-    }
-
-    def put(name: K, answer: V, ttl: CachePolicy): Cache[K, V] = {
-      val until = ttl match {
-        case Forever  => Long.MaxValue
-        case Never    => clock() - 1
-        case ttl: Ttl => clock() + ttl.value.toMillis
-      }
-
-      new Cache[K, V](queue + new ExpiryEntry[K](name, until), cache + (name -> CacheEntry(answer, until)), clock)
-    }
-
-    def cleanup(): Cache[K, V] = {
-      val now = clock()
-      var q = queue
-      var c = cache
-      while (q.nonEmpty && !q.head.isValid(now)) {
-        val minEntry = q.head
-        val name = minEntry.name
-        q -= minEntry
-        if (c.get(name).filterNot(_.isValid(now)).isDefined)
-          c -= name
-      }
-      new Cache(q, c, clock)
-    }
-  }
-
-  private[io] case class CacheEntry[T](answer: T, until: Long) {
-    def isValid(clock: Long): Boolean = clock < until
-  }
+  private[io] val DefaultMaxEntries = 100000
 
   /**
    * INTERNAL API
    */
   @InternalApi
-  private[io] class ExpiryEntry[K](val name: K, val until: Long) extends Ordered[ExpiryEntry[K]] {
+  private[io] final class CacheEntry(val answer: Resolved, val created: Long, val until: Long) {
+    // set when the entry is returned for a prefetch, a new entry replaces it when that completes
+    val prefetching = new AtomicBoolean
     def isValid(clock: Long): Boolean = clock < until
-    override def compare(that: ExpiryEntry[K]): Int = -until.compareTo(that.until)
   }
 
-  /**
-   * INTERNAL API
-   */
-  @InternalApi
-  private[io] def expiryEntryOrdering[K]() = new Ordering[ExpiryEntry[K]] {
-    override def compare(x: ExpiryEntry[K], y: ExpiryEntry[K]): Int = {
-      x.until.compareTo(y.until)
+  private val untilOrdering: Comparator[java.util.Map.Entry[(String, RequestType), CacheEntry]] =
+    new Comparator[java.util.Map.Entry[(String, RequestType), CacheEntry]] {
+      override def compare(
+          x: java.util.Map.Entry[(String, RequestType), CacheEntry],
+          y: java.util.Map.Entry[(String, RequestType), CacheEntry]): Int =
+        java.lang.Long.compare(x.getValue.until, y.getValue.until)
     }
-  }
 }
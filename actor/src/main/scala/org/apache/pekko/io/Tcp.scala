@@ -611,7 +611,12 @@ class TcpExt(system: ExtendedActorSystem) extends IO.Extension {
 
     import pekko.util.Helpers.ConfigOps
 
-    val NrOfSelectors: Int = getInt("nr-of-selectors").requiring(_ > 0, "nr-of-selectors must be > 0")
+    val NrOfSelectors: Int = {
+      val perCore = getDouble("nr-of-selectors-per-core").requiring(_ >= 0.0, "nr-of-selectors-per-core must be >= 0")
+      if (perCore > 0.0) math.max(math.ceil(Runtime.getRuntime.availableProcessors * perCore).toInt, 1)
+      else getInt("nr-of-selectors").requiring(_ > 0, "nr-of-selectors must be > 0")
+    }
+    val BatchedReads: Boolean = getBoolean("batched-reads")
 
     val BatchAcceptLimit: Int = getInt("batch-accept-limit").requiring(_ > 0, "batch-accept-limit must be > 0")
     val DirectBufferSize: Int = getIntBytes("direct-buffer-size")
@@ -21,7 +21,7 @@ import java.nio.channels.SelectionKey._
 import java.nio.file.{ Path, Paths }
 
 import scala.annotation.tailrec
-import scala.collection.immutable
+import scala.collection.{ immutable, mutable }
 import scala.concurrent.duration._
 import scala.util.control.{ NoStackTrace, NonFatal }
 
@@ -53,6 +53,9 @@ private[io] abstract class TcpConnection(val tcp: TcpExt, val channel: SocketCha
   private[this] var peerClosed = false
   private[this] var writingSuspended = false
   private[this] var readingSuspended = pullMode
+  private[this] var readingOnSelector = false
+  // set before the close event is sent, so that `readOnSelector` doesn't send `Received` after it
+  @volatile private[this] var stoppedReadingOnSelector = false
   private[this] var interestedInResume: Option[ActorRef] = None
   private[this] var closedMessage: Option[CloseInformation] = None // for ConnectionClosed message in postStop
   private var watchedActor: ActorRef = context.system.deadLetters
@@ -87,6 +90,10 @@ private[io] abstract class TcpConnection(val tcp: TcpExt, val channel: SocketCha
       context.setReceiveTimeout(Duration.Undefined)
       context.become(connected(info))
 
+      // pull mode reads one chunk for each ResumeReading and is always done by the connection actor
+      if (BatchedReads && !pullMode)
+        readingOnSelector = registration.readOnSelector(() => readOnSelector(handler))
+
       // if we are in push mode or already have resumed reading in pullMode while waiting for Register
       // then register OP_READ interest
       if (!pullMode || ( /*pullMode && */ !readingSuspended)) resumeReading(info, None)
@@ -255,7 +262,9 @@ private[io] abstract class TcpConnection(val tcp: TcpExt, val channel: SocketCha
   }
   def resumeReading(info: ConnectionInfo, closeCommander: Option[ActorRef]): Unit = {
     readingSuspended = false
-    doRead(info, closeCommander)
+    // the select loop may still be reading, the readable channel will be selected again
+    if (readingOnSelector) info.registration.enableInterest(OP_READ)
+    else doRead(info, closeCommander)
   }
 
   /**
@@ -311,6 +320,44 @@ private[io] abstract class TcpConnection(val tcp: TcpExt, val channel: SocketCha
       } finally bufferPool.release(buffer)
     }
 
+  /**
+   * Read from the channel on the selector thread when `batched-reads` is enabled, and send what is available,
+   * up to `MaxBuffersPerSelectorRead` buffers and the configured limit, to the handler in one `Received`.
+   * Returns false at end-of-stream or on failure, which is then handled by the connection actor, and once the
+   * connection is closing, after which nothing is sent to the handler, like the connection actor after `stopWith`.
+   *
+   * Must not touch the state of the actor, since it's run outside of it.
+   */
+  private def readOnSelector(handler: ActorRef): Boolean =
+    if (stoppedReadingOnSelector) false
+    else {
+      val buffer = bufferPool.acquire()
+      try {
+        @tailrec def innerRead(received: ByteString, remainingLimit: Int): Boolean =
+          if (remainingLimit > 0) {
+            buffer.clear()
+            val maxBufferSpace = math.min(DirectBufferSize, remainingLimit)
+            buffer.limit(maxBufferSpace)
+            val readBytes =
+              try channel.read(buffer)
+              catch { case _: IOException => -1 } // the connection actor reads again and handles the failure
+            buffer.flip()
+            if (readBytes == maxBufferSpace) innerRead(received ++ ByteString(buffer), remainingLimit - readBytes)
+            else {
+              val all = if (readBytes > 0) received ++ ByteString(buffer) else received
+              if (all.nonEmpty && !stoppedReadingOnSelector) handler ! Received(all)
+              readBytes >= 0
+            }
+          } else {
+            if (received.nonEmpty && !stoppedReadingOnSelector) handler ! Received(received)
+            true
+          }
+
+        val limit = math.min(ReceivedMessageSizeLimit.toLong, DirectBufferSize.toLong * MaxBuffersPerSelectorRead)
+        innerRead(ByteString.empty, limit.toInt)
+      } finally bufferPool.release(buffer)
+    }
+
   def doWrite(info: ConnectionInfo): Unit = pendingWrite = pendingWrite.doWrite(info)
 
   def closeReason =
@@ -391,6 +438,7 @@ private[io] abstract class TcpConnection(val tcp: TcpExt, val channel: SocketCha
   }
 
   def stopWith(closeInfo: CloseInformation, shouldAbort: Boolean = false): Unit = {
+    stoppedReadingOnSelector = true
     closedMessage = Some(closeInfo)
     unsignDeathPact()
 
@@ -407,6 +455,7 @@ private[io] abstract class TcpConnection(val tcp: TcpExt, val channel: SocketCha
   }
 
   override def postStop(): Unit = {
+    stoppedReadingOnSelector = true
     if (writePending) pendingWrite.release()
 
     val interestedInClose: Set[ActorRef] =
@@ -452,56 +501,125 @@ private[io] abstract class TcpConnection(val tcp: TcpExt, val channel: SocketCha
     create(write, Write.empty)
   }
 
-  def PendingBufferWrite(commander: ActorRef, data: ByteString, ack: Event, tail: WriteCommand): PendingBufferWrite = {
-    val buffer = bufferPool.acquire()
-    try {
-      val copied = data.copyToBuffer(buffer)
-      buffer.flip()
-      new PendingBufferWrite(commander, data.drop(copied), ack, buffer, tail)
-    } catch {
-      case NonFatal(e) =>
-        bufferPool.release(buffer)
-        throw e
-    }
-  }
+  def PendingBufferWrite(commander: ActorRef, data: ByteString, ack: Event, tail: WriteCommand): PendingBufferWrite =
+    new PendingBufferWrite(commander, data, ack, tail)
 
-  class PendingBufferWrite(
-      val commander: ActorRef,
-      remainingData: ByteString,
-      ack: Any,
-      buffer: ByteBuffer,
-      tail: WriteCommand)
+  /**
+   * Writes the data of consecutive `Write` commands, also across the parts of a `CompoundWrite`, with gathering
+   * writes of up to `MaxBuffersPerWrite` buffers of the pool, so that many small chunks are written with one system
+   * call. The data is copied to the direct buffers of the pool since the JDK would otherwise copy each heap buffer
+   * of a gathering write to a temporary direct buffer, which is cached per thread. The acks are sent in order as
+   * soon as the data of the respective `Write` has been written.
+   */
+  class PendingBufferWrite(val commander: ActorRef, data: ByteString, ack: Event, tail: WriteCommand)
       extends PendingWrite {
+    private[this] val buffers = new Array[ByteBuffer](MaxBuffersPerWrite)
+    private[this] var acquired = 0
+    // number of buffers with data that is being written
+    private[this] var batchSize = 0
+    // the data of the current write not yet copied to the buffers
+    private[this] var remainingData = data
+    private[this] var remainingAck: Event = ack
+    // the commands not yet taken into the buffers
+    private[this] var remainingTail = tail
+    private[this] var copiedBytes = 0L
+    private[this] var writtenBytes = 0L
+    // acks to send once the given number of bytes has been written
+    private[this] val pendingAcks = mutable.Queue.empty[(Long, Event)]
 
     def doWrite(info: ConnectionInfo): PendingWrite = {
-      @tailrec def writeToChannel(data: ByteString): PendingWrite = {
-        val writtenBytes = channel.write(buffer) // at first we try to drain the remaining bytes from the buffer
-        if (TraceLogging) log.debug("Wrote [{}] bytes to channel", writtenBytes)
-        if (buffer.hasRemaining) {
-          // we weren't able to write all bytes from the buffer, so we need to try again later
-          if (data eq remainingData) this
-          else new PendingBufferWrite(commander, data, ack, buffer, tail) // copy with updated remainingData
-
-        } else if (data.nonEmpty) {
-          buffer.clear()
-          val copied = data.copyToBuffer(buffer)
-          buffer.flip()
-          writeToChannel(data.drop(copied))
-
-        } else {
-          if (!ack.isInstanceOf[NoAck]) commander ! ack
-          release()
-          PendingWrite(commander, tail)
+      @tailrec def writeToChannel(): PendingWrite = {
+        val written = channel.write(buffers, 0, batchSize)
+        if (TraceLogging) log.debug("Wrote [{}] bytes to channel", written)
+        writtenBytes += written
+        while (pendingAcks.nonEmpty && pendingAcks.head._1 <= writtenBytes) commander ! pendingAcks.dequeue()._2
+        if (buffers(batchSize - 1).hasRemaining)
+          // we weren't able to write all bytes from the buffers, so we need to try again later
+          this
+        else {
+          batchSize = fill()
+          if (batchSize > 0) writeToChannel()
+          else {
+            release()
+            PendingWrite(commander, remainingTail)
+          }
         }
       }
       try {
-        val next = writeToChannel(remainingData)
+        if (batchSize == 0) batchSize = fill()
+        val next = writeToChannel()
         if (next ne EmptyPendingWrite) info.registration.enableInterest(OP_WRITE)
         next
       } catch { case e: IOException => handleError(info.handler, e); this }
     }
 
-    def release(): Unit = bufferPool.release(buffer)
+    def release(): Unit = {
+      var i = 0
+      while (i < acquired) {
+        bufferPool.release(buffers(i))
+        buffers(i) = null
+        i += 1
+      }
+      acquired = 0
+    }
+
+    // copies the remaining data to the buffers and returns the number of buffers with data
+    private def fill(): Int = {
+      var i = 0
+      while (i < acquired) {
+        buffers(i).clear()
+        i += 1
+      }
+      i = 0
+      while (i < MaxBuffersPerWrite && (remainingData.nonEmpty || takeNextWrite())) {
+        if (i == acquired) {
+          buffers(i) = bufferPool.acquire()
+          acquired += 1
+        }
+        val buffer = buffers(i)
+        val copied = remainingData.copyToBuffer(buffer)
+        copiedBytes += copied
+        remainingData = remainingData.drop(copied)
+        if (remainingData.isEmpty) completeWrite()
+        if (!buffer.hasRemaining) i += 1
+      }
+      val filled = if (i < acquired && buffers(i).position() > 0) i + 1 else i
+      i = 0
+      while (i < filled) {
+        buffers(i).flip()
+        i += 1
+      }
+      filled
+    }
+
+    private def completeWrite(): Unit = {
+      if (!remainingAck.isInstanceOf[NoAck]) pendingAcks.enqueue(copiedBytes -> remainingAck)
+      remainingAck = NoAck
+    }
+
+    // takes the data of the next non-empty `Write` from the tail, the other commands are written afterwards
+    @tailrec private def takeNextWrite(): Boolean = {
+      val next = remainingTail match {
+        case Write.empty => null
+        case CompoundWrite(w: Write, t) =>
+          remainingTail = t
+          w
+        case w: Write =>
+          remainingTail = Write.empty
+          w
+        case _ => null
+      }
+      if (next eq null) false
+      else {
+        remainingData = next.data
+        remainingAck = next.ack
+        if (remainingData.nonEmpty) true
+        else {
+          completeWrite()
+          takeNextWrite()
+        }
+      }
+    }
   }
 
   def PendingWriteFile(
@@ -558,6 +676,12 @@ private[io] object TcpConnection {
   object AllRead extends ReadResult
   object MoreDataWaiting extends ReadResult
 
+  // limits how much is read from one channel in one run of the select loop with batched-reads
+  val MaxBuffersPerSelectorRead = 8
+
+  // limits the number of buffers written with one gathering write
+  val MaxBuffersPerWrite = 4
+
   /**
    * Used to transport information to the postStop method to notify
    * interested party about a connection close.
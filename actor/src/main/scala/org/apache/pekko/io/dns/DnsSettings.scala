@@ -67,6 +67,10 @@ private[dns] final class DnsSettings(system: ExtendedActorSystem, c: Config) {
   val PositiveCachePolicy: CachePolicy = getTtl("positive-ttl")
   val NegativeCachePolicy: CachePolicy = getTtl("negative-ttl")
 
+  val PrefetchBeforeExpiry: Double = c
+    .getDouble("prefetch-before-expiry")
+    .requiring(d => d >= 0.0 && d < 1.0, "pekko.io.dns.prefetch-before-expiry must be >= 0 and < 1")
+
   private def getTtl(path: String): CachePolicy =
     c.getString(path) match {
       case "forever" => Forever
@@ -79,6 +79,7 @@ private[io] final class AsyncDnsResolver(
 
   val positiveCachePolicy = settings.PositiveCachePolicy
   val negativeCachePolicy = settings.NegativeCachePolicy
+  val prefetchBeforeExpiry = settings.PrefetchBeforeExpiry
   log.debug(
     "Using name servers [{}] and search domains [{}] with ndots={}",
     nameServers,
@@ -102,20 +103,27 @@ private[io] final class AsyncDnsResolver(
         case Some(resolved) =>
           log.debug("{} cached {}", mode, resolved)
           sender() ! resolved
-        case None =>
-          resolveWithResolvers(name, mode, resolvers)
-            .map { resolved =>
-              if (resolved.records.nonEmpty) {
-                val minTtl = (positiveCachePolicy +: resolved.records.map(_.ttl)).min
-                cache.put((name, mode), resolved, minTtl)
-              } else if (negativeCachePolicy != Never) cache.put((name, mode), resolved, negativeCachePolicy)
-              log.debug(s"{} resolved {}", mode, resolved)
-              resolved
+          if (prefetchBeforeExpiry > 0.0 && cache.shouldPrefetch((name, mode), prefetchBeforeExpiry)) {
+            log.debug("Prefetching {} {} before the cached records expire", mode, name)
+            resolveAndCache(name, mode).failed.foreach { e =>
+              log.debug("Prefetch of {} failed: {}", name, e.getMessage)
             }
-            .pipeTo(sender())
+          }
+        case None =>
+          resolveAndCache(name, mode).pipeTo(sender())
       }
   }
 
+  private def resolveAndCache(name: String, mode: RequestType): Future[DnsProtocol.Resolved] =
+    resolveWithResolvers(name, mode, resolvers).map { resolved =>
+      if (resolved.records.nonEmpty) {
+        val minTtl = (positiveCachePolicy +: resolved.records.map(_.ttl)).min
+        cache.put((name, mode), resolved, minTtl)
+      } else if (negativeCachePolicy != Never) cache.put((name, mode), resolved, negativeCachePolicy)
+      log.debug(s"{} resolved {}", mode, resolved)
+      resolved
+    }
+
   private def resolveWithResolvers(
       name: String,
       requestType: RequestType,
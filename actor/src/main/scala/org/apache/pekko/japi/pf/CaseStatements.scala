@@ -13,8 +13,12 @@
 
 package org.apache.pekko.japi.pf
 
+import scala.runtime.AbstractPartialFunction
+
 import FI.{ Apply, Predicate, UnitApply }
 
+import org.apache.pekko.util.ClassDispatchTable
+
 private[pf] object CaseStatement {
   def empty[F, T](): PartialFunction[F, T] = PartialFunction.empty
 }
@@ -26,9 +30,59 @@ private[pf] class CaseStatement[-F, +P, T](predicate: Predicate, apply: Apply[P,
   override def apply(o: F) = apply.apply(o.asInstanceOf[P])
 }
 
-private[pf] class UnitCaseStatement[F, P](predicate: Predicate, apply: UnitApply[P]) extends PartialFunction[F, Unit] {
+/**
+ * @param matchedClass the class the statement is restricted to, or null, used by [[ClassDispatchStatements]]
+ * @param classOnly if the statement matches all instances of `matchedClass`
+ */
+private[pf] class UnitCaseStatement[F, P](
+    predicate: Predicate,
+    apply: UnitApply[P],
+    val matchedClass: Class[_],
+    val classOnly: Boolean)
+    extends PartialFunction[F, Unit] {
+
+  def this(predicate: Predicate, apply: UnitApply[P]) = this(predicate, apply, null, false)
 
   override def isDefinedAt(o: F) = predicate.defined(o)
 
   override def apply(o: F) = apply.apply(o.asInstanceOf[P])
 }
+
+/**
+ * Statements of a [[ReceiveBuilder]] with many cases. Instead of trying each statement in turn
+ * the candidate statements for the class of a message are looked up in a [[ClassDispatchTable]],
+ * statements that are not restricted to a class are candidates for all messages.
+ */
+private[pf] final class ClassDispatchStatements(statements: Array[PartialFunction[Any, Unit]])
+    extends AbstractPartialFunction[Any, Unit] {
+
+  private val classOnly: Array[Boolean] = statements.map {
+    case s: UnitCaseStatement[_, _] => s.classOnly
+    case _                          => false
+  }
+
+  private val table = new ClassDispatchTable(statements.map {
+    case s: UnitCaseStatement[_, _] => s.matchedClass
+    case _                          => null
+  })
+
+  private def indexOf(o: Any): Int =
+    if (o == null) statements.indexWhere(_.isDefinedAt(o))
+    else {
+      val candidates = table.candidates(o.getClass)
+      var i = 0
+      while (i < candidates.length) {
+        val c = candidates(i)
+        if (classOnly(c) || statements(c).isDefinedAt(o)) return c
+        i += 1
+      }
+      -1
+    }
+
+  override def isDefinedAt(o: Any): Boolean = indexOf(o) >= 0
+
+  override def applyOrElse[A1 <: Any, B1 >: Unit](o: A1, default: A1 => B1): B1 = {
+    val i = indexOf(o)
+    if (i >= 0) statements(i).apply(o) else default(o)
+  }
+}
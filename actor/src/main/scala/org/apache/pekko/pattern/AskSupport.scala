@@ -377,7 +377,8 @@ final class AskableActorRef(val actorRef: ActorRef) extends AnyVal {
       if (timeout.duration.length <= 0)
         Future.failed[Any](AskableActorRef.negativeTimeoutException(actorRef, message, sender))
       else {
-        PromiseActorRef(ref.provider, timeout, targetName = actorRef, message.getClass.getName, ref.path.name, sender)
+        PromiseActorRef
+          .forAsk(ref.provider, timeout, targetName = actorRef, message.getClass.getName, ref.path.name, sender)
           .ask(actorRef, message, timeout)
       }
     case _ => Future.failed[Any](AskableActorRef.unsupportedRecipientType(actorRef, message, sender))
@@ -410,7 +411,7 @@ final class ExplicitlyAskableActorRef(val actorRef: ActorRef) extends AnyVal {
           val message = messageFactory(ref.provider.deadLetters)
           Future.failed[Any](AskableActorRef.negativeTimeoutException(actorRef, message, sender))
         } else {
-          val a = PromiseActorRef(ref.provider, timeout, targetName = actorRef, "unknown", ref.path.name, sender)
+          val a = PromiseActorRef.forAsk(ref.provider, timeout, targetName = actorRef, "unknown", ref.path.name, sender)
           val message = messageFactory(a)
           a.messageClassName = message.getClass.getName
           a.ask(actorRef, message, timeout)
@@ -524,6 +525,15 @@ private[pekko] final class PromiseActorRef(
   // This is necessary for weaving the PromiseActorRef into the asked message, i.e. the replyTo pattern.
   @volatile var messageClassName = _mcn
 
+  // Set by PromiseActorRef.forAsk when the timeout is handled by the AskTimeoutBatcher, before
+  // the ref is published, null otherwise
+  private[pattern] var askTimeout: Timeout = _
+  private[pattern] var askTargetName: Any = _
+  private[pattern] var askSender: ActorRef = _
+  private[pattern] var askOnTimeout: String => Throwable = _
+  // the entry in the timeout batch, cleared with the fields above when this ref is stopped
+  private[pattern] var timeoutEntry: AskTimeoutBatcher.Entry = _
+
   /**
    * As an optimization for the common (local) case we only register this PromiseActorRef
    * with the provider when the `path` member is actually queried, which happens during
@@ -629,9 +639,43 @@ private[pekko] final class PromiseActorRef(
       val alreadyCompleted = !result.tryComplete(promiseResult)
       if (alreadyCompleted)
         provider.deadLetters ! message
+      // without batched timeout this is done by a callback on the result
+      else if (askTimeout ne null) stop()
       onComplete(message, alreadyCompleted)
   }
 
+  /**
+   * Called by the AskTimeoutBatcher when the timeout of the batch this ask belongs to has
+   * passed, fails the result unless it has been completed in the meantime.
+   */
+  private[pattern] def batchedTimeout(): Unit = {
+    val onTimeoutFn = askOnTimeout // cleared when the ref is stopped
+    if ((onTimeoutFn ne null) && !result.isCompleted) {
+      val timedOut = result.tryComplete(
+        Failure(onTimeoutFn(timeoutMessage(askTargetName, askSender, messageClassName, askTimeout))))
+      if (timedOut) {
+        onTimeout(askTimeout)
+      }
+    }
+    // stop if the result was completed directly rather than by a reply
+    stop()
+  }
+
+  /**
+   * Unlinks this ref from its timeout batch when it is stopped, so that the batch doesn't retain
+   * the reply, the target and the sender until the timeout has passed.
+   */
+  private def releaseBatchedTimeout(): Unit = {
+    val entry = timeoutEntry
+    if (entry ne null) {
+      entry.ref = null
+      timeoutEntry = null
+      askTargetName = null
+      askSender = null
+      askOnTimeout = null
+    }
+  }
+
   override def sendSystemMessage(message: SystemMessage): Unit = message match {
     case _: Terminate                      => stop()
     case DeathWatchNotification(a, ec, at) => this.!(Terminated(a)(existenceConfirmed = ec, addressTerminated = at))
@@ -657,6 +701,7 @@ private[pekko] final class PromiseActorRef(
   override def stop(): Unit = {
     def ensureCompleted(): Unit = {
       result.tryComplete(ActorStopResult)
+      releaseBatchedTimeout()
       val watchers = clearWatchers()
       if (watchers.nonEmpty) {
         watchers.foreach { watcher =>
@@ -712,6 +757,42 @@ private[pekko] object PromiseActorRef {
   private val ActorStopResult = Failure(ActorKilledException("Stopped"))
   private val defaultOnTimeout: String => Throwable = str => new AskTimeoutException(str)
 
+  private def timeoutMessage(targetName: Any, sender: ActorRef, messageClassName: String, timeout: Timeout): String = {
+    val wasSentBy = if (sender == ActorRef.noSender) "" else s" was sent by [$sender]"
+    val messagePart = s"Message of type [$messageClassName]$wasSentBy."
+    s"Ask timed out on [$targetName] after [${timeout.duration.toMillis} ms]. " +
+    messagePart +
+    " A typical reason for `AskTimeoutException` is that the recipient actor didn't send a reply."
+  }
+
+  /**
+   * PromiseActorRef for the ask pattern. When enabled with `pekko.actor.ask-timeout-batch-window`
+   * the timeout is shared with other asks started around the same time and the ref is stopped by
+   * the reply, instead of scheduling a timeout task and registering a completion callback for each ask.
+   */
+  def forAsk(
+      provider: ActorRefProvider,
+      timeout: Timeout,
+      targetName: Any,
+      messageClassName: String,
+      refPathPrefix: String,
+      sender: ActorRef = Actor.noSender,
+      onTimeout: String => Throwable = defaultOnTimeout): PromiseActorRef = {
+    val batcher = provider.guardian.underlying.system.askTimeoutBatcher
+    if (batcher eq null) apply(provider, timeout, targetName, messageClassName, refPathPrefix, sender, onTimeout)
+    else {
+      if (refPathPrefix.indexOf('/') > -1)
+        throw new IllegalArgumentException(s"refPathPrefix must not contain slash, was: $refPathPrefix")
+      val a = new PromiseActorRef(provider, Promise[Any](), messageClassName, refPathPrefix)
+      a.askTimeout = timeout
+      a.askTargetName = targetName
+      a.askSender = sender
+      a.askOnTimeout = onTimeout
+      batcher.register(a, timeout.duration)
+      a
+    }
+  }
+
   def apply(
       provider: ActorRefProvider,
       timeout: Timeout,
@@ -728,13 +809,7 @@ private[pekko] object PromiseActorRef {
     implicit val ec = ExecutionContexts.parasitic
     val f = scheduler.scheduleOnce(timeout.duration) {
       val timedOut = result.tryComplete {
-        val wasSentBy = if (sender == ActorRef.noSender) "" else s" was sent by [$sender]"
-        val messagePart = s"Message of type [${a.messageClassName}]$wasSentBy."
-        Failure(
-          onTimeout(
-            s"Ask timed out on [$targetName] after [${timeout.duration.toMillis} ms]. " +
-            messagePart +
-            " A typical reason for `AskTimeoutException` is that the recipient actor didn't send a reply."))
+        Failure(onTimeout(timeoutMessage(targetName, sender, a.messageClassName, timeout)))
       }
       if (timedOut) {
         a.onTimeout(timeout)
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.pattern
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicReference
+
+import scala.annotation.tailrec
+import scala.concurrent.ExecutionContext
+import scala.concurrent.duration._
+import scala.util.control.NonFatal
+
+import org.apache.pekko
+import pekko.actor.Scheduler
+import pekko.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ *
+ * Shares one scheduled timeout task between all asks with the same timeout that are started
+ * within `windowNanos` of each other, instead of scheduling (and cancelling) a task per ask.
+ * The task is scheduled with the timeout plus the window, so an ask times out at most one
+ * window later than requested, but never earlier.
+ *
+ * An ask is unlinked from its batch when it completes, so that the batch only retains
+ * a small entry per ask, not the reply, until the timeout task runs.
+ */
+@InternalApi
+private[pekko] final class AskTimeoutBatcher(scheduler: Scheduler, windowNanos: Long, ec: ExecutionContext) {
+  import AskTimeoutBatcher._
+
+  // asks usually use a handful of distinct timeouts, so this stays small
+  private val openBatches = new ConcurrentHashMap[FiniteDuration, Batch]
+
+  def register(ref: PromiseActorRef, timeout: FiniteDuration): Unit = {
+    val entry = new Entry(ref)
+    ref.timeoutEntry = entry
+    val now = System.nanoTime()
+    val batch = openBatches.get(timeout)
+    if ((batch eq null) || now - batch.openedAt > windowNanos || !batch.add(entry)) {
+      val newBatch = new Batch(now)
+      newBatch.add(entry)
+      openBatches.put(timeout, newBatch)
+      scheduler.scheduleOnce(timeout + windowNanos.nanos) {
+        openBatches.remove(timeout, newBatch)
+        newBatch.expire(ec)
+      }(ec)
+    }
+  }
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[pekko] object AskTimeoutBatcher {
+
+  private val Expired = new AnyRef
+
+  /**
+   * An ask in a batch, `ref` is cleared by the [[PromiseActorRef]] when it completes
+   */
+  private[pattern] final class Entry(@volatile var ref: PromiseActorRef) {
+    var next: Entry = _
+  }
+
+  /**
+   * Lock-free stack of the asks of a batch, replaced by `Expired` when the timeout task runs
+   */
+  private final class Batch(val openedAt: Long) extends AtomicReference[AnyRef] {
+
+    /**
+     * @return false if the batch has already expired
+     */
+    @tailrec def add(entry: Entry): Boolean = get match {
+      case Expired => false
+      case head =>
+        entry.next = head.asInstanceOf[Entry]
+        compareAndSet(head, entry) || add(entry)
+    }
+
+    def expire(ec: ExecutionContext): Unit = {
+      @tailrec def loop(entry: Entry): Unit =
+        if (entry ne null) {
+          val next = entry.next
+          entry.next = null
+          val ref = entry.ref
+          if (ref ne null) {
+            try ref.batchedTimeout()
+            catch {
+              case NonFatal(e) => ec.reportFailure(e)
+            }
+          }
+          loop(next)
+        }
+      loop(getAndSet(Expired).asInstanceOf[Entry])
+    }
+  }
+}
@@ -28,6 +28,7 @@ import pekko.actor.ExtendedActorSystem
 import pekko.actor.InvalidMessageException
 import pekko.actor.SupervisorStrategy
 import pekko.actor.WrappedMessage
+import pekko.annotation.InternalApi
 import pekko.dispatch.Dispatchers
 import pekko.event.Logging
 import pekko.japi.Util.immutableSeq
@@ -125,6 +126,37 @@ object ConsistentHashingRoutingLogic {
    */
   def defaultAddress(system: ActorSystem): Address =
     system.asInstanceOf[ExtendedActorSystem].provider.getDefaultAddress
+
+  /**
+   * INTERNAL API: The structure used to look up the routee for a key, see
+   * `pekko.actor.deployment.default.consistent-hashing-lookup`
+   */
+  @InternalApi
+  private[routing] sealed abstract class RouteeLookup {
+    def isEmpty: Boolean
+    def nodeFor(key: Array[Byte]): ConsistentRoutee
+    def nodeFor(key: String): ConsistentRoutee
+  }
+
+  /**
+   * INTERNAL API
+   */
+  @InternalApi
+  private[routing] final class RingLookup(ring: ConsistentHash[ConsistentRoutee]) extends RouteeLookup {
+    override def isEmpty: Boolean = ring.isEmpty
+    override def nodeFor(key: Array[Byte]): ConsistentRoutee = ring.nodeFor(key)
+    override def nodeFor(key: String): ConsistentRoutee = ring.nodeFor(key)
+  }
+
+  /**
+   * INTERNAL API
+   */
+  @InternalApi
+  private[routing] final class MaglevLookup(table: MaglevConsistentHash[ConsistentRoutee]) extends RouteeLookup {
+    override def isEmpty: Boolean = table.isEmpty
+    override def nodeFor(key: Array[Byte]): ConsistentRoutee = table.nodeFor(key)
+    override def nodeFor(key: String): ConsistentRoutee = table.nodeFor(key)
+  }
 }
 
 /**
@@ -147,6 +179,10 @@ object ConsistentHashingRoutingLogic {
  * These ways to define the consistent hash key can be use together and at
  * the same time for one router. The `hashMapping` is tried first.
  *
+ * The routees are looked up with a [[pekko.routing.ConsistentHash]] ring, or with a
+ * [[pekko.routing.MaglevConsistentHash]] table if `pekko.actor.deployment.default.consistent-hashing-lookup`
+ * is configured to `maglev`.
+ *
  * @param virtualNodesFactor number of virtual nodes per node, used in [[pekko.routing.ConsistentHash]]
  *
  * @param hashMapping partial function from message to the data to
@@ -162,6 +198,7 @@ final case class ConsistentHashingRoutingLogic(
     extends RoutingLogic {
 
   import ConsistentHashingRouter._
+  import ConsistentHashingRoutingLogic._
 
   /**
    * Java API
@@ -198,9 +235,17 @@ final case class ConsistentHashingRoutingLogic(
   def withHashMapper(mapper: ConsistentHashingRouter.ConsistentHashMapper): ConsistentHashingRoutingLogic =
     copy(hashMapping = ConsistentHashingRouter.hashMappingAdapter(mapper))
 
-  // tuple of routees and the ConsistentHash, updated together in updateConsistentHash
+  // tuple of routees and the RouteeLookup, updated together in updateConsistentHash
   private val consistentHashRef =
-    new AtomicReference[(immutable.IndexedSeq[Routee], ConsistentHash[ConsistentRoutee])]((null, null))
+    new AtomicReference[(immutable.IndexedSeq[Routee], RouteeLookup)]((null, null))
+
+  private def createLookup(routees: immutable.IndexedSeq[Routee]): RouteeLookup = {
+    val nodes = routees.map(ConsistentRoutee(_, selfAddress))
+    if (system.settings.ConsistentHashingLookup == "maglev")
+      new MaglevLookup(MaglevConsistentHash(nodes, system.settings.MaglevTableSize))
+    else
+      new RingLookup(ConsistentHash(nodes, vnodes))
+  }
 
   override def select(message: Any, routees: immutable.IndexedSeq[Routee]): Routee =
     if (routees.isEmpty) NoRoutee
@@ -208,7 +253,7 @@ final case class ConsistentHashingRoutingLogic(
 
       // update consistentHash when routees has changed
       // changes to routees are rare and when no changes this is a quick operation
-      def updateConsistentHash(): ConsistentHash[ConsistentRoutee] = {
+      def updateConsistentHash(): RouteeLookup = {
         val oldConsistentHashTuple = consistentHashRef.get
         val (oldRoutees, oldConsistentHash) = oldConsistentHashTuple
 
@@ -216,7 +261,7 @@ final case class ConsistentHashingRoutingLogic(
           // when other instance, same content, no need to re-hash, but try to set routees
           val consistentHash =
             if (routees == oldRoutees) oldConsistentHash
-            else ConsistentHash(routees.map(ConsistentRoutee(_, selfAddress)), vnodes) // re-hash
+            else createLookup(routees) // re-hash
           // ignore, don't update, in case of CAS failure
           consistentHashRef.compareAndSet(oldConsistentHashTuple, (routees, consistentHash))
           consistentHash
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.routing
+
+import java.math.BigInteger
+
+import scala.collection.immutable
+import scala.reflect.ClassTag
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+
+/**
+ * Consistent hashing with a Maglev lookup table, as described in
+ * "Maglev: A Fast and Reliable Software Network Load Balancer" (NSDI 2016).
+ *
+ * Each node fills the slots of a lookup table following its own permutation of the slots, and the
+ * node for a key is found by indexing the table with the hash of the key. Compared to the
+ * [[ConsistentHash]] ring the lookup is a constant time array access, the keys are spread more evenly
+ * over the nodes and the memory is bounded by the table size instead of growing with the number of
+ * virtual nodes. When a node is added or removed only slightly more keys than the minimum move
+ * between the other nodes.
+ *
+ * The table size must be a prime, and it should be much larger than the number of nodes,
+ * e.g. 100 times, for an even spread of the keys.
+ *
+ * Note that toString of the nodes are used for the node
+ * hash, i.e. make sure it is different for different nodes.
+ * Nodes with the same toString are only added once.
+ */
+@ApiMayChange
+final class MaglevConsistentHash[T: ClassTag] private (nodes: Array[T], val tableSize: Int) {
+
+  import MaglevConsistentHash._
+
+  if (tableSize < 2 || !BigInteger.valueOf(tableSize).isProbablePrime(32))
+    throw new IllegalArgumentException(s"tableSize must be a prime, was [$tableSize]")
+  if (nodes.length > tableSize)
+    throw new IllegalArgumentException(s"Can't fit [${nodes.length}] nodes in a table of size [$tableSize]")
+
+  // the index in nodes of the node owning each slot
+  private val lookupTable: Array[Int] = populate(nodes.map(_.toString), tableSize)
+
+  /**
+   * Adds a node to the lookup table.
+   * Note that the instance is immutable and this
+   * operation returns a new instance.
+   */
+  def :+(node: T): MaglevConsistentHash[T] = {
+    val nodeName = node.toString
+    MaglevConsistentHash(nodes.filterNot(_.toString == nodeName) :+ node, tableSize)
+  }
+
+  /**
+   * Java API: Adds a node to the lookup table.
+   * Note that the instance is immutable and this
+   * operation returns a new instance.
+   */
+  def add(node: T): MaglevConsistentHash[T] = this :+ node
+
+  /**
+   * Removes a node from the lookup table.
+   * Note that the instance is immutable and this
+   * operation returns a new instance.
+   */
+  def :-(node: T): MaglevConsistentHash[T] = {
+    val nodeName = node.toString
+    new MaglevConsistentHash(nodes.filterNot(_.toString == nodeName), tableSize)
+  }
+
+  /**
+   * Java API: Removes a node from the lookup table.
+   * Note that the instance is immutable and this
+   * operation returns a new instance.
+   */
+  def remove(node: T): MaglevConsistentHash[T] = this :- node
+
+  /**
+   * Get the node responsible for the data key.
+   * Can only be used if nodes exists in the lookup table,
+   * otherwise throws `IllegalStateException`
+   */
+  def nodeFor(key: Array[Byte]): T = {
+    if (isEmpty) throw new IllegalStateException("Can't get node for [%s] from an empty lookup table".format(key))
+
+    nodes(lookupTable(slotFor(MurmurHash.arrayHash(key), tableSize)))
+  }
+
+  /**
+   * Get the node responsible for the data key.
+   * Can only be used if nodes exists in the lookup table,
+   * otherwise throws `IllegalStateException`
+   */
+  def nodeFor(key: String): T = {
+    if (isEmpty) throw new IllegalStateException("Can't get node for [%s] from an empty lookup table".format(key))
+
+    nodes(lookupTable(slotFor(MurmurHash.stringHash(key), tableSize)))
+  }
+
+  /**
+   * Is the lookup table empty, i.e. no nodes added or all removed.
+   */
+  def isEmpty: Boolean = nodes.isEmpty
+
+}
+
+@ApiMayChange
+object MaglevConsistentHash {
+
+  /**
+   * The smallest prime larger than 65536, which gives an even spread for up to a few hundred nodes.
+   */
+  final val DefaultTableSize = 65537
+
+  def apply[T: ClassTag](nodes: Iterable[T], tableSize: Int): MaglevConsistentHash[T] = {
+    // sorted by name, so that the same nodes always result in the same table, independent of the order
+    // they were added in
+    val byName = immutable.SortedMap.empty[String, T] ++ nodes.iterator.map(node => node.toString -> node)
+    new MaglevConsistentHash(byName.valuesIterator.toArray, tableSize)
+  }
+
+  /**
+   * Java API: Factory method to create a MaglevConsistentHash
+   */
+  def create[T](nodes: java.lang.Iterable[T], tableSize: Int): MaglevConsistentHash[T] = {
+    import org.apache.pekko.util.ccompat.JavaConverters._
+    apply(nodes.asScala, tableSize)(ClassTag(classOf[Any].asInstanceOf[Class[T]]))
+  }
+
+  private def slotFor(keyHash: Int, tableSize: Int): Int = (keyHash & Int.MaxValue) % tableSize
+
+  private def permutationHash(nodeHash: Int, n: Int): Int = {
+    import MurmurHash._
+    var h = startHash(nodeHash)
+    h = extendHash(h, n, startMagicA, startMagicB)
+    finalizeHash(h)
+  }
+
+  /**
+   * The nodes take turns to claim the next free slot in their permutation of the slots,
+   * `offset, offset + skip, offset + 2 * skip, ...` modulo the table size, until all slots are taken.
+   * Since the table size is a prime each permutation visits all slots.
+   */
+  private def populate(nodeNames: Array[String], tableSize: Int): Array[Int] =
+    if (nodeNames.isEmpty) Array.emptyIntArray
+    else {
+      val n = nodeNames.length
+      val skip = new Array[Int](n)
+      // next slot to try in the permutation of each node, starting at the offset
+      val next = new Array[Int](n)
+      var i = 0
+      while (i < n) {
+        val nodeHash = MurmurHash.stringHash(nodeNames(i))
+        next(i) = slotFor(permutationHash(nodeHash, 1), tableSize)
+        skip(i) = slotFor(permutationHash(nodeHash, 2), tableSize - 1) + 1
+        i += 1
+      }
+
+      val table = Array.fill(tableSize)(-1)
+      var filled = 0
+      while (filled < tableSize) {
+        i = 0
+        while (i < n && filled < tableSize) {
+          var slot = next(i)
+          while (table(slot) >= 0) {
+            slot += skip(i)
+            if (slot >= tableSize) slot -= tableSize
+          }
+          table(slot) = i
+          slot += skip(i)
+          next(i) = if (slot >= tableSize) slot - tableSize else slot
+          filled += 1
+          i += 1
+        }
+      }
+      table
+    }
+}
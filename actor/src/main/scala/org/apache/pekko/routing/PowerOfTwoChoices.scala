@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.routing
+
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.atomic.{ AtomicInteger, AtomicLong, AtomicReference }
+
+import scala.annotation.nowarn
+import scala.collection.immutable
+
+import com.typesafe.config.Config
+
+import org.apache.pekko
+import pekko.actor.ActorCell
+import pekko.actor.ActorRefWithCell
+import pekko.actor.ActorSystem
+import pekko.actor.SupervisorStrategy
+import pekko.annotation.InternalApi
+import pekko.dispatch.Dispatchers
+import pekko.japi.Util.immutableSeq
+
+object PowerOfTwoChoicesRoutingLogic {
+  def apply(): PowerOfTwoChoicesRoutingLogic = new PowerOfTwoChoicesRoutingLogic
+
+  // the load of a routee is observed at most this often, since counting the messages of a mailbox
+  // may have to traverse the queue
+  private val ObservationIntervalNanos = 1000000L
+
+  // weight of a new sample in the exponentially weighted moving averages
+  private val Alpha = 0.2
+
+  /**
+   * INTERNAL API: The observed load of a routee, updated by the threads routing the messages without
+   * coordination, the estimates may therefore be slightly off.
+   */
+  @InternalApi
+  private[routing] final class RouteeLoad(val routee: Routee) {
+    // messages routed to the routee since the last observation
+    val sent = new AtomicInteger
+    // the thread that advances the time of the last observation makes the next observation
+    val lastObserved = new AtomicLong(System.nanoTime() - ObservationIntervalNanos)
+    // messages in the mailbox, including the one being processed, at the last observation, or the
+    // average number of messages routed to the routee per observation if its mailbox is unknown
+    @volatile var pending: Double = 0.0
+    // moving average of the time the routee spends on a message, 0.0 if not known
+    @volatile var serviceTimeNanos: Double = 0.0
+
+    def estimatedPending: Double = pending + sent.get
+
+    def observe(now: Long): Unit = {
+      val last = lastObserved.get
+      if (now - last >= ObservationIntervalNanos && lastObserved.compareAndSet(last, now)) {
+        val sentSinceLast = sent.getAndSet(0)
+        routee match {
+          case ActorRefRoutee(ref: ActorRefWithCell) =>
+            val cell = ref.underlying
+            val depth = cell match {
+              case c: ActorCell =>
+                if (c.mailbox.isSuspended) Int.MaxValue
+                else if (c.mailbox.isScheduled && c.currentMessage != null) c.numberOfMessages + 1
+                else c.numberOfMessages
+              case _ => cell.numberOfMessages
+            }
+            // only when the routee was busy all the time between the observations
+            // the processed messages tell how long it spends on each message
+            val processed = pending + sentSinceLast - depth
+            if (pending > 0.0 && pending < Int.MaxValue && depth > 0 && depth < Int.MaxValue && processed >= 1.0) {
+              val sample = (now - last) / processed
+              serviceTimeNanos =
+                if (serviceTimeNanos == 0.0) sample
+                else serviceTimeNanos + Alpha * (sample - serviceTimeNanos)
+            }
+            pending = depth
+          case _ =>
+            // mailbox of remote routees and routees selected by path is not known
+            pending += Alpha * (sentSinceLast - pending)
+        }
+      }
+    }
+  }
+
+  /**
+   * INTERNAL API
+   */
+  @InternalApi
+  private[routing] final class RouteeLoads(val routees: immutable.IndexedSeq[Routee], val loads: Array[RouteeLoad])
+}
+
+/**
+ * Selects two random routees and sends the message to the least loaded of them, the
+ * "power of two choices". Compared to picking the least loaded of all routees it only inspects
+ * two routees per message and avoids that many senders pile up on the same routee, while
+ * still keeping the routees evenly loaded when the messages take different time to process.
+ *
+ * For local routees the load is the number of messages in the mailbox weighted with a moving
+ * average of the time the routee spends on a message, which is estimated from how fast the
+ * mailbox is drained while the routee is busy. The mailbox of remote routees and of routees
+ * selected by path is not known, and for those the load is a moving average of the number of
+ * messages recently routed to them.
+ */
+@nowarn("msg=@SerialVersionUID has no effect")
+@SerialVersionUID(1L)
+final class PowerOfTwoChoicesRoutingLogic extends RoutingLogic {
+  import PowerOfTwoChoicesRoutingLogic._
+
+  private val routeeLoadsRef = new AtomicReference(new RouteeLoads(Vector.empty, Array.empty[RouteeLoad]))
+
+  override def select(message: Any, routees: immutable.IndexedSeq[Routee]): Routee =
+    if (routees.isEmpty) NoRoutee
+    else if (routees.size == 1) routees.head
+    else {
+      val loads = routeeLoads(routees)
+      val random = ThreadLocalRandom.current
+      val i = random.nextInt(loads.length)
+      val j = {
+        val n = random.nextInt(loads.length - 1)
+        if (n >= i) n + 1 else n
+      }
+      val a = loads(i)
+      val b = loads(j)
+      val now = System.nanoTime()
+      a.observe(now)
+      b.observe(now)
+      val selected = if (lessLoaded(b, a)) b else a
+      selected.sent.incrementAndGet()
+      selected.routee
+    }
+
+  private def lessLoaded(a: RouteeLoad, b: RouteeLoad): Boolean = {
+    val serviceTimeA = a.serviceTimeNanos
+    val serviceTimeB = b.serviceTimeNanos
+    if (serviceTimeA > 0.0 && serviceTimeB > 0.0)
+      (a.estimatedPending + 1) * serviceTimeA < (b.estimatedPending + 1) * serviceTimeB
+    else
+      a.estimatedPending < b.estimatedPending
+  }
+
+  // the loads are aligned with the routees, and kept for the routees remaining when the routees change
+  private def routeeLoads(routees: immutable.IndexedSeq[Routee]): Array[RouteeLoad] = {
+    val current = routeeLoadsRef.get
+    if (current.routees eq routees) current.loads
+    else {
+      val previous = current.loads.iterator.map(load => load.routee -> load).toMap
+      val loads = routees.iterator.map(routee => previous.getOrElse(routee, new RouteeLoad(routee))).toArray
+      // ignore, don't update, in case of CAS failure
+      routeeLoadsRef.compareAndSet(current, new RouteeLoads(routees, loads))
+      loads
+    }
+  }
+}
+
+/**
+ * A router pool that selects two random routees and sends the message to the least loaded of them.
+ * For local routees the load is based on the number of messages in the mailbox and the time the
+ * routee spends on a message, see [[PowerOfTwoChoicesRoutingLogic]].
+ *
+ * The configuration parameter trumps the constructor arguments. This means that
+ * if you provide `nrOfInstances` during instantiation they will be ignored if
+ * the router is defined in the configuration file for the actor being used.
+ *
+ * <h1>Supervision Setup</h1>
+ *
+ * Any routees that are created by a router will be created as the router's children.
+ * The router is therefore also the children's supervisor.
+ *
+ * The supervision strategy of the router actor can be configured with
+ * [[#withSupervisorStrategy]]. If no strategy is provided, routers default to
+ * a strategy of “always escalate”. This means that errors are passed up to the
+ * router's supervisor for handling.
+ *
+ * The router's supervisor will treat the error as an error with the router itself.
+ * Therefore a directive to stop or restart will cause the router itself to stop or
+ * restart. The router, in turn, will cause its children to stop and restart.
+ *
+ * @param nrOfInstances initial number of routees in the pool
+ *
+ * @param resizer optional resizer that dynamically adjust the pool size
+ *
+ * @param supervisorStrategy strategy for supervising the routees, see 'Supervision Setup'
+ *
+ * @param routerDispatcher dispatcher to use for the router head actor, which handles
+ *   supervision, death watch and router management messages
+ */
+@SerialVersionUID(1L)
+final case class PowerOfTwoChoicesPool(
+    nrOfInstances: Int,
+    override val resizer: Option[Resizer] = None,
+    override val supervisorStrategy: SupervisorStrategy = Pool.defaultSupervisorStrategy,
+    override val routerDispatcher: String = Dispatchers.DefaultDispatcherId,
+    override val usePoolDispatcher: Boolean = false)
+    extends Pool
+    with PoolOverrideUnsetConfig[PowerOfTwoChoicesPool] {
+
+  def this(config: Config) =
+    this(
+      nrOfInstances = config.getInt("nr-of-instances"),
+      resizer = Resizer.fromConfig(config),
+      usePoolDispatcher = config.hasPath("pool-dispatcher"))
+
+  /**
+   * Java API
+   * @param nr initial number of routees in the pool
+   */
+  def this(nr: Int) = this(nrOfInstances = nr)
+
+  override def createRouter(system: ActorSystem): Router = new Router(PowerOfTwoChoicesRoutingLogic())
+
+  override def nrOfInstances(sys: ActorSystem) = this.nrOfInstances
+
+  /**
+   * Setting the supervisor strategy to be used for the “head” Router actor.
+   */
+  def withSupervisorStrategy(strategy: SupervisorStrategy): PowerOfTwoChoicesPool = copy(supervisorStrategy = strategy)
+
+  /**
+   * Setting the resizer to be used.
+   */
+  def withResizer(resizer: Resizer): PowerOfTwoChoicesPool = copy(resizer = Some(resizer))
+
+  /**
+   * Setting the dispatcher to be used for the router head actor,  which handles
+   * supervision, death watch and router management messages.
+   */
+  def withDispatcher(dispatcherId: String): PowerOfTwoChoicesPool = copy(routerDispatcher = dispatcherId)
+
+  /**
+   * Uses the resizer and/or the supervisor strategy of the given RouterConfig
+   * if this RouterConfig doesn't have one, i.e. the resizer defined in code is used if
+   * resizer was not defined in config.
+   */
+  override def withFallback(other: RouterConfig): RouterConfig = this.overrideUnsetConfig(other)
+
+}
+
+/**
+ * A router group that selects two random routees and sends the message to the least loaded of them.
+ * The mailbox of routees selected by path is not known, and the load is therefore based on the
+ * number of messages recently routed to them, see [[PowerOfTwoChoicesRoutingLogic]].
+ *
+ * The configuration parameter trumps the constructor arguments. This means that
+ * if you provide `paths` during instantiation they will be ignored if
+ * the router is defined in the configuration file for the actor being used.
+ *
+ * @param paths string representation of the actor paths of the routees, messages are
+ *   sent with [[pekko.actor.ActorSelection]] to these paths
+ *
+ * @param routerDispatcher dispatcher to use for the router head actor, which handles
+ *   router management messages
+ */
+@SerialVersionUID(1L)
+final case class PowerOfTwoChoicesGroup(
+    paths: immutable.Iterable[String],
+    override val routerDispatcher: String = Dispatchers.DefaultDispatcherId)
+    extends Group {
+
+  def this(config: Config) =
+    this(paths = immutableSeq(config.getStringList("routees.paths")))
+
+  /**
+   * Java API
+   * @param routeePaths string representation of the actor paths of the routees, messages are
+   *   sent with [[pekko.actor.ActorSelection]] to these paths
+   */
+  def this(routeePaths: java.lang.Iterable[String]) = this(paths = immutableSeq(routeePaths))
+
+  override def paths(system: ActorSystem): immutable.Iterable[String] = this.paths
+
+  override def createRouter(system: ActorSystem): Router = new Router(PowerOfTwoChoicesRoutingLogic())
+
+  /**
+   * Setting the dispatcher to be used for the router head actor, which handles
+   * router management messages
+   */
+  def withDispatcher(dispatcherId: String): PowerOfTwoChoicesGroup = copy(routerDispatcher = dispatcherId)
+
+}
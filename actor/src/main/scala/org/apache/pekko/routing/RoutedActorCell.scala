@@ -151,6 +151,15 @@ private[pekko] class RoutedActorCell(
       router.route(envelope.message, envelope.sender)
   }
 
+  /**
+   * Route each of the messages via the router, like [[sendMessage]].
+   */
+  override def sendMessages(messages: immutable.Iterable[Any], sender: ActorRef): Unit = {
+    // create all envelopes first, a null message must fail the send before anything is routed
+    val envelopes = messages.iterator.map(Envelope(_, sender, system)).toVector
+    envelopes.foreach(sendMessage)
+  }
+
 }
 
 /**
@@ -17,9 +17,7 @@ import java.io.NotSerializableException
 import java.nio.ByteBuffer
 import java.util.NoSuchElementException
 import java.util.concurrent.ConcurrentHashMap
-import java.util.concurrent.atomic.AtomicReference
 
-import scala.annotation.tailrec
 import scala.collection.immutable
 import scala.collection.mutable.ArrayBuffer
 import scala.util.{ DynamicVariable, Failure, Try }
@@ -49,6 +47,9 @@ object Serialization {
    */
   @InternalApi private[pekko] val currentTransportInformation = new DynamicVariable[Information](null)
 
+  // upper bound of the number of manifest classes cached for deserialization
+  private final val MaxCachedManifests = 10000
+
   class Settings(val config: Config) {
     val Serializers: Map[String, String] = configToMap(config.getConfig("pekko.actor.serializers"))
     val SerializationBindings: Map[String, String] = {
@@ -153,7 +154,8 @@ class Serialization(val system: ExtendedActorSystem) extends Extension {
 
   private[this] val _log = Logging.withMarker(system, getClass.getName)
   val log: LoggingAdapter = _log
-  private val manifestCache = new AtomicReference[Map[String, Option[Class[_]]]](Map.empty[String, Option[Class[_]]])
+  // the number of cached manifests is bounded, since the manifests are received from remote systems
+  private val manifestCache = new ConcurrentHashMap[String, Option[Class[_]]]
 
   /** INTERNAL API */
   @InternalApi private[pekko] def serializationInformation: Serialization.Information =
@@ -219,12 +221,6 @@ class Serialization(val system: ExtendedActorSystem) extends Extension {
     }
 
   private def deserializeByteArray(bytes: Array[Byte], serializer: Serializer, manifest: String): AnyRef = {
-
-    @tailrec def updateCache(cache: Map[String, Option[Class[_]]], key: String, value: Option[Class[_]]): Boolean = {
-      manifestCache.compareAndSet(cache, cache.updated(key, value)) ||
-      updateCache(manifestCache.get, key, value) // recursive, try again
-    }
-
     withTransportInformation { () =>
       serializer match {
         case s2: SerializerWithStringManifest => s2.fromBinary(bytes, manifest)
@@ -232,19 +228,18 @@ class Serialization(val system: ExtendedActorSystem) extends Extension {
           if (manifest == "")
             s1.fromBinary(bytes, None)
           else {
-            val cache = manifestCache.get
-            cache.get(manifest) match {
-              case Some(cachedClassManifest) => s1.fromBinary(bytes, cachedClassManifest)
-              case None =>
+            manifestCache.get(manifest) match {
+              case null =>
                 system.dynamicAccess.getClassFor[AnyRef](manifest) match {
                   case Success(classManifest) =>
                     val classManifestOption: Option[Class[_]] = Some(classManifest)
-                    updateCache(cache, manifest, classManifestOption)
+                    if (manifestCache.size < MaxCachedManifests) manifestCache.put(manifest, classManifestOption)
                     s1.fromBinary(bytes, classManifestOption)
                   case Failure(_) =>
                     throw new NotSerializableException(
                       s"Cannot find manifest class [$manifest] for serializer with id [${serializer.identifier}].")
                 }
+              case cachedClassManifest => s1.fromBinary(bytes, cachedClassManifest)
             }
           }
       }
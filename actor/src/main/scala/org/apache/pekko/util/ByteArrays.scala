@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.util
+
+import java.nio.ByteOrder
+
+import org.apache.pekko.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ *
+ * Operations on byte arrays for [[ByteString]] that process eight bytes at a time, with the bytes
+ * of a long word compared in parallel ("SIMD within a register"). The long words are only read at
+ * aligned addresses, which is safe on all platforms.
+ */
+@InternalApi
+private[util] object ByteArrays {
+
+  /** Returned by [[byteValueOf]] when the element is not equal to any byte. */
+  final val NotAByte = Int.MinValue
+
+  /** Returned by [[byteValueOf]] when it is not known which bytes the element is equal to. */
+  final val UnknownByte = Int.MaxValue
+
+  private final val Ones = 0x0101010101010101L
+  private final val LowBits = 0x7F7F7F7F7F7F7F7FL
+
+  // below this length aligning the reads doesn't pay off
+  private final val MinWordsLength = 32
+
+  private val unsafe = Unsafe.instance
+  private val ArrayBaseOffset = unsafe.arrayBaseOffset(classOf[Array[Byte]]).toLong
+  private val LittleEndian = ByteOrder.nativeOrder == ByteOrder.LITTLE_ENDIAN
+
+  /**
+   * The value of the byte that `elem` is equal to, with the same semantics as `==` on a boxed byte,
+   * [[NotAByte]] if it is equal to no byte, or [[UnknownByte]] if that has to be checked with `==`.
+   */
+  def byteValueOf(elem: Any): Int = elem match {
+    case b: Byte   => b
+    case c: Char   => if (c <= 127) c else NotAByte
+    case s: Short  => if (s == s.toByte) s else NotAByte
+    case i: Int    => if (i == i.toByte) i else NotAByte
+    case l: Long   => if (l == l.toByte) l.toInt else NotAByte
+    case f: Float  => if (f == f.toByte) f.toInt else NotAByte
+    case d: Double => if (d == d.toByte) d.toInt else NotAByte
+    case _         => UnknownByte
+  }
+
+  /**
+   * Index of the first occurrence of `value` in `array` from index `from` (inclusive)
+   * until index `until` (exclusive), or -1 if it doesn't occur.
+   */
+  def indexOf(array: Array[Byte], value: Byte, from: Int, until: Int): Int = {
+    var i = from
+    var found = -1
+    if (until - from >= MinWordsLength) {
+      while (found == -1 && ((ArrayBaseOffset + i) & 7) != 0) {
+        if (array(i) == value) found = i
+        i += 1
+      }
+      val pattern = (value & 0xFF).toLong * Ones
+      val lastWord = until - 8
+      while (found == -1 && i <= lastWord) {
+        val word = unsafe.getLong(array, ArrayBaseOffset + i) ^ pattern
+        // the high bit of each byte that was equal to the value, i.e. is zero after the xor
+        val matches = ~(((word & LowBits) + LowBits) | word | LowBits)
+        if (matches != 0) {
+          val zeroBits =
+            if (LittleEndian) java.lang.Long.numberOfTrailingZeros(matches)
+            else java.lang.Long.numberOfLeadingZeros(matches)
+          found = i + (zeroBits >>> 3)
+        } else i += 8
+      }
+    }
+    while (found == -1 && i < until) {
+      if (array(i) == value) found = i
+      i += 1
+    }
+    found
+  }
+
+  /**
+   * Tests if `length` bytes of `a` from `aFrom` are equal to the bytes of `b` from `bFrom`.
+   */
+  def equals(a: Array[Byte], aFrom: Int, b: Array[Byte], bFrom: Int, length: Int): Boolean = {
+    var i = 0
+    // compare long words when the ranges have the same alignment
+    if (length >= MinWordsLength && ((ArrayBaseOffset + aFrom) & 7) == ((ArrayBaseOffset + bFrom) & 7)) {
+      while (i < length && ((ArrayBaseOffset + aFrom + i) & 7) != 0 && a(aFrom + i) == b(bFrom + i)) i += 1
+      if (((ArrayBaseOffset + aFrom + i) & 7) == 0) {
+        val lastWord = length - 8
+        while (i <= lastWord &&
+          unsafe.getLong(a, ArrayBaseOffset + aFrom + i) == unsafe.getLong(b, ArrayBaseOffset + bFrom + i)) i += 8
+      }
+    }
+    while (i < length && a(aFrom + i) == b(bFrom + i)) i += 1
+    i == length
+  }
+}
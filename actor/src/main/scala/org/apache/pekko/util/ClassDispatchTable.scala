@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.util
+
+import java.util.concurrent.ConcurrentHashMap
+
+import org.apache.pekko.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[pekko] object ClassDispatchTable {
+
+  /**
+   * Below this number of cases testing them one by one is as fast as a table lookup.
+   */
+  final val MinCases = 8
+
+  /**
+   * Number of distinct message classes that are cached, further classes are resolved on every lookup
+   * (e.g. for a catch-all case receiving arbitrary classes).
+   */
+  final val MaxCachedClasses = 1024
+
+  private val NoCandidates = new Array[Int](0)
+}
+
+/**
+ * INTERNAL API
+ *
+ * Dispatch table for the ordered cases of the Java receive builders. For each message class it
+ * caches the indices of the cases that can possibly match an instance of it, in their original
+ * order, so that a message is only tested against those instead of every case.
+ *
+ * @param caseClasses for each case the class it matches, or null if it isn't restricted to a class
+ *                    (e.g. `matchAny` or `matchEquals`)
+ */
+@InternalApi
+private[pekko] final class ClassDispatchTable(caseClasses: Array[Class[_]]) {
+  import ClassDispatchTable._
+
+  private val cache = new ConcurrentHashMap[Class[_], Array[Int]]
+
+  /**
+   * The indices of the cases that may match a message of the given class, in order.
+   */
+  def candidates(messageClass: Class[_]): Array[Int] = {
+    val cached = cache.get(messageClass)
+    if (cached ne null) cached
+    else {
+      val computed = compute(messageClass)
+      if (cache.size < MaxCachedClasses) cache.putIfAbsent(messageClass, computed)
+      computed
+    }
+  }
+
+  private def compute(messageClass: Class[_]): Array[Int] = {
+    val b = Array.newBuilder[Int]
+    var i = 0
+    while (i < caseClasses.length) {
+      val c = caseClasses(i)
+      if ((c eq null) || c.isAssignableFrom(messageClass)) b += i
+      i += 1
+    }
+    val result = b.result()
+    if (result.length == 0) NoCandidates else result
+  }
+}
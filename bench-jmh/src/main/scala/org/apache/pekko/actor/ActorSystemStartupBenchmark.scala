@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.actor
+
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+import com.typesafe.config.Config
+import com.typesafe.config.ConfigFactory
+import org.openjdk.jmh.annotations._
+
+/**
+ * Time to start an `ActorSystem`, with and without loading the extensions on startup.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Array(Mode.AverageTime))
+@Fork(3)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+class ActorSystemStartupBenchmark {
+
+  @Param(Array("off", "on"))
+  var lazyExtensions = ""
+
+  var config: Config = _
+  var system: ActorSystem = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit =
+    config = ConfigFactory.parseString(s"""
+        pekko.loglevel = WARNING
+        pekko.lazy-extensions = $lazyExtensions
+      """).withFallback(ConfigFactory.load())
+
+  @TearDown(Level.Invocation)
+  def tearDown(): Unit =
+    if (system ne null) {
+      Await.result(system.terminate(), 10.seconds)
+      system = null
+    }
+
+  @Benchmark
+  def startActorSystem(): ActorSystem = {
+    system = ActorSystem("ActorSystemStartupBenchmark", config)
+    system
+  }
+
+}
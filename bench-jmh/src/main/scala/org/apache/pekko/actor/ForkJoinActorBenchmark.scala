@@ -43,6 +43,7 @@ class ForkJoinActorBenchmark {
   @Param(
     Array(
       "org.apache.pekko.dispatch.SingleConsumerOnlyUnboundedMailbox",
+      "org.apache.pekko.dispatch.SingleConsumerOnlyChunkedArrayMailbox",
       "org.apache.pekko.actor.ManyToOneArrayMailbox",
       "org.apache.pekko.actor.JCToolsMailbox"))
   var mailbox = ""
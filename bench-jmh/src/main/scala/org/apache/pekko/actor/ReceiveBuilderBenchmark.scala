@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.actor
+
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+import org.apache.pekko
+import pekko.actor.typed.{ Behavior, ExtensibleBehavior }
+import pekko.actor.typed.javadsl.{ BehaviorBuilder, Behaviors }
+import pekko.japi.pf.{ FI, ReceiveBuilder, UnitPFBuilder }
+
+object ReceiveBuilderBenchmark {
+  final class Msg0
+  final class Msg1
+  final class Msg2
+  final class Msg3
+  final class Msg4
+  final class Msg5
+  final class Msg6
+  final class Msg7
+  final class Msg8
+  final class Msg9
+  final class Msg10
+  final class Msg11
+  final class Msg12
+  final class Msg13
+  final class Msg14
+  final class Msg15
+  final class Msg16
+  final class Msg17
+  final class Msg18
+  final class Msg19
+  final class Msg20
+  final class Msg21
+  final class Msg22
+  final class Msg23
+  final class Msg24
+  final class Msg25
+  final class Msg26
+  final class Msg27
+  final class Msg28
+  final class Msg29
+  final class Msg30
+  final class Msg31
+  final class Msg32
+  final class Msg33
+  final class Msg34
+  final class Msg35
+  final class Msg36
+  final class Msg37
+  final class Msg38
+  final class Msg39
+  final class Msg40
+  final class Msg41
+  final class Msg42
+  final class Msg43
+  final class Msg44
+  final class Msg45
+  final class Msg46
+  final class Msg47
+  final class Msg48
+  final class Msg49
+
+  val messageClasses: Array[Class[_]] = Array(
+    classOf[Msg0], classOf[Msg1], classOf[Msg2], classOf[Msg3], classOf[Msg4], classOf[Msg5], classOf[Msg6],
+    classOf[Msg7], classOf[Msg8], classOf[Msg9], classOf[Msg10], classOf[Msg11], classOf[Msg12], classOf[Msg13],
+    classOf[Msg14], classOf[Msg15], classOf[Msg16], classOf[Msg17], classOf[Msg18], classOf[Msg19], classOf[Msg20],
+    classOf[Msg21], classOf[Msg22], classOf[Msg23], classOf[Msg24], classOf[Msg25], classOf[Msg26], classOf[Msg27],
+    classOf[Msg28], classOf[Msg29], classOf[Msg30], classOf[Msg31], classOf[Msg32], classOf[Msg33], classOf[Msg34],
+    classOf[Msg35], classOf[Msg36], classOf[Msg37], classOf[Msg38], classOf[Msg39], classOf[Msg40], classOf[Msg41],
+    classOf[Msg42], classOf[Msg43], classOf[Msg44], classOf[Msg45], classOf[Msg46], classOf[Msg47], classOf[Msg48],
+    classOf[Msg49])
+}
+
+/**
+ * Dispatching messages of distinct classes, evenly spread over all cases, through the Java receive builders.
+ * `chainedPartialFunction` is the linear chain of cases that `ReceiveBuilder` built before dispatch tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class ReceiveBuilderBenchmark {
+  import ReceiveBuilderBenchmark._
+
+  @Param(Array("5", "20", "50"))
+  var cases = 0
+
+  var messages: Array[AnyRef] = _
+  var receive: PartialFunction[Any, Unit] = _
+  var chained: PartialFunction[Any, Unit] = _
+  var behavior: ExtensibleBehavior[Any] = _
+
+  @Setup
+  def setup(): Unit = {
+    val classes = messageClasses.take(cases)
+    messages = classes.map(_.getDeclaredConstructor().newInstance().asInstanceOf[AnyRef])
+
+    val apply: FI.UnitApply[Any] = _ => ()
+    val handler: pekko.japi.function.Function[Any, Behavior[Any]] = _ => Behaviors.same[Any]
+    val receiveBuilder = ReceiveBuilder.create()
+    val pfBuilder = new UnitPFBuilder[Any]
+    var behaviorBuilder = BehaviorBuilder.create[Any]
+    classes.foreach { c =>
+      receiveBuilder.matchUnchecked(c, apply)
+      pfBuilder.matchUnchecked(c, apply)
+      behaviorBuilder = behaviorBuilder.onMessageUnchecked(c, handler)
+    }
+    receive = receiveBuilder.build().onMessage.asInstanceOf[PartialFunction[Any, Unit]]
+    chained = pfBuilder.build().asInstanceOf[PartialFunction[Any, Unit]]
+    behavior = behaviorBuilder.build().asInstanceOf[ExtensibleBehavior[Any]]
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(1000)
+  def receiveBuilder(): Unit = {
+    var i = 0
+    while (i < 1000) {
+      receive(messages(i % messages.length))
+      i += 1
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(1000)
+  def chainedPartialFunction(): Unit = {
+    var i = 0
+    while (i < 1000) {
+      chained(messages(i % messages.length))
+      i += 1
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(1000)
+  def behaviorBuilder(bh: Blackhole): Unit = {
+    var i = 0
+    while (i < 1000) {
+      bh.consume(behavior.receive(null, messages(i % messages.length)))
+      i += 1
+    }
+  }
+}
@@ -20,6 +20,7 @@ import scala.concurrent.{ Await, Promise }
 import scala.concurrent.ExecutionContext.Implicits.global
 import scala.concurrent.duration._
 
+import com.typesafe.config.ConfigFactory
 import org.openjdk.jmh.annotations._
 
 import org.apache.pekko.util.Timeout
@@ -30,8 +31,8 @@ import org.apache.pekko.util.Timeout
 @Warmup(iterations = 10, time = 1700, timeUnit = TimeUnit.MILLISECONDS)
 @Measurement(iterations = 20, time = 1700, timeUnit = TimeUnit.MILLISECONDS)
 class ScheduleBenchmark {
-  implicit val system: ActorSystem = ActorSystem()
-  val scheduler: Scheduler = system.scheduler
+  implicit var system: ActorSystem = _
+  var scheduler: Scheduler = _
   val interval: FiniteDuration = 25.millis
   val within: FiniteDuration = 2.seconds
   implicit val timeout: Timeout = Timeout(within)
@@ -42,9 +43,31 @@ class ScheduleBenchmark {
   @Param(Array("0.1", "0.35", "0.9"))
   var ratio = 0d
 
+  @Param(Array("LightArrayRevolverScheduler", "HierarchicalTimingWheelScheduler"))
+  var implementation = ""
+
+  /**
+   * Number of timers that are pending during the whole benchmark, e.g. receive
+   * or ask timeouts of a busy system
+   */
+  @Param(Array("0", "1000000"))
+  var outstanding = 0
+
   var winner: Int = _
   var promise: Promise[Any] = _
 
+  @Setup(Level.Trial)
+  def startSystem(): Unit = {
+    system = ActorSystem(
+      "ScheduleBenchmark",
+      ConfigFactory.parseString(s"pekko.scheduler.implementation = org.apache.pekko.actor.$implementation"))
+    scheduler = system.scheduler
+    val r = new java.util.Random(1)
+    (1 to outstanding).foreach { _ =>
+      scheduler.scheduleOnce((10 + r.nextInt(600)).seconds)(())
+    }
+  }
+
   @Setup(Level.Iteration)
   def setup(): Unit = {
     winner = (to * ratio + 1).toInt
@@ -104,4 +127,17 @@ class ScheduleBenchmark {
     }
     Await.result(promise.future, within)
   }
+
+  /**
+   * Pattern of ask and receive timeouts: a timer which is cancelled before it is due.
+   */
+  @Benchmark
+  @OperationsPerInvocation(1000)
+  def scheduleOnceAndCancel(): Unit = {
+    var i = 0
+    while (i < 1000) {
+      scheduler.scheduleOnce(within)(()).cancel()
+      i += 1
+    }
+  }
 }
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.actor
+
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+import BenchmarkActors._
+import ForkJoinActorBenchmark._
+import com.typesafe.config.ConfigFactory
+import org.openjdk.jmh.annotations._
+
+import org.apache.pekko.util.JavaVersion
+
+/**
+ * Same as [[ForkJoinActorBenchmark]] but with the `virtual-thread-executor`, which requires JDK 21.
+ * The benchmarks do nothing on older JDKs, so that running all benchmarks doesn't fail there.
+ *
+ * The carrier threads are bounded to the same number of threads when running with
+ * `-jvmArgsAppend --add-opens=java.base/java.lang=ALL-UNNAMED`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 10, time = 5, timeUnit = TimeUnit.SECONDS, batchSize = 1)
+@Measurement(iterations = 10, time = 15, timeUnit = TimeUnit.SECONDS, batchSize = 1)
+class VirtualThreadActorBenchmark {
+
+  @Param(Array("50"))
+  var tpt = 0
+
+  @Param(Array(coresStr))
+  var threads = ""
+
+  @Param(Array("org.apache.pekko.dispatch.SingleConsumerOnlyUnboundedMailbox"))
+  var mailbox = ""
+
+  implicit var system: ActorSystem = _
+
+  private val supported = JavaVersion.majorVersion >= 21
+
+  @Setup(Level.Trial)
+  def setup(): Unit =
+    if (supported) {
+      requireRightNumberOfCores(cores)
+
+      system = ActorSystem(
+        "VirtualThreadActorBenchmark",
+        ConfigFactory.parseString(s"""
+          pekko {
+             log-dead-letters = off
+             default-mailbox.mailbox-capacity = 512
+             actor {
+               vt-dispatcher {
+                 executor = "virtual-thread-executor"
+                 virtual-thread-executor.carrier-pool {
+                   enabled = on
+                   parallelism-min = $threads
+                   parallelism-factor = 1.0
+                   parallelism-max = $threads
+                 }
+                 throughput = $tpt
+                 mailbox-type = "$mailbox"
+               }
+             }
+           }
+        """))
+    } else
+      println(s"Skipping VirtualThreadActorBenchmark, it requires JDK 21, current is [${JavaVersion.majorVersion}]")
+
+  @TearDown(Level.Trial)
+  def shutdown(): Unit =
+    if (system ne null) {
+      system.terminate()
+      Await.ready(system.whenTerminated, 15.seconds)
+    }
+
+  @Benchmark
+  @OperationsPerInvocation(totalMessagesLessThanCores)
+  def pingPongLessActorsThanCores(): Unit =
+    if (supported) benchmarkPingPongActors(messages, lessThanCoresActors, "vt-dispatcher", tpt, timeout)
+
+  @Benchmark
+  @OperationsPerInvocation(totalMessagesMoreThanCores)
+  def pingPongMoreActorsThanCores(): Unit =
+    if (supported) benchmarkPingPongActors(messages, moreThanCoresActors, "vt-dispatcher", tpt, timeout)
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.event
+
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+import org.apache.pekko
+import pekko.actor.{ ActorPath, ActorRef, ActorRefProvider, Address, MinimalActorRef, RootActorPath }
+
+object EventStreamBenchmark {
+  trait Event
+  class DomainEvent extends Event
+  final class MemberEvent extends DomainEvent
+  final class OtherEvent extends Event
+
+  final class CountingRef(val path: ActorPath) extends MinimalActorRef {
+    var received = 0L
+    override def provider: ActorRefProvider = throw new UnsupportedOperationException
+    override def !(message: Any)(implicit sender: ActorRef = ActorRef.noSender): Unit = received += 1
+  }
+
+  val channels: Array[Class[_]] = Array(classOf[Event], classOf[DomainEvent], classOf[MemberEvent])
+}
+
+@Fork(2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+class EventStreamBenchmark {
+  import EventStreamBenchmark._
+
+  @Param(Array("10", "1000"))
+  var subscribers = 0
+
+  val root = RootActorPath(Address("pekko", "EventStreamBenchmark"))
+  val eventStream = new EventStream(null)
+  val memberEvent = new MemberEvent
+  val otherEvent = new OtherEvent
+  var churnRef: CountingRef = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    (0 until subscribers).foreach { n =>
+      eventStream.subscribe(new CountingRef(root / s"subscriber-$n"), channels(n % channels.length))
+    }
+    churnRef = new CountingRef(root / "churn")
+  }
+
+  /**
+   * All subscribers receive the event, through subscriptions to the class or its super classes.
+   */
+  @Benchmark
+  def publish(): Unit =
+    eventStream.publish(memberEvent)
+
+  /**
+   * Only a third of the subscribers receive the event.
+   */
+  @Benchmark
+  def publishToSuperclassSubscribers(): Unit =
+    eventStream.publish(otherEvent)
+
+  @Benchmark
+  @Group("churn")
+  @GroupThreads(3)
+  def publishWhileSubscribing(): Unit =
+    eventStream.publish(memberEvent)
+
+  @Benchmark
+  @Group("churn")
+  @GroupThreads(1)
+  def subscribeUnsubscribe(bh: Blackhole): Unit = {
+    bh.consume(eventStream.subscribe(churnRef, classOf[DomainEvent]))
+    bh.consume(eventStream.unsubscribe(churnRef, classOf[DomainEvent]))
+  }
+}
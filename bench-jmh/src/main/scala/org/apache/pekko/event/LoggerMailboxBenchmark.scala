@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.event
+
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+import org.openjdk.jmh.annotations._
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.dispatch.Envelope
+import pekko.dispatch.MessageQueue
+import pekko.event.Logging.Info
+
+/**
+ * Many threads logging into the mailbox of a single logger, with the unbounded
+ * and the bounded logger mailbox.
+ */
+@Fork(2)
+@State(Scope.Group)
+@BenchmarkMode(Array(Mode.Throughput))
+@Warmup(iterations = 5)
+@Measurement(iterations = 10, timeUnit = TimeUnit.MILLISECONDS)
+class LoggerMailboxBenchmark {
+
+  @Param(Array("unbounded", "bounded"))
+  var mailboxType = ""
+
+  var system: ActorSystem = _
+  var queue: MessageQueue = _
+  var envelope: Envelope = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    system = ActorSystem("LoggerMailboxBenchmark")
+    val owner = system.deadLetters
+    queue = mailboxType match {
+      case "unbounded" => new LoggerMailbox(owner, system)
+      case "bounded"   => new BoundedLoggerMailbox(owner, system, 10000)
+    }
+    envelope = Envelope(Info("source", classOf[LoggerMailboxBenchmark], "message"), owner, system)
+  }
+
+  @TearDown(Level.Trial)
+  def tearDown(): Unit =
+    Await.result(system.terminate(), 5.seconds)
+
+  @Benchmark
+  @Group("g")
+  @GroupThreads(4)
+  def log(): Unit =
+    queue.enqueue(system.deadLetters, envelope)
+
+  @Benchmark
+  @Group("g")
+  @GroupThreads(1)
+  def logger(): Envelope =
+    queue.dequeue()
+
+}
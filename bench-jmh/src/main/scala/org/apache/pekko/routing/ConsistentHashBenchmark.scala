@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.routing
+
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+
+/**
+ * Compares the [[ConsistentHash]] ring with the [[MaglevConsistentHash]] lookup table.
+ * The ring has `nodes * virtualNodesFactor` entries, e.g. 10000 for 1000 nodes.
+ */
+@Fork(2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class ConsistentHashBenchmark {
+
+  @Param(Array("10", "1000"))
+  var nodes = 0
+
+  @Param(Array("10", "100"))
+  var virtualNodesFactor = 0
+
+  val keys: Array[String] = Array.tabulate(1024)(n => s"key-$n")
+  var nodeNames: Vector[String] = _
+  var ring: ConsistentHash[String] = _
+  var maglev: MaglevConsistentHash[String] = _
+  var i = 0
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    nodeNames = Vector.tabulate(nodes)(n => s"pekko://sys@host-$n:7355/user/routee-$n")
+    ring = ConsistentHash(nodeNames, virtualNodesFactor)
+    maglev = MaglevConsistentHash(nodeNames, MaglevConsistentHash.DefaultTableSize)
+  }
+
+  private def nextKey(): String = {
+    i = (i + 1) & 1023
+    keys(i)
+  }
+
+  @Benchmark
+  def ringNodeFor(): String =
+    ring.nodeFor(nextKey())
+
+  @Benchmark
+  def maglevNodeFor(): String =
+    maglev.nodeFor(nextKey())
+
+  /**
+   * Creating the lookup for all nodes, as done by the routing logic when the routees have changed.
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  def ringCreate(): ConsistentHash[String] =
+    ConsistentHash(nodeNames, virtualNodesFactor)
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  def maglevCreate(): MaglevConsistentHash[String] =
+    MaglevConsistentHash(nodeNames, MaglevConsistentHash.DefaultTableSize)
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.serialization
+
+import java.nio.ByteBuffer
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+import com.typesafe.config.ConfigFactory
+import org.openjdk.jmh.annotations._
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+
+object SerializationBenchmark {
+  final case class Small(n: Int)
+
+  /**
+   * A serializer with class manifest, for which the manifest class is looked up when deserializing.
+   */
+  class SmallSerializer extends Serializer {
+    override def identifier: Int = 4711
+    override def includeManifest: Boolean = true
+
+    override def toBinary(o: AnyRef): Array[Byte] = {
+      val bytes = new Array[Byte](4)
+      ByteBuffer.wrap(bytes).putInt(o.asInstanceOf[Small].n)
+      bytes
+    }
+
+    override def fromBinary(bytes: Array[Byte], manifest: Option[Class[_]]): AnyRef =
+      Small(ByteBuffer.wrap(bytes).getInt)
+  }
+}
+
+/**
+ * Round trips of small messages through the `Serialization` extension, including the lookup
+ * of the serializer and the manifest.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Array(Mode.Throughput))
+@Fork(2)
+@Warmup(iterations = 4)
+@Measurement(iterations = 5)
+class SerializationBenchmark {
+  import SerializationBenchmark._
+
+  var system: ActorSystem = _
+  var serialization: Serialization = _
+
+  val small = Small(17)
+  val string = "abc"
+  val long = java.lang.Long.valueOf(17L)
+
+  @Setup(Level.Trial)
+  def setupTrial(): Unit = {
+    val config = ConfigFactory.parseString(s"""
+        pekko {
+          loglevel = WARNING
+          actor {
+            serializers.small = "${classOf[SmallSerializer].getName}"
+            serialization-bindings {
+              "${classOf[Small].getName}" = small
+            }
+          }
+        }
+      """)
+    system = ActorSystem("SerializationBenchmark", config)
+    serialization = SerializationExtension(system)
+  }
+
+  @TearDown(Level.Trial)
+  def tearDownTrial(): Unit =
+    Await.result(system.terminate(), 5.seconds)
+
+  private def roundTrip(msg: AnyRef): AnyRef = {
+    val serializer = serialization.findSerializerFor(msg)
+    val manifest = Serializers.manifestFor(serializer, msg)
+    val bytes = serialization.serialize(msg).get
+    serialization.deserialize(bytes, serializer.identifier, manifest).get
+  }
+
+  @Benchmark
+  def findSerializerFor(): Serializer =
+    serialization.findSerializerFor(small)
+
+  @Benchmark
+  def roundTripClassManifest(): AnyRef =
+    roundTrip(small)
+
+  @Benchmark
+  def roundTripString(): AnyRef =
+    roundTrip(string)
+
+  @Benchmark
+  def roundTripLong(): AnyRef =
+    roundTrip(long)
+}
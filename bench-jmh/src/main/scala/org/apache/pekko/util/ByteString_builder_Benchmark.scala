@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.util
+
+import java.nio.ByteOrder
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+
+/**
+ * Builds a message of a header and a payload, as done by serializers and framing.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Array(Mode.Throughput))
+@Fork(2)
+@Warmup(iterations = 4)
+@Measurement(iterations = 10)
+class ByteString_builder_Benchmark {
+
+  implicit val byteOrder: ByteOrder = ByteOrder.LITTLE_ENDIAN
+
+  @Param(Array("10", "1000", "100000"))
+  var payloadSize = 0
+
+  var payload: Array[Byte] = _
+  val reused = ByteString.newBuilder
+
+  @Setup
+  def setup(): Unit =
+    payload = Array.fill[Byte](payloadSize)(1)
+
+  private def build(b: ByteStringBuilder): ByteString = {
+    b.putInt(payload.length)
+    b.putLong(42L)
+    b.putBytes(payload)
+    b.result()
+  }
+
+  @Benchmark
+  def newBuilder(): ByteString =
+    build(ByteString.newBuilder)
+
+  @Benchmark
+  def newBuilderWithSizeHint(): ByteString = {
+    val builder = ByteString.newBuilder
+    builder.sizeHint(12 + payload.length)
+    build(builder)
+  }
+
+  @Benchmark
+  def reusedBuilder(): ByteString = {
+    reused.clear()
+    build(reused)
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.util
+
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+
+@State(Scope.Benchmark)
+@Measurement(timeUnit = TimeUnit.MILLISECONDS)
+class ByteString_equals_Benchmark {
+
+  @Param(Array("16", "1024"))
+  var size = 0
+
+  var bs1: ByteString = _
+  var bs2: ByteString = _
+  var bss: ByteString = _
+
+  @Setup
+  def setup(): Unit = {
+    bs1 = ByteString(Array.tabulate[Byte](size)(_.toByte))
+    bs2 = ByteString(Array.tabulate[Byte](size)(_.toByte))
+    bss = bs2.take(size / 2) ++ bs2.drop(size / 2)
+  }
+
+  @Benchmark
+  def bs1_equals_bs1: Boolean = bs1 == bs2
+
+  @Benchmark
+  def bs1_equals_bss: Boolean = bs1 == bss
+}
@@ -25,6 +25,10 @@ class ByteString_indexOf_Benchmark {
 
   val bs = bss.compact // compacted
 
+  // a line as searched for by Framing.delimiter
+  val line = ByteString(Array.fill[Byte](1024)('a'.toByte) :+ '\n'.toByte)
+  val lines = line.take(500) ++ line.drop(500)
+
   /*
   original
   ByteString_indexOf_Benchmark.bs1_indexOf_from                 thrpt   20     999335.124 ±  234047.176  ops/s
@@ -52,4 +56,10 @@ class ByteString_indexOf_Benchmark {
   @Benchmark
   def bs1_indexOf_from: Int = bs.indexOf('ö', 5)
 
+  @Benchmark
+  def bs1_indexOf_newline: Int = line.indexOf('\n'.toByte, 0)
+
+  @Benchmark
+  def bss_indexOf_newline: Int = lines.indexOf('\n'.toByte, 0)
+
 }
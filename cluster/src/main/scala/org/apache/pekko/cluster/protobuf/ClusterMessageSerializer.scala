@@ -14,6 +14,7 @@
 package org.apache.pekko.cluster.protobuf
 
 import java.io.{ ByteArrayInputStream, ByteArrayOutputStream }
+import java.nio.{ BufferOverflowException, ByteBuffer }
 import java.util.zip.{ GZIPInputStream, GZIPOutputStream }
 import scala.annotation.tailrec
 import scala.collection.immutable
@@ -27,7 +28,7 @@ import pekko.cluster._
 import pekko.cluster.InternalClusterAction._
 import pekko.cluster.protobuf.msg.{ ClusterMessages => cm }
 import pekko.cluster.routing.{ ClusterRouterPool, ClusterRouterPoolSettings }
-import pekko.protobufv3.internal.MessageLite
+import pekko.protobufv3.internal.{ CodedOutputStream, MessageLite }
 import pekko.remote.ByteStringUtils
 import pekko.routing.Pool
 import pekko.serialization._
@@ -81,6 +82,7 @@ private[pekko] object ClusterMessageSerializer {
  */
 final class ClusterMessageSerializer(val system: ExtendedActorSystem)
     extends SerializerWithStringManifest
+    with ByteBufferSerializer
     with BaseSerializer {
   import ClusterMessageSerializer._
   private lazy val serialization = SerializationExtension(system)
@@ -108,8 +110,8 @@ final class ClusterMessageSerializer(val system: ExtendedActorSystem)
   }
 
   def toBinary(obj: AnyRef): Array[Byte] = obj match {
-    case hb: ClusterHeartbeatSender.Heartbeat                    => heartbeatToProtoByteArray(hb)
-    case hbr: ClusterHeartbeatSender.HeartbeatRsp                => heartbeatRspToProtoByteArray(hbr)
+    case hb: ClusterHeartbeatSender.Heartbeat                    => heartbeatToProto(hb).toByteArray
+    case hbr: ClusterHeartbeatSender.HeartbeatRsp                => heartbeatRspToProto(hbr).toByteArray
     case m: GossipEnvelope                                       => gossipEnvelopeToProto(m).toByteArray
     case m: GossipStatus                                         => gossipStatusToProto(m).toByteArray
     case InternalClusterAction.Join(node, roles, appVersion)     => joinToProto(node, roles, appVersion).toByteArray
@@ -156,6 +158,41 @@ final class ClusterMessageSerializer(val system: ExtendedActorSystem)
     case _                            => throw new IllegalArgumentException(s"Unknown manifest [${manifest}]")
   }
 
+  // buffer based avoiding a copy for artery, for the messages that are sent periodically
+  override def toBinary(obj: AnyRef, buf: ByteBuffer): Unit = obj match {
+    case hb: ClusterHeartbeatSender.Heartbeat     => writeTo(heartbeatToProto(hb), buf)
+    case hbr: ClusterHeartbeatSender.HeartbeatRsp => writeTo(heartbeatRspToProto(hbr), buf)
+    case m: GossipEnvelope                        => writeTo(gossipEnvelopeToProto(m), buf)
+    case m: GossipStatus                          => writeTo(gossipStatusToProto(m), buf)
+    case _                                        => buf.put(toBinary(obj))
+  }
+
+  // the parsed messages must not refer to the buffer, which is reused by artery, and protobuf only aliases
+  // byte fields of immutable buffers
+  override def fromBinary(buf: ByteBuffer, manifest: String): AnyRef = manifest match {
+    case HeartbeatManifest      => heartbeatFromProto(cm.Heartbeat.parseFrom(buf))
+    case HeartbeatRspManifest   => heartbeatRspFromProto(cm.HeartBeatResponse.parseFrom(buf))
+    case GossipStatusManifest   => gossipStatusFromProto(cm.GossipStatus.parseFrom(buf))
+    case GossipEnvelopeManifest => gossipEnvelopeFromProto(cm.GossipEnvelope.parseFrom(buf))
+    case _ =>
+      val bytes = new Array[Byte](buf.remaining)
+      buf.get(bytes)
+      fromBinary(bytes, manifest)
+  }
+
+  // artery expects a BufferOverflowException for payloads that don't fit in the buffer, to drop them as oversized
+  private def writeTo(msg: MessageLite, buf: ByteBuffer): Unit =
+    try {
+      val codedOutputStream = CodedOutputStream.newInstance(buf)
+      msg.writeTo(codedOutputStream)
+      codedOutputStream.flush()
+    } catch {
+      case e: CodedOutputStream.OutOfSpaceException =>
+        val overflow = new BufferOverflowException
+        overflow.initCause(e)
+        throw overflow
+    }
+
   def compress(msg: MessageLite): Array[Byte] = {
     val bos = new ByteArrayOutputStream(BufferSize)
     val zip = new GZIPOutputStream(bos)
@@ -181,24 +218,22 @@ final class ClusterMessageSerializer(val system: ExtendedActorSystem)
     out.toByteArray
   }
 
-  private def heartbeatToProtoByteArray(hb: ClusterHeartbeatSender.Heartbeat): Array[Byte] = {
+  private def heartbeatToProto(hb: ClusterHeartbeatSender.Heartbeat): cm.Heartbeat = {
     cm.Heartbeat
       .newBuilder()
       .setFrom(addressToProto(hb.from))
       .setSequenceNr(hb.sequenceNr)
       .setCreationTime(hb.creationTimeNanos)
       .build
-      .toByteArray
   }
 
-  private def heartbeatRspToProtoByteArray(hbr: ClusterHeartbeatSender.HeartbeatRsp): Array[Byte] = {
+  private def heartbeatRspToProto(hbr: ClusterHeartbeatSender.HeartbeatRsp): cm.HeartBeatResponse = {
     cm.HeartBeatResponse
       .newBuilder()
       .setFrom(uniqueAddressToProto(hbr.from))
       .setSequenceNr(hbr.sequenceNr)
       .setCreationTime(hbr.creationTimeNanos)
       .build
-      .toByteArray
   }
 
   private def addressFromBinary(bytes: Array[Byte]): Address =
@@ -349,15 +384,17 @@ final class ClusterMessageSerializer(val system: ExtendedActorSystem)
     ClusterHeartbeatSender.Heartbeat(addressFromBinary(bytes), -1, -1)
   }
 
-  def deserializeHeartBeat(bytes: Array[Byte]): ClusterHeartbeatSender.Heartbeat = {
-    val hb = cm.Heartbeat.parseFrom(bytes)
+  def deserializeHeartBeat(bytes: Array[Byte]): ClusterHeartbeatSender.Heartbeat =
+    heartbeatFromProto(cm.Heartbeat.parseFrom(bytes))
+
+  private def heartbeatFromProto(hb: cm.Heartbeat): ClusterHeartbeatSender.Heartbeat =
     ClusterHeartbeatSender.Heartbeat(addressFromProto(hb.getFrom), hb.getSequenceNr, hb.getCreationTime)
-  }
 
-  def deserializeHeartBeatResponse(bytes: Array[Byte]): ClusterHeartbeatSender.HeartbeatRsp = {
-    val hbr = cm.HeartBeatResponse.parseFrom(bytes)
+  def deserializeHeartBeatResponse(bytes: Array[Byte]): ClusterHeartbeatSender.HeartbeatRsp =
+    heartbeatRspFromProto(cm.HeartBeatResponse.parseFrom(bytes))
+
+  private def heartbeatRspFromProto(hbr: cm.HeartBeatResponse): ClusterHeartbeatSender.HeartbeatRsp =
     ClusterHeartbeatSender.HeartbeatRsp(uniqueAddressFromProto(hbr.getFrom), hbr.getSequenceNr, hbr.getCreationTime)
-  }
 
   private def deserializeInitJoinNack(bytes: Array[Byte]): InternalClusterAction.InitJoinNack = {
     InternalClusterAction.InitJoinNack(addressFromBinary(bytes))
@@ -13,6 +13,8 @@
 
 package org.apache.pekko.cluster.protobuf
 
+import java.nio.{ BufferOverflowException, ByteBuffer }
+
 import collection.immutable.SortedSet
 
 import scala.annotation.nowarn
@@ -38,14 +40,28 @@ class ClusterMessageSerializerSpec extends PekkoSpec("pekko.actor.provider = clu
     serializer.fromBinary(blob, manifest).asInstanceOf[T]
   }
 
+  def roundtripByteBuffer[T <: AnyRef](obj: T): T = {
+    val manifest = serializer.manifest(obj)
+    val buf = ByteBuffer.allocateDirect(64 * 1024)
+    serializer.toBinary(obj, buf)
+    buf.flip()
+    val result = serializer.fromBinary(buf, manifest).asInstanceOf[T]
+    // the buffer is reused by artery after deserialization, the result must not refer to it
+    buf.clear()
+    while (buf.hasRemaining) buf.put(0.toByte)
+    result
+  }
+
   def checkSerialization(obj: AnyRef): Unit = {
-    (obj, roundtrip(obj)) match {
-      case (env: GossipEnvelope, env2: GossipEnvelope) =>
-        env2.from should ===(env.from)
-        env2.to should ===(env.to)
-        env2.gossip should ===(env.gossip)
-      case (_, ref) =>
-        ref should ===(obj)
+    List(roundtrip(obj), roundtripByteBuffer(obj)).foreach { result =>
+      (obj, result) match {
+        case (env: GossipEnvelope, env2: GossipEnvelope) =>
+          env2.from should ===(env.from)
+          env2.to should ===(env.to)
+          env2.gossip should ===(env.gossip)
+        case (_, ref) =>
+          ref should ===(obj)
+      }
     }
   }
 
@@ -177,6 +193,19 @@ class ClusterMessageSerializerSpec extends PekkoSpec("pekko.actor.provider = clu
         ClusterMessageSerializer.OldWelcomeManifest)
     }
 
+    "throw BufferOverflowException for gossip that doesn't fit in the buffer" in {
+      // artery drops such messages as oversized payloads
+      val g = (Gossip(SortedSet(a1, b1, c1, d1)) :+ VectorClock.Node("node1")).seen(a1.uniqueAddress)
+      val buf = ByteBuffer.allocateDirect(16)
+      intercept[BufferOverflowException] {
+        serializer.toBinary(GossipEnvelope(a1.uniqueAddress, b1.uniqueAddress, g), buf)
+      }
+      buf.clear()
+      intercept[BufferOverflowException] {
+        serializer.toBinary(GossipStatus(a1.uniqueAddress, g.version, g.seenDigest), buf)
+      }
+    }
+
     "add a default data center role to gossip if none is present" in {
       val env = roundtrip(GossipEnvelope(a1.uniqueAddress, d1.uniqueAddress, Gossip(SortedSet(a1, d1))))
       env.gossip.members.head.roles should be(Set(ClusterSettings.DcRolePrefix + "default"))
@@ -14,6 +14,7 @@
 package org.apache.pekko.cluster.ddata.protobuf
 
 import java.io.NotSerializableException
+import java.nio.ByteBuffer
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicInteger
 import scala.annotation.tailrec
@@ -38,6 +39,7 @@ import pekko.cluster.ddata.VersionVector
 import pekko.cluster.ddata.protobuf.msg.{ ReplicatorMessages => dm }
 import pekko.remote.ByteStringUtils
 import pekko.serialization.BaseSerializer
+import pekko.serialization.ByteBufferSerializer
 import pekko.serialization.Serialization
 import pekko.serialization.SerializerWithStringManifest
 import pekko.util.{ ByteString => PekkoByteString }
@@ -160,6 +162,7 @@ private[pekko] object ReplicatorMessageSerializer {
  */
 class ReplicatorMessageSerializer(val system: ExtendedActorSystem)
     extends SerializerWithStringManifest
+    with ByteBufferSerializer
     with SerializationSupport
     with BaseSerializer {
   import ReplicatorMessageSerializer.SmallCache
@@ -270,6 +273,23 @@ class ReplicatorMessageSerializer(val system: ExtendedActorSystem)
           s"Unimplemented deserialization of message with manifest [$manifest] in [${getClass.getName}]")
     }
 
+  // buffer based avoiding a copy for artery, for the messages of the gossip and of the replication of updates,
+  // the parsed messages must not refer to the buffer, which protobuf only does for immutable buffers
+  override def toBinary(obj: AnyRef, buf: ByteBuffer): Unit =
+    buf.put(toBinary(obj))
+
+  override def fromBinary(buf: ByteBuffer, manifest: String): AnyRef = manifest match {
+    case StatusManifest           => statusFromProto(dm.Status.parseFrom(buf))
+    case DeltaPropagationManifest => deltaPropagationFromProto(dm.DeltaPropagation.parseFrom(buf))
+    case WriteManifest            => writeFromProto(dm.Write.parseFrom(buf))
+    case ReadManifest             => readFromProto(dm.Read.parseFrom(buf))
+    case ReadResultManifest       => readResultFromProto(dm.ReadResult.parseFrom(buf))
+    case _ =>
+      val bytes = new Array[Byte](buf.remaining)
+      buf.get(bytes)
+      fromBinary(bytes, manifest)
+  }
+
   private def statusToProto(status: Status): dm.Status = {
     val b = dm.Status.newBuilder()
     b.setChunk(status.chunk).setTotChunks(status.totChunks)
@@ -286,8 +306,10 @@ class ReplicatorMessageSerializer(val system: ExtendedActorSystem)
     b.build()
   }
 
-  private def statusFromBinary(bytes: Array[Byte]): Status = {
-    val status = dm.Status.parseFrom(bytes)
+  private def statusFromBinary(bytes: Array[Byte]): Status =
+    statusFromProto(dm.Status.parseFrom(bytes))
+
+  private def statusFromProto(status: dm.Status): Status = {
     val toSystemUid = if (status.hasToSystemUid) Some(status.getToSystemUid) else None
     val fromSystemUid = if (status.hasFromSystemUid) Some(status.getFromSystemUid) else None
     Status(
@@ -340,8 +362,10 @@ class ReplicatorMessageSerializer(val system: ExtendedActorSystem)
     b.build()
   }
 
-  private def deltaPropagationFromBinary(bytes: Array[Byte]): DeltaPropagation = {
-    val deltaPropagation = dm.DeltaPropagation.parseFrom(bytes)
+  private def deltaPropagationFromBinary(bytes: Array[Byte]): DeltaPropagation =
+    deltaPropagationFromProto(dm.DeltaPropagation.parseFrom(bytes))
+
+  private def deltaPropagationFromProto(deltaPropagation: dm.DeltaPropagation): DeltaPropagation = {
     val reply = deltaPropagation.hasReply && deltaPropagation.getReply
     DeltaPropagation(
       uniqueAddressFromProto(deltaPropagation.getFromNode),
@@ -559,8 +583,10 @@ class ReplicatorMessageSerializer(val system: ExtendedActorSystem)
       .setFromNode(uniqueAddressToProto(write.fromNode.get))
       .build()
 
-  private def writeFromBinary(bytes: Array[Byte]): Write = {
-    val write = dm.Write.parseFrom(bytes)
+  private def writeFromBinary(bytes: Array[Byte]): Write =
+    writeFromProto(dm.Write.parseFrom(bytes))
+
+  private def writeFromProto(write: dm.Write): Write = {
     val fromNode = if (write.hasFromNode) Some(uniqueAddressFromProto(write.getFromNode)) else None
     Write(write.getKey, dataEnvelopeFromProto(write.getEnvelope), fromNode)
   }
@@ -568,8 +594,10 @@ class ReplicatorMessageSerializer(val system: ExtendedActorSystem)
   private def readToProto(read: Read): dm.Read =
     dm.Read.newBuilder().setKey(read.key).setFromNode(uniqueAddressToProto(read.fromNode.get)).build()
 
-  private def readFromBinary(bytes: Array[Byte]): Read = {
-    val read = dm.Read.parseFrom(bytes)
+  private def readFromBinary(bytes: Array[Byte]): Read =
+    readFromProto(dm.Read.parseFrom(bytes))
+
+  private def readFromProto(read: dm.Read): Read = {
     val fromNode = if (read.hasFromNode) Some(uniqueAddressFromProto(read.getFromNode)) else None
     Read(read.getKey, fromNode)
   }
@@ -583,8 +611,10 @@ class ReplicatorMessageSerializer(val system: ExtendedActorSystem)
     b.build()
   }
 
-  private def readResultFromBinary(bytes: Array[Byte]): ReadResult = {
-    val readResult = dm.ReadResult.parseFrom(bytes)
+  private def readResultFromBinary(bytes: Array[Byte]): ReadResult =
+    readResultFromProto(dm.ReadResult.parseFrom(bytes))
+
+  private def readResultFromProto(readResult: dm.ReadResult): ReadResult = {
     val envelope =
       if (readResult.hasEnvelope) Some(dataEnvelopeFromProto(readResult.getEnvelope))
       else None
@@ -13,6 +13,8 @@
 
 package org.apache.pekko.cluster.ddata.protobuf
 
+import java.nio.ByteBuffer
+
 import scala.concurrent.duration._
 
 import com.typesafe.config.ConfigFactory
@@ -72,9 +74,21 @@ class ReplicatorMessageSerializerSpec
     val blob = serializer.toBinary(obj)
     val deserialized = serializer.fromBinary(blob, serializer.manifest(obj))
     deserialized should be(obj)
+    checkByteBufferSerialization(obj)
     deserialized.asInstanceOf[T]
   }
 
+  def checkByteBufferSerialization(obj: AnyRef): Unit = {
+    val buf = ByteBuffer.allocateDirect(64 * 1024)
+    serializer.toBinary(obj, buf)
+    buf.flip()
+    val deserialized = serializer.fromBinary(buf, serializer.manifest(obj))
+    // the buffer is reused by artery after deserialization, the result must not refer to it
+    buf.clear()
+    while (buf.hasRemaining) buf.put(0.toByte)
+    deserialized should be(obj)
+  }
+
   "ReplicatorMessageSerializer" must {
 
     "serialize Replicator messages" in {
@@ -86,7 +86,7 @@ object OSGi {
 
   val jackson = exports(Seq("org.apache.pekko.serialization.jackson.*"))
 
-  val remote = exports(Seq("org.apache.pekko.remote.*"))
+  val remote = exports(Seq("org.apache.pekko.remote.*"), imports = Seq(optionalResolution("net.jpountz.*")))
 
   val stream =
     exports(
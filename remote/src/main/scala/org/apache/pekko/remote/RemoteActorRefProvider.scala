@@ -13,6 +13,7 @@
 
 package org.apache.pekko.remote
 
+import scala.collection.immutable
 import scala.concurrent.Future
 import scala.util.Failure
 import scala.util.control.Exception.Catcher
@@ -753,6 +754,16 @@ private[pekko] class RemoteActorRef private[pekko] (
     catch handleException(message, sender)
   }
 
+  override def tellAll(messages: immutable.Iterable[Any], sender: ActorRef): Unit = {
+    if (messages.exists(_ == null)) throw InvalidMessageException("Message is null")
+    val senderOption = OptionVal(sender)
+    // only the message that failed goes to dead letters, the ones before it were already sent
+    messages.foreach { message =>
+      try remote.send(message, senderOption, this)
+      catch handleException(message, sender)
+    }
+  }
+
   override def provider: RemoteActorRefProvider = remote.provider
 
   def start(): Unit =
@@ -122,6 +122,13 @@ private[pekko] final class ArterySettings private (config: Config) {
 
     val OutboundLanes: Int = getInt("outbound-lanes").requiring(n => n > 0, "outbound-lanes must be greater than zero")
     val InboundLanes: Int = getInt("inbound-lanes").requiring(n => n > 0, "inbound-lanes must be greater than zero")
+    val LanePartitioningBySender: Boolean = toRootLowerCase(getString("lane-partitioning")) match {
+      case "recipient"            => false
+      case "sender-and-recipient" => true
+      case other =>
+        throw new IllegalArgumentException(
+          s"Unknown lane-partitioning [$other], possible values: \"recipient\" or \"sender-and-recipient\"")
+    }
     val SysMsgBufferSize: Int =
       getInt("system-message-buffer-size").requiring(_ > 0, "system-message-buffer-size must be more than zero")
     val OutboundMessageQueueSize: Int =
@@ -209,6 +216,10 @@ private[pekko] final class ArterySettings private (config: Config) {
       .requiring(_ >= 32 * 1024, "maximum-large-frame-size must be greater than or equal to 32 KiB")
     final val LargeBufferPoolSize: Int =
       getInt("large-buffer-pool-size").requiring(_ > 0, "large-buffer-pool-size must be greater than 0")
+    val BufferPoolTrimInterval: FiniteDuration =
+      config
+        .getMillisDuration("buffer-pool-trim-interval")
+        .requiring(interval => interval > Duration.Zero, "buffer-pool-trim-interval must be more than zero")
 
     object Aeron {
       val config: Config = getConfig("aeron")
@@ -257,6 +268,14 @@ private[pekko] final class ArterySettings private (config: Config) {
           case hostname => Some(hostname)
         }
       }
+      val OutboundBatchSize: Option[Int] =
+        if (toRootLowerCase(config.getString("outbound-batch-size")) == "off") None
+        else
+          Some(
+            math
+              .min(config.getBytes("outbound-batch-size"), Int.MaxValue)
+              .toInt
+              .requiring(_ > 0, "outbound-batch-size must be greater than 0"))
     }
 
   }
@@ -294,6 +313,32 @@ private[pekko] object ArterySettings {
       }
       final val Enabled = Max > 0
     }
+    object Payloads {
+      val config: Config = getConfig("payloads")
+      import config._
+
+      val Algorithm: String = toRootLowerCase(getString("algorithm")) match {
+        case "off" => "off"
+        case "lz4" =>
+          require(
+            PayloadCompression.isLz4Available,
+            "compression.payloads.algorithm = lz4 requires the org.lz4:lz4-java dependency on the classpath")
+          "lz4"
+        case other =>
+          throw new IllegalArgumentException(
+            s"Unknown compression.payloads.algorithm [$other], possible values: \"off\" or \"lz4\"")
+      }
+      val MinSize: Int = math
+        .min(getBytes("min-size"), Int.MaxValue)
+        .toInt
+        .requiring(_ > 0, "compression.payloads.min-size must be greater than 0")
+      val Destinations: WildcardIndex[NotUsed] =
+        getStringList("destinations").asScala.foldLeft(WildcardIndex[NotUsed]()) { (tree, entry) =>
+          val segments = entry.split('/').tail
+          tree.insert(segments, NotUsed)
+        }
+      final val Enabled = Algorithm != "off"
+    }
   }
   object Compression {
     // Compile time constants
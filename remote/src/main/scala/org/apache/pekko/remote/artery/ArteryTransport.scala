@@ -408,6 +408,7 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
     flightRecorder.transportStartupFinished()
 
     startRemoveQuarantinedAssociationTask()
+    startTrimEnvelopeBufferPoolsTask()
 
     if (localAddress.address == bindAddress.address)
       log.info(
@@ -443,6 +444,16 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
    */
   protected def runInboundStreams(port: Int, bindPort: Int): Unit
 
+  private def startTrimEnvelopeBufferPoolsTask(): Unit = {
+    val interval = settings.Advanced.BufferPoolTrimInterval
+    system.scheduler.scheduleWithFixedDelay(interval, interval) { () =>
+      if (!isShutdown) {
+        envelopeBufferPool.trim()
+        largeEnvelopeBufferPool.trim()
+      }
+    }(system.dispatchers.internalDispatcher)
+  }
+
   private def startRemoveQuarantinedAssociationTask(): Unit = {
     val removeAfter = settings.Advanced.RemoveQuarantinedAssociationAfter
     val interval = removeAfter / 2
@@ -452,9 +463,13 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
     }(system.dispatchers.internalDispatcher)
   }
 
+  private val lanePartitioningBySender = settings.Advanced.LanePartitioningBySender
+
   // Select inbound lane based on destination to preserve message order,
   // Also include the uid of the sending system in the hash to spread
   // "hot" destinations, e.g. ActorSelection anchor.
+  // With lane-partitioning=sender-and-recipient the sender is included too,
+  // which preserves the message order per sender and recipient.
   protected val inboundLanePartitioner: InboundEnvelope => Int = env => {
     env.recipient match {
       case OptionVal.Some(r) =>
@@ -462,7 +477,10 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
         val b = env.originUid
         val hashA = 23 + a
         val hash: Int = 23 * hashA + java.lang.Long.hashCode(b)
-        math.abs(hash % inboundLanes)
+        if (lanePartitioningBySender)
+          math.abs(ArteryTransport.senderHash(hash, env.sender) % inboundLanes)
+        else
+          math.abs(hash % inboundLanes)
       case _ =>
         // the lane is set by the DuplicateHandshakeReq stage, otherwise 0
         env.lane
@@ -651,6 +669,17 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
       // no need to explicitly shut down the contained access since it's lifecycle is bound to the Decoder
       _inboundCompressionAccess = OptionVal.None
 
+      if (log.isDebugEnabled) {
+        (envelopeBufferPool.stats ++ largeEnvelopeBufferPool.stats).foreach { s =>
+          if (s.outstanding > 0)
+            log.debug(
+              "[{}] envelope buffers of size [{}] were not released, high-water mark [{}]",
+              s.outstanding,
+              s.size,
+              s.highWaterMark)
+        }
+      }
+
       Done
     }
   }
@@ -831,7 +860,22 @@ private[remote] abstract class ArteryTransport(_system: ExtendedActorSystem, _pr
       pool: EnvelopeBufferPool,
       streamId: Int): Flow[OutboundEnvelope, EnvelopeBuffer, OutboundCompressionAccess] =
     Flow.fromGraph(
-      new Encoder(localAddress, system, outboundEnvelopePool, pool, streamId, settings.LogSend, settings.Version))
+      new Encoder(
+        localAddress,
+        system,
+        outboundEnvelopePool,
+        pool,
+        streamId,
+        settings.LogSend,
+        settings.Version,
+        createPayloadCompressor(streamId)))
+
+  private def createPayloadCompressor(streamId: Int): OptionVal[PayloadCompressor] = {
+    val payloads = settings.Advanced.Compression.Payloads
+    if (payloads.Enabled && streamId != ControlStreamId)
+      OptionVal.Some(new PayloadCompressor(payloads.MinSize, payloads.Destinations))
+    else OptionVal.None
+  }
 
   def createDecoder(
       settings: ArterySettings,
@@ -971,6 +1015,22 @@ private[remote] object ArteryTransport {
 
   final case class InboundStreamMatValues[LifeCycle](lifeCycle: LifeCycle, completed: Future[Done])
 
+  /**
+   * Combines the `hash` of the recipient with the uid of the sender,
+   * used for `lane-partitioning = sender-and-recipient`.
+   */
+  def senderHash(hash: Int, sender: OptionVal[ActorRef]): Int = sender match {
+    case OptionVal.Some(s) => 23 * hash + s.path.uid
+    case _                 => hash
+  }
+
+  /**
+   * The outbound lane of a message to `recipient` from the `sender` of the envelope,
+   * used for `lane-partitioning = sender-and-recipient`.
+   */
+  def outboundLane(recipient: ActorRef, sender: OptionVal[ActorRef], outboundLanes: Int): Int =
+    math.abs(senderHash(23 + recipient.path.uid, sender) % outboundLanes)
+
   val ControlStreamId = 1
   val OrdinaryStreamId = 2
   val LargeStreamId = 3
@@ -180,6 +180,7 @@ private[remote] class Association(
   }
 
   private val outboundLanes = advancedSettings.OutboundLanes
+  private val lanePartitioningBySender = advancedSettings.LanePartitioningBySender && outboundLanes > 1
   private val controlQueueSize = advancedSettings.OutboundControlQueueSize
   private val queueSize = advancedSettings.OutboundMessageQueueSize
   private val largeQueueSize = advancedSettings.OutboundLargeMessageQueueSize
@@ -439,7 +440,7 @@ private[remote] class Association(
             if (!controlQueue.offer(outboundEnvelope))
               dropped(ControlQueueIndex, controlQueueSize, outboundEnvelope)
           case _ =>
-            val queueIndex = selectQueue(recipient)
+            val queueIndex = selectQueue(recipient, sender)
             val queue = queues(queueIndex)
             val offerOk = queue.offer(outboundEnvelope)
             if (!offerOk)
@@ -457,37 +458,44 @@ private[remote] class Association(
         remoteAddress)
   }
 
-  private def selectQueue(recipient: OptionVal[RemoteActorRef]): Int = {
+  private def selectQueue(recipient: OptionVal[RemoteActorRef], sender: OptionVal[ActorRef]): Int = {
     recipient match {
       case OptionVal.Some(r) =>
-        r.cachedSendQueueIndex match {
-          case -1 =>
-            // only happens when messages are sent to new remote destination
-            // and is then cached on the RemoteActorRef
-            val elements = r.path.elements
-            val idx =
-              if (priorityMessageDestinations.find(elements).isDefined) {
-                log.debug("Using priority message stream for {}", r.path)
-                ControlQueueIndex
-              } else if (transport.largeMessageChannelEnabled && largeMessageDestinations.find(elements).isDefined) {
-                log.debug("Using large message stream for {}", r.path)
-                LargeQueueIndex
-              } else if (outboundLanes == 1) {
-                OrdinaryQueueIndex
-              } else {
-                // select lane based on destination, to preserve message order
-                OrdinaryQueueIndex + (math.abs(r.path.uid % outboundLanes))
-              }
-            r.cachedSendQueueIndex = idx
-            idx
-          case idx => idx
-        }
+        val idx = selectRecipientQueue(r)
+        if (lanePartitioningBySender && idx >= OrdinaryQueueIndex) {
+          // spread the messages to the recipient over the lanes, preserving the order per envelope sender
+          OrdinaryQueueIndex + ArteryTransport.outboundLane(r, sender, outboundLanes)
+        } else idx
 
       case _ =>
         OrdinaryQueueIndex
     }
   }
 
+  private def selectRecipientQueue(r: RemoteActorRef): Int =
+    r.cachedSendQueueIndex match {
+      case -1 =>
+        // only happens when messages are sent to new remote destination
+        // and is then cached on the RemoteActorRef
+        val elements = r.path.elements
+        val idx =
+          if (priorityMessageDestinations.find(elements).isDefined) {
+            log.debug("Using priority message stream for {}", r.path)
+            ControlQueueIndex
+          } else if (transport.largeMessageChannelEnabled && largeMessageDestinations.find(elements).isDefined) {
+            log.debug("Using large message stream for {}", r.path)
+            LargeQueueIndex
+          } else if (outboundLanes == 1) {
+            OrdinaryQueueIndex
+          } else {
+            // select lane based on destination, to preserve message order
+            OrdinaryQueueIndex + (math.abs(r.path.uid % outboundLanes))
+          }
+        r.cachedSendQueueIndex = idx
+        idx
+      case idx => idx
+    }
+
   override def isOrdinaryMessageStreamActive(): Boolean =
     isStreamActive(OrdinaryQueueIndex)
 
@@ -67,7 +67,8 @@ private[remote] class Encoder(
     bufferPool: EnvelopeBufferPool,
     @unused streamId: Int,
     debugLogSend: Boolean,
-    version: Byte)
+    version: Byte,
+    payloadCompressor: OptionVal[PayloadCompressor] = OptionVal.None)
     extends GraphStageWithMaterializedValue[
       FlowShape[OutboundEnvelope, EnvelopeBuffer],
       Encoder.OutboundCompressionAccess] {
@@ -125,7 +126,7 @@ private[remote] class Encoder(
 
       override def onPush(): Unit = {
         val outboundEnvelope = grab(in)
-        val envelope = bufferPool.acquire()
+        var envelope = bufferPool.acquire()
 
         headerBuilder.resetMessageFields()
         // don't use outbound compression for ArteryMessage, e.g. handshake messages must get through
@@ -161,6 +162,18 @@ private[remote] class Encoder(
             instruments.messageSent(outboundEnvelope, envelope.byteBuffer.position(), time)
           }
 
+          payloadCompressor match {
+            case OptionVal.Some(c) if c.shouldCompress(envelope, outboundEnvelope) =>
+              // room for the header and a compressed payload that is smaller than the payload
+              val compressed = bufferPool.acquire(envelope.byteBuffer.position())
+              if (c.compress(envelope, compressed)) {
+                bufferPool.release(envelope)
+                envelope = compressed
+              } else
+                bufferPool.release(compressed)
+            case _ =>
+          }
+
           envelope.byteBuffer.flip()
 
           if (debugLogSendEnabled)
@@ -666,21 +679,40 @@ private[remote] class Deserializer(
           s
       }
 
+      // lazy init, only needed when compressed payloads are received
+      private var _payloadDecompressor: OptionVal[PayloadDecompressor] = OptionVal.None
+      private def payloadDecompressor: PayloadDecompressor = _payloadDecompressor match {
+        case OptionVal.Some(d) => d
+        case _ =>
+          val d = new PayloadDecompressor
+          _payloadDecompressor = OptionVal.Some(d)
+          d
+      }
+
       override protected def logSource = classOf[Deserializer]
 
       override def onPush(): Unit = {
         val envelope = grab(in)
+        var decompressed: EnvelopeBuffer = null
 
         try {
           val startTime: Long = if (instruments.timeSerialization) System.nanoTime else 0
 
+          val payload =
+            if (envelope.flag(EnvelopeBuffer.CompressedPayloadFlag)) {
+              PayloadCompression.requireLz4()
+              decompressed = bufferPool.acquire(payloadDecompressor.uncompressedSize(envelope.envelopeBuffer))
+              payloadDecompressor.decompress(envelope.envelopeBuffer, decompressed)
+              decompressed
+            } else envelope.envelopeBuffer
+
           val deserializedMessage = MessageSerializer.deserializeForArtery(
             system,
             envelope.originUid,
             serialization,
             envelope.serializer,
             envelope.classManifest,
-            envelope.envelopeBuffer)
+            payload)
 
           val envelopeWithMessage = envelope.withMessage(deserializedMessage)
 
@@ -707,6 +739,7 @@ private[remote] class Deserializer(
           val buf = envelope.envelopeBuffer
           envelope.releaseEnvelopeBuffer()
           bufferPool.release(buf)
+          if (decompressed ne null) bufferPool.release(decompressed)
         }
       }
 
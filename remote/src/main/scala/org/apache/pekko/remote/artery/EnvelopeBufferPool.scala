@@ -14,6 +14,9 @@
 package org.apache.pekko.remote.artery
 
 import java.nio.{ ByteBuffer, ByteOrder }
+import java.util.concurrent.atomic.{ AtomicInteger, AtomicLong }
+import scala.annotation.tailrec
+import scala.collection.immutable
 import org.agrona.concurrent.{ ManyToManyConcurrentArrayQueue, UnsafeBuffer }
 import org.apache.pekko
 import pekko.actor.ActorRef
@@ -31,26 +34,138 @@ private[remote] class OutOfBuffersException extends RuntimeException("Out of usa
 /**
  * INTERNAL API
  */
-private[remote] class EnvelopeBufferPool(maximumPayload: Int, maximumBuffers: Int) {
-  private val availableBuffers = new ManyToManyConcurrentArrayQueue[EnvelopeBuffer](maximumBuffers)
+private[remote] object EnvelopeBufferPool {
 
-  def acquire(): EnvelopeBuffer = {
-    val buf = availableBuffers.poll()
-    if (buf ne null) {
-      buf.byteBuffer.clear()
-      buf
-    } else {
-      val newBuf = new EnvelopeBuffer(ByteBuffer.allocateDirect(maximumPayload))
-      newBuf.byteBuffer.order(ByteOrder.LITTLE_ENDIAN)
-      newBuf
+  /**
+   * The sizes of the buffers for small messages, smaller than the maximum payload.
+   */
+  val SizeClasses: immutable.IndexedSeq[Int] = Vector(1024, 8 * 1024, 64 * 1024)
+
+  /**
+   * @param size the capacity of the buffers of the size class
+   * @param pooled the number of buffers that are available in the pool
+   * @param outstanding the number of buffers that are acquired and not released yet, buffers that
+   *                    are never released are leaked
+   * @param highWaterMark the highest number of outstanding buffers
+   * @param allocated the number of buffers that were allocated because the pool was empty
+   * @param freed the number of buffers that were freed because the pool was full or was trimmed
+   */
+  final case class SizeClassStats(
+      size: Int,
+      pooled: Int,
+      outstanding: Int,
+      highWaterMark: Int,
+      allocated: Long,
+      freed: Long)
+
+  private final class SizeClass(val size: Int, maximumBuffers: Int) {
+    private val availableBuffers = new ManyToManyConcurrentArrayQueue[EnvelopeBuffer](maximumBuffers)
+    private val outstanding = new AtomicInteger
+    private val highWaterMark = new AtomicInteger
+    // highest number of outstanding buffers since the previous trim
+    private val peakSinceTrim = new AtomicInteger
+    private val allocated = new AtomicLong
+    private val freed = new AtomicLong
+
+    def acquire(): EnvelopeBuffer = {
+      val n = outstanding.incrementAndGet()
+      updateMax(highWaterMark, n)
+      updateMax(peakSinceTrim, n)
+      val buf = availableBuffers.poll()
+      if (buf ne null) {
+        buf.byteBuffer.clear()
+        buf
+      } else {
+        allocated.incrementAndGet()
+        val newBuf = new EnvelopeBuffer(ByteBuffer.allocateDirect(size))
+        newBuf.byteBuffer.order(ByteOrder.LITTLE_ENDIAN)
+        newBuf
+      }
+    }
+
+    def release(buffer: EnvelopeBuffer): Unit = {
+      outstanding.decrementAndGet()
+      if (!availableBuffers.offer(buffer)) free(buffer)
     }
+
+    def trim(): Unit = {
+      val inUse = outstanding.get
+      // keep as many pooled buffers as were needed for the peak since the previous trim
+      val keep = peakSinceTrim.getAndSet(inUse) - inUse
+      @tailrec def freeExcess(): Unit =
+        if (availableBuffers.size > keep) {
+          val buf = availableBuffers.poll()
+          if (buf ne null) {
+            free(buf)
+            freeExcess()
+          }
+        }
+      freeExcess()
+    }
+
+    def stats: SizeClassStats =
+      SizeClassStats(size, availableBuffers.size, outstanding.get, highWaterMark.get, allocated.get, freed.get)
+
+    private def free(buffer: EnvelopeBuffer): Unit = {
+      freed.incrementAndGet()
+      buffer.tryCleanDirectByteBuffer()
+    }
+
+    @tailrec private def updateMax(max: AtomicInteger, n: Int): Unit = {
+      val current = max.get
+      if (n > current && !max.compareAndSet(current, n)) updateMax(max, n)
+    }
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Pool of direct buffers in the [[EnvelopeBufferPool.SizeClasses]] that are smaller than `maximumPayload`,
+ * and of `maximumPayload` size. Each size class keeps up to `maximumBuffers` released buffers for reuse and
+ * allocates new buffers when it has none. The pooled buffers that were not needed since the previous
+ * `trim` are freed by `trim`, which is run periodically by the transport.
+ */
+private[remote] class EnvelopeBufferPool(maximumPayload: Int, maximumBuffers: Int) {
+  import EnvelopeBufferPool._
+
+  private val sizeClasses: Array[SizeClass] =
+    (SizeClasses.filter(_ < maximumPayload) :+ maximumPayload).map(new SizeClass(_, maximumBuffers)).toArray
+  private val largest = sizeClasses(sizeClasses.length - 1)
+
+  /**
+   * A buffer of `maximumPayload` size, when the size of the message isn't known in advance.
+   */
+  def acquire(): EnvelopeBuffer = largest.acquire()
+
+  /**
+   * A buffer of the smallest size class that has room for `size` bytes, or of `maximumPayload`
+   * size if `size` is larger.
+   */
+  def acquire(size: Int): EnvelopeBuffer = {
+    var i = 0
+    while (i < sizeClasses.length - 1 && sizeClasses(i).size < size) i += 1
+    sizeClasses(i).acquire()
   }
 
-  def release(buffer: EnvelopeBuffer) = {
+  def release(buffer: EnvelopeBuffer): Unit = {
     // only reuse direct buffers, e.g. not those wrapping ByteString
-    if (buffer.byteBuffer.isDirect && !availableBuffers.offer(buffer)) buffer.tryCleanDirectByteBuffer()
+    if (buffer.byteBuffer.isDirect) {
+      val capacity = buffer.byteBuffer.capacity
+      var i = 0
+      while (i < sizeClasses.length && sizeClasses(i).size != capacity) i += 1
+      if (i < sizeClasses.length) sizeClasses(i).release(buffer)
+      else buffer.tryCleanDirectByteBuffer()
+    }
   }
 
+  /**
+   * Free the pooled buffers that were not needed since the previous `trim`.
+   */
+  def trim(): Unit = sizeClasses.foreach(_.trim())
+
+  def stats: immutable.IndexedSeq[SizeClassStats] = sizeClasses.iterator.map(_.stats).toVector
+
 }
 
 /** INTERNAL API */
@@ -96,6 +211,8 @@ private[remote] object EnvelopeBuffer {
 
   // Flags (1 byte allocated for them)
   val MetadataPresentFlag = new ByteFlag(0x1)
+  // the payload is compressed, see PayloadCompression
+  val CompressedPayloadFlag = new ByteFlag(0x2)
 
   val VersionOffset = 0 // Byte
   val FlagsOffset = 1 // Byte
@@ -418,6 +535,10 @@ private[remote] final class EnvelopeBuffer(val byteBuffer: ByteBuffer) {
     else throw new IllegalStateException("StreamId was not set")
   def setStreamId(newStreamId: Int): Unit = _streamId = newStreamId
 
+  // Offset of the serialized payload, which follows the literals of the header.
+  private var _payloadOffset: Int = MetadataContainerAndLiteralSectionOffset
+  def payloadOffset: Int = _payloadOffset
+
   def writeHeader(h: HeaderBuilder): Unit = writeHeader(h, null)
 
   def writeHeader(h: HeaderBuilder, oe: OutboundEnvelope): Unit = {
@@ -463,6 +584,8 @@ private[remote] final class EnvelopeBuffer(val byteBuffer: ByteBuffer) {
       byteBuffer.putInt(ClassManifestTagOffset, header._manifestIdx | TagTypeMask)
     else
       writeLiteral(ClassManifestTagOffset, header._manifest)
+
+    _payloadOffset = byteBuffer.position()
   }
 
   def parseHeader(h: HeaderBuilder): Unit = {
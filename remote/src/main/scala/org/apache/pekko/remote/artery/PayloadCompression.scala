@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import scala.util.Try
+
+import net.jpountz.lz4.LZ4Exception
+import net.jpountz.lz4.LZ4Factory
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.util.OptionVal
+import pekko.util.WildcardIndex
+
+/**
+ * INTERNAL API
+ *
+ * Block compression of the serialized payload of large messages, with LZ4.
+ *
+ * A compressed payload is marked with the [[EnvelopeBuffer.CompressedPayloadFlag]] and consists of
+ * the length of the uncompressed payload (Int) followed by the LZ4 block. The envelope header is
+ * not compressed.
+ */
+private[remote] object PayloadCompression {
+
+  final val UncompressedLengthSize = 4
+
+  /**
+   * lz4-java is an optional dependency, checked before any of its classes are used so that
+   * a missing dependency is reported with a clear error.
+   */
+  lazy val isLz4Available: Boolean =
+    Try(Class.forName("net.jpountz.lz4.LZ4Factory", false, getClass.getClassLoader)).isSuccess
+
+  private[remote] def requireLz4(): Unit =
+    if (!isLz4Available)
+      throw new IllegalStateException(
+        "Compression of message payloads requires the org.lz4:lz4-java dependency on the classpath")
+}
+
+/**
+ * INTERNAL API
+ *
+ * Compresses the payloads of outbound messages that are at least `minSize` bytes and are sent to one of the
+ * `destinations`, or to any destination if `destinations` is empty. Used by one [[Encoder]], not thread-safe.
+ */
+private[remote] final class PayloadCompressor(minSize: Int, destinations: WildcardIndex[NotUsed]) {
+  import EnvelopeBuffer._
+  import PayloadCompression._
+
+  requireLz4()
+
+  private val compressor = LZ4Factory.fastestInstance().fastCompressor()
+  private val allDestinations = destinations.wildcardTree.isEmpty && destinations.doubleWildcardTree.isEmpty
+
+  def shouldCompress(envelope: EnvelopeBuffer, outboundEnvelope: OutboundEnvelope): Boolean =
+    envelope.byteBuffer.position() - envelope.payloadOffset >= minSize && (allDestinations ||
+    (outboundEnvelope.recipient match {
+      case OptionVal.Some(r) => destinations.find(r.path.elements).isDefined
+      case _                 => false
+    }))
+
+  /**
+   * Writes the header of `envelope` followed by the compressed payload to `into`, with the position
+   * of `into` after the written bytes. Returns `false` without compressing if the compressed payload
+   * would not be smaller than the payload.
+   */
+  def compress(envelope: EnvelopeBuffer, into: EnvelopeBuffer): Boolean = {
+    val src = envelope.byteBuffer
+    val dest = into.byteBuffer
+    val payloadOffset = envelope.payloadOffset
+    val payloadSize = src.position() - payloadOffset
+    val compressedOffset = payloadOffset + UncompressedLengthSize
+    val maxCompressedSize = math.min(payloadSize - UncompressedLengthSize - 1, dest.capacity - compressedOffset)
+    try {
+      val compressedSize =
+        compressor.compress(src, payloadOffset, payloadSize, dest, compressedOffset, maxCompressedSize)
+      into.aeronBuffer.putBytes(0, envelope.aeronBuffer, 0, payloadOffset)
+      dest.put(FlagsOffset, (src.get(FlagsOffset) | CompressedPayloadFlag.mask).toByte)
+      dest.putInt(payloadOffset, payloadSize)
+      dest.clear()
+      dest.position(compressedOffset + compressedSize)
+      true
+    } catch {
+      case _: LZ4Exception => false // not compressible to a smaller size
+    }
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Decompresses the payloads of inbound messages that were compressed by [[PayloadCompressor]].
+ * Used by one [[Deserializer]], not thread-safe.
+ */
+private[remote] final class PayloadDecompressor {
+  import PayloadCompression._
+
+  requireLz4()
+
+  private val decompressor = LZ4Factory.fastestInstance().safeDecompressor()
+
+  /**
+   * The size of the decompressed payload of `envelope`, which starts at its position.
+   */
+  def uncompressedSize(envelope: EnvelopeBuffer): Int =
+    envelope.byteBuffer.getInt(envelope.byteBuffer.position())
+
+  /**
+   * Decompresses the payload of `envelope`, which starts at its position, to `into`, with the
+   * position of `into` at the start and the limit after the decompressed payload.
+   */
+  def decompress(envelope: EnvelopeBuffer, into: EnvelopeBuffer): Unit = {
+    val src = envelope.byteBuffer
+    val dest = into.byteBuffer
+    val payloadOffset = src.position()
+    val payloadSize = uncompressedSize(envelope)
+    if (payloadSize < 0 || payloadSize > dest.capacity)
+      throw new IllegalArgumentException(
+        s"Uncompressed payload size [$payloadSize] exceeds the maximum frame size [${dest.capacity}]")
+    val compressedOffset = payloadOffset + UncompressedLengthSize
+    val size =
+      decompressor.decompress(src, compressedOffset, src.limit() - compressedOffset, dest, 0, payloadSize)
+    if (size != payloadSize)
+      throw new IllegalArgumentException(s"Decompressed payload size [$size] is not [$payloadSize]")
+    dest.clear()
+    dest.limit(payloadSize)
+  }
+}
@@ -68,7 +68,7 @@ private[remote] object AeronSource {
   class Fragments(onMessage: EnvelopeBuffer => Unit, pool: EnvelopeBufferPool)
       extends FragmentAssembler(new FragmentHandler {
         override def onFragment(aeronBuffer: DirectBuffer, offset: Int, length: Int, header: Header): Unit = {
-          val envelope = pool.acquire()
+          val envelope = pool.acquire(length)
           aeronBuffer.getBytes(offset, envelope.byteBuffer, length)
           envelope.byteBuffer.flip()
           onMessage(envelope)
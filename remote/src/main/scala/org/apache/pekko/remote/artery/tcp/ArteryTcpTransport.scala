@@ -225,17 +225,22 @@ private[remote] class ArteryTcpTransport(
 
     }
 
-    Flow[EnvelopeBuffer]
-      .map { env =>
-        val size = env.byteBuffer.limit()
-        flightRecorder.tcpOutboundSent(size)
+    val framing: Flow[EnvelopeBuffer, ByteString, NotUsed] = settings.Advanced.Tcp.OutboundBatchSize match {
+      case Some(maxBatchSize) =>
+        Flow.fromGraph(new TcpFrameBatching(maxBatchSize, bufferPool, flightRecorder))
+      case None =>
+        Flow[EnvelopeBuffer].map { env =>
+          val size = env.byteBuffer.limit()
+          flightRecorder.tcpOutboundSent(size)
 
-        // TODO Possible performance improvement, could we reduce the copying of bytes?
-        val bytes = ByteString(env.byteBuffer)
-        bufferPool.release(env)
+          val bytes = ByteString(env.byteBuffer)
+          bufferPool.release(env)
 
-        TcpFraming.encodeFrameHeader(size) ++ bytes
-      }
+          TcpFraming.encodeFrameHeader(size) ++ bytes
+        }
+    }
+
+    framing
       .via(connectionFlowWithRestart)
       .map(_ =>
         throw new IllegalStateException(
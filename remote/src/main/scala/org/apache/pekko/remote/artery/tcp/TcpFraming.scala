@@ -20,12 +20,18 @@ import java.nio.ByteOrder
 import org.apache.pekko
 import pekko.annotation.InternalApi
 import pekko.stream.Attributes
+import pekko.stream.FlowShape
+import pekko.stream.Inlet
+import pekko.stream.Outlet
 import pekko.stream.impl.io.ByteStringParser
 import pekko.stream.impl.io.ByteStringParser.ByteReader
 import pekko.stream.impl.io.ByteStringParser.ParseResult
 import pekko.stream.impl.io.ByteStringParser.ParseStep
 import pekko.stream.scaladsl.Framing.FramingException
+import pekko.stream.stage.GraphStage
 import pekko.stream.stage.GraphStageLogic
+import pekko.stream.stage.InHandler
+import pekko.stream.stage.OutHandler
 import pekko.util.ByteString
 
 /**
@@ -40,6 +46,8 @@ import pekko.util.ByteString
    */
   val Magic = ByteString('A'.toByte, 'K'.toByte, 'K'.toByte, 'A'.toByte)
 
+  val FrameHeaderSize = 4
+
   /**
    * When establishing the connection this header is sent first.
    * It contains a "magic" and the stream identifier for selecting control, ordinary, large
@@ -114,3 +122,90 @@ import pekko.util.ByteString
     }
   }
 }
+
+/**
+ * INTERNAL API
+ *
+ * Encodes the envelopes as frames. The frames of envelopes that arrive while the downstream
+ * is backpressuring are copied into one batch of up to `maxBatchSize` bytes, so that many small
+ * messages are passed to the TCP connection as one contiguous `ByteString`. The frames are the
+ * same as when they are encoded one by one, so this doesn't need anything on the receiving side.
+ */
+@InternalApi private[pekko] class TcpFrameBatching(
+    maxBatchSize: Int,
+    bufferPool: EnvelopeBufferPool,
+    flightRecorder: RemotingFlightRecorder = NoOpRemotingFlightRecorder)
+    extends GraphStage[FlowShape[EnvelopeBuffer, ByteString]] {
+  import TcpFraming.FrameHeaderSize
+
+  val in: Inlet[EnvelopeBuffer] = Inlet("Artery.TcpFrameBatching.in")
+  val out: Outlet[ByteString] = Outlet("Artery.TcpFrameBatching.out")
+  override val shape: FlowShape[EnvelopeBuffer, ByteString] = FlowShape(in, out)
+
+  override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+    new GraphStageLogic(shape) with InHandler with OutHandler {
+      private var batch: Array[Byte] = null
+      private var batchLength = 0
+      // received envelope that didn't fit in the batch
+      private var pending: EnvelopeBuffer = null
+
+      override def preStart(): Unit = pull(in)
+
+      override def onPush(): Unit = {
+        val envelope = grab(in)
+        if ((batch eq null) || batchLength + FrameHeaderSize + envelope.byteBuffer.limit() <= batch.length) {
+          append(envelope)
+          if (isAvailable(out)) flush()
+          pull(in)
+        } else
+          pending = envelope
+      }
+
+      override def onPull(): Unit =
+        if (batch ne null) {
+          flush()
+          if (pending ne null) {
+            val envelope = pending
+            pending = null
+            append(envelope)
+            if (!isClosed(in)) pull(in)
+          } else if (isClosed(in))
+            completeStage()
+        }
+
+      override def onUpstreamFinish(): Unit =
+        if (batch eq null) completeStage()
+
+      override def postStop(): Unit =
+        if (pending ne null) {
+          bufferPool.release(pending)
+          pending = null
+        }
+
+      private def append(envelope: EnvelopeBuffer): Unit = {
+        val size = envelope.byteBuffer.limit()
+        if (batch eq null) {
+          // a single frame when it can be pushed right away, otherwise room for more frames
+          val frameSize = FrameHeaderSize + size
+          batch = new Array[Byte](if (isAvailable(out)) frameSize else math.max(maxBatchSize, frameSize))
+          batchLength = 0
+        }
+        flightRecorder.tcpOutboundSent(size)
+        batch(batchLength) = (size & 0xFF).toByte
+        batch(batchLength + 1) = ((size & 0xFF00) >> 8).toByte
+        batch(batchLength + 2) = ((size & 0xFF0000) >> 16).toByte
+        batch(batchLength + 3) = ((size & 0xFF000000) >> 24).toByte
+        envelope.byteBuffer.get(batch, batchLength + FrameHeaderSize, size)
+        batchLength += FrameHeaderSize + size
+        bufferPool.release(envelope)
+      }
+
+      private def flush(): Unit = {
+        push(out, ByteString.fromArrayUnsafe(batch, 0, batchLength))
+        batch = null
+        batchLength = 0
+      }
+
+      setHandlers(in, out, this)
+    }
+}
@@ -14,6 +14,7 @@
 package org.apache.pekko.remote.serialization
 
 import java.io.NotSerializableException
+import java.nio.ByteBuffer
 import java.nio.charset.StandardCharsets
 import java.util.Optional
 import java.util.concurrent.TimeUnit
@@ -29,10 +30,19 @@ import pekko.remote._
 import pekko.remote.WireFormats.AddressData
 import pekko.remote.routing.RemoteRouterConfig
 import pekko.routing._
-import pekko.serialization.{ BaseSerializer, Serialization, SerializationExtension, SerializerWithStringManifest }
+import pekko.serialization.{
+  BaseSerializer,
+  ByteBufferSerializer,
+  Serialization,
+  SerializationExtension,
+  SerializerWithStringManifest
+}
 import pekko.util.ccompat.JavaConverters._
 
-class MiscMessageSerializer(val system: ExtendedActorSystem) extends SerializerWithStringManifest with BaseSerializer {
+class MiscMessageSerializer(val system: ExtendedActorSystem)
+    extends SerializerWithStringManifest
+    with ByteBufferSerializer
+    with BaseSerializer {
 
   // WARNING! This must lazy otherwise it will deadlock the ActorSystem creation
   private lazy val serialization = SerializationExtension(system)
@@ -430,6 +440,21 @@ class MiscMessageSerializer(val system: ExtendedActorSystem) extends SerializerW
           s"Unimplemented deserialization of message with manifest [$manifest] in [${getClass.getName}]")
     }
 
+  // buffer based avoiding a copy for artery, most of these messages are empty or small
+  override def toBinary(obj: AnyRef, buf: ByteBuffer): Unit =
+    buf.put(toBinary(obj))
+
+  override def fromBinary(buf: ByteBuffer, manifest: String): AnyRef = manifest match {
+    case RemoteWatcherHBRespManifest =>
+      RemoteWatcher.HeartbeatRsp(ContainerFormats.WatcherHeartbeatResponse.parseFrom(buf).getUid.toInt)
+    case _ if !buf.hasRemaining =>
+      fromBinary(ParameterlessSerializedMessage, manifest)
+    case _ =>
+      val bytes = new Array[Byte](buf.remaining)
+      buf.get(bytes)
+      fromBinary(bytes, manifest)
+  }
+
   private def deserializeIdentify(bytes: Array[Byte]): Identify = {
     val identifyProto = ContainerFormats.Identify.parseFrom(bytes)
     val messageId = payloadSupport.deserializePayload(identifyProto.getMessageId)
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import java.nio.ByteBuffer
+
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class EnvelopeBufferPoolSpec extends AnyWordSpec with Matchers {
+
+  private val MaximumPayload = 256 * 1024
+
+  private def stats(pool: EnvelopeBufferPool, size: Int): EnvelopeBufferPool.SizeClassStats =
+    pool.stats.find(_.size == size).get
+
+  "The EnvelopeBufferPool" must {
+
+    "have size classes up to the maximum payload" in {
+      new EnvelopeBufferPool(MaximumPayload, 4).stats.map(_.size) should ===(
+        Vector(1024, 8 * 1024, 64 * 1024, MaximumPayload))
+      new EnvelopeBufferPool(64 * 1024, 4).stats.map(_.size) should ===(Vector(1024, 8 * 1024, 64 * 1024))
+      new EnvelopeBufferPool(4000, 4).stats.map(_.size) should ===(Vector(1024, 4000))
+    }
+
+    "acquire buffers of the smallest size class that has room for the size" in {
+      val pool = new EnvelopeBufferPool(MaximumPayload, 4)
+      pool.acquire().byteBuffer.capacity should ===(MaximumPayload)
+      pool.acquire(1).byteBuffer.capacity should ===(1024)
+      pool.acquire(1024).byteBuffer.capacity should ===(1024)
+      pool.acquire(1025).byteBuffer.capacity should ===(8 * 1024)
+      pool.acquire(10000).byteBuffer.capacity should ===(64 * 1024)
+      pool.acquire(100000).byteBuffer.capacity should ===(MaximumPayload)
+      pool.acquire(MaximumPayload + 1).byteBuffer.capacity should ===(MaximumPayload)
+    }
+
+    "reuse released buffers of the same size class" in {
+      val pool = new EnvelopeBufferPool(MaximumPayload, 4)
+      val buf = pool.acquire(100)
+      buf.byteBuffer.put(17.toByte)
+      pool.release(buf)
+      val buf2 = pool.acquire(200)
+      (buf2 should be).theSameInstanceAs(buf)
+      buf2.byteBuffer.position() should ===(0)
+      pool.acquire(2000) should not be theSameInstanceAs(buf)
+      stats(pool, 1024).allocated should ===(1L)
+    }
+
+    "count outstanding buffers and the high-water mark" in {
+      val pool = new EnvelopeBufferPool(MaximumPayload, 4)
+      val buffers = (1 to 3).map(_ => pool.acquire(100))
+      pool.release(buffers.head)
+      val s = stats(pool, 1024)
+      s.outstanding should ===(2)
+      s.highWaterMark should ===(3)
+      s.pooled should ===(1)
+      stats(pool, MaximumPayload).outstanding should ===(0)
+    }
+
+    "free the released buffers that don't fit in the pool" in {
+      val pool = new EnvelopeBufferPool(MaximumPayload, 2)
+      val buffers = (1 to 5).map(_ => pool.acquire(100))
+      buffers.foreach(pool.release)
+      val s = stats(pool, 1024)
+      s.pooled should ===(2)
+      s.freed should ===(3L)
+      s.outstanding should ===(0)
+    }
+
+    "not pool buffers that it didn't allocate" in {
+      val pool = new EnvelopeBufferPool(MaximumPayload, 4)
+      pool.release(new EnvelopeBuffer(ByteBuffer.allocate(1024)))
+      pool.release(new EnvelopeBuffer(ByteBuffer.allocateDirect(1000)))
+      pool.stats.map(_.pooled).sum should ===(0)
+    }
+
+    "free the pooled buffers that were not needed since the previous trim" in {
+      val pool = new EnvelopeBufferPool(MaximumPayload, 16)
+      val burst = (1 to 10).map(_ => pool.acquire(100))
+      burst.foreach(pool.release)
+      stats(pool, 1024).pooled should ===(10)
+
+      // the buffers were needed for the burst since the pool was created
+      pool.trim()
+      stats(pool, 1024).pooled should ===(10)
+
+      val buffers = (1 to 3).map(_ => pool.acquire(100))
+      buffers.foreach(pool.release)
+      pool.trim()
+      stats(pool, 1024).pooled should ===(3)
+      stats(pool, 1024).freed should ===(7L)
+
+      pool.trim()
+      stats(pool, 1024).pooled should ===(0)
+      stats(pool, 1024).highWaterMark should ===(10)
+    }
+  }
+}
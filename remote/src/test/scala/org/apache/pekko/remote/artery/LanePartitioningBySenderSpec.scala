@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import scala.concurrent.duration._
+
+import org.apache.pekko
+import pekko.actor.{ Actor, ActorIdentity, ActorRef, ExtendedActorSystem, Identify, Props }
+import pekko.pattern.{ ask, PromiseActorRef }
+import pekko.testkit.{ ImplicitSender, TestProbe }
+import pekko.util.{ OptionVal, Timeout }
+
+object LanePartitioningBySenderSpec {
+  class Echo extends Actor {
+    def receive = {
+      case msg => sender() ! msg
+    }
+  }
+}
+
+class LanePartitioningBySenderSpec extends ArteryMultiNodeSpec("""
+    pekko.remote.artery.advanced.outbound-lanes = 3
+    pekko.remote.artery.advanced.inbound-lanes = 3
+    pekko.remote.artery.advanced.lane-partitioning = sender-and-recipient
+    """) with ImplicitSender {
+
+  import LanePartitioningBySenderSpec._
+
+  private val Lanes = 3
+  private val systemB = newRemoteSystem()
+
+  private def remoteEcho(): ActorRef = {
+    systemB.actorOf(Props(new Echo), "echo")
+    system.actorSelection(rootActorPath(systemB) / "user" / "echo") ! Identify(None)
+    expectMsgType[ActorIdentity].ref.get
+  }
+
+  private lazy val echo = remoteEcho()
+
+  "Lane partitioning by sender and recipient" must {
+
+    "deliver a tell followed by an ask to the same recipient" in {
+      val probe = TestProbe()
+      echo.tell("tell", probe.ref)
+      val reply = echo.ask("ask")(Timeout(5.seconds))
+      // both are delivered, but as documented the ask may overtake the tell
+      probe.expectMsg("tell")
+      reply.futureValue should ===("ask")
+    }
+
+    "partition a tell and an ask from the same actor by their envelope senders" in {
+      val provider = system.asInstanceOf[ExtendedActorSystem].provider
+      val askRef = PromiseActorRef(provider, Timeout(5.seconds), echo, "String", echo.path.name)
+      try {
+        val askLane = ArteryTransport.outboundLane(echo, OptionVal.Some(askRef), Lanes)
+        // the ask uses the lane of its temporary sender, which for some sending actors is another
+        // lane than the one of their tells, so the ask may overtake a tell that was sent before it
+        val actors = (1 to 20).map(_ => system.actorOf(Props.empty))
+        val tellLanes = actors.map(a => ArteryTransport.outboundLane(echo, OptionVal.Some(a), Lanes))
+        tellLanes.exists(_ != askLane) should ===(true)
+        actors.foreach(system.stop)
+      } finally askRef.stop()
+
+      // messages without sender are partitioned by the recipient only
+      ArteryTransport.outboundLane(echo, OptionVal.None, Lanes) should ===(math.abs((23 + echo.path.uid) % Lanes))
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.remote.artery
+
+import java.nio.{ ByteBuffer, ByteOrder }
+
+import scala.concurrent.duration._
+import scala.util.Random
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.actor.{ Actor, Props }
+import pekko.testkit.{ JavaSerializable, TestProbe }
+import pekko.util.{ ByteString, OptionVal, WildcardIndex }
+
+object PayloadCompressionSpec {
+  final case class Ping(payload: ByteString) extends JavaSerializable
+  final case class Pong(payload: ByteString) extends JavaSerializable
+
+  class Echo extends Actor {
+    def receive = {
+      case Ping(bytes) => sender() ! Pong(bytes)
+    }
+  }
+}
+
+class PayloadCompressionSpec extends ArteryMultiNodeSpec("""
+    pekko.remote.artery.advanced.compression.payloads {
+      algorithm = lz4
+      min-size = 1 KiB
+    }
+    """) {
+
+  import PayloadCompressionSpec._
+
+  private val systemB = newRemoteSystem()
+
+  private def newEnvelopeBuffer() =
+    new EnvelopeBuffer(ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN))
+
+  private def writeEnvelope(payload: Array[Byte]): EnvelopeBuffer = {
+    val header = HeaderBuilder.out()
+    header.setVersion(ArteryTransport.HighestVersion)
+    header.setUid(42)
+    header.setSerializer(4)
+    header.setNoRecipient()
+    header.setNoSender()
+    header.setManifest("manifest")
+    val envelope = newEnvelopeBuffer()
+    envelope.writeHeader(header)
+    envelope.byteBuffer.put(payload)
+    envelope
+  }
+
+  private val outboundEnvelope = OutboundEnvelope(OptionVal.None, "msg", OptionVal.None)
+
+  "Payload compression" must {
+
+    "compress and decompress a compressible payload" in {
+      val payload = Array.tabulate[Byte](20000)(i => (i % 10).toByte)
+      val envelope = writeEnvelope(payload)
+      val compressor = new PayloadCompressor(1024, WildcardIndex[NotUsed]())
+      compressor.shouldCompress(envelope, outboundEnvelope) should ===(true)
+
+      val compressed = newEnvelopeBuffer()
+      compressor.compress(envelope, compressed) should ===(true)
+      compressed.byteBuffer.position() should be < (envelope.byteBuffer.position() / 10)
+      compressed.byteBuffer.flip()
+
+      val header = HeaderBuilder.in(compress.NoInboundCompressions)
+      compressed.parseHeader(header)
+      header.flag(EnvelopeBuffer.CompressedPayloadFlag) should ===(true)
+      header.serializer should ===(4)
+      header.manifest(42).get should ===("manifest")
+
+      val decompressed = newEnvelopeBuffer()
+      new PayloadDecompressor().decompress(compressed, decompressed)
+      val result = new Array[Byte](decompressed.byteBuffer.remaining)
+      decompressed.byteBuffer.get(result)
+      result.toVector should ===(payload.toVector)
+    }
+
+    "not compress small or incompressible payloads" in {
+      val compressor = new PayloadCompressor(1024, WildcardIndex[NotUsed]())
+      compressor.shouldCompress(writeEnvelope(new Array[Byte](100)), outboundEnvelope) should ===(false)
+
+      val random = new Array[Byte](20000)
+      new Random(17).nextBytes(random)
+      compressor.compress(writeEnvelope(random), newEnvelopeBuffer()) should ===(false)
+    }
+
+    "only compress payloads for the configured destinations" in {
+      val compressor = new PayloadCompressor(1024, WildcardIndex[NotUsed]().insert(Array("user", "large"), NotUsed))
+      compressor.shouldCompress(writeEnvelope(new Array[Byte](20000)), outboundEnvelope) should ===(false)
+    }
+
+    "send compressible and incompressible messages to a remote system" in {
+      systemB.actorOf(Props(new Echo), "echo")
+      val probe = TestProbe()
+      system.actorSelection(rootActorPath(systemB) / "user" / "echo").tell(Ping(ByteString("hello")), probe.ref)
+      probe.expectMsg(Pong(ByteString("hello")))
+      val echo = probe.lastSender
+
+      val compressible = ByteString(Array.tabulate[Byte](100000)(i => (i % 10).toByte))
+      echo.tell(Ping(compressible), probe.ref)
+      probe.expectMsg(10.seconds, Pong(compressible))
+
+      val random = new Array[Byte](100000)
+      new Random(17).nextBytes(random)
+      val incompressible = ByteString(random)
+      echo.tell(Ping(incompressible), probe.ref)
+      probe.expectMsg(10.seconds, Pong(incompressible))
+    }
+  }
+}
@@ -61,6 +61,14 @@ class ArteryTcpSendConsistencyWithThreeLanesSpec
       pekko.remote.artery.advanced.inbound-lanes = 3
     """).withFallback(ArterySpecSupport.defaultConfig))
 
+class ArteryTcpSendConsistencyWithThreeLanesBySenderSpec
+    extends AbstractRemoteSendConsistencySpec(ConfigFactory.parseString("""
+      pekko.remote.artery.transport = tcp
+      pekko.remote.artery.advanced.outbound-lanes = 3
+      pekko.remote.artery.advanced.inbound-lanes = 3
+      pekko.remote.artery.advanced.lane-partitioning = sender-and-recipient
+    """).withFallback(ArterySpecSupport.defaultConfig))
+
 class ArteryTlsTcpSendConsistencyWithOneLaneSpec
     extends AbstractRemoteSendConsistencySpec(ConfigFactory.parseString("""
       pekko.remote.artery.transport = tls-tcp
@@ -184,6 +192,23 @@ abstract class AbstractRemoteSendConsistencySpec(config: Config)
       }
     }
 
+    "preserve the order of the messages sent with tellAll" in {
+      systemB.actorOf(TestActors.echoActorProps, "echoBatch")
+      val remoteRef = actorRefBySelection(rootB / "user" / "echoBatch")
+
+      remoteRef.tellAll((1 to 1000).toList, testActor)
+      within(10.seconds) {
+        (1 to 1000).foreach(expectMsg(_))
+      }
+
+      // and from several senders concurrently, each batch in order
+      val probes = (1 to 3).map(_ => TestProbe())
+      probes.foreach(p => remoteRef.tellAll((1 to 1000).toList, p.ref))
+      within(10.seconds) {
+        probes.foreach(p => (1 to 1000).foreach(p.expectMsg(_)))
+      }
+    }
+
     "be able to send messages with actorSelection concurrently preserving order" in {
       systemB.actorOf(TestActors.echoActorProps, "echoA2")
       systemB.actorOf(TestActors.echoActorProps, "echoB2")
@@ -14,6 +14,7 @@
 package org.apache.pekko.remote.artery
 package tcp
 
+import scala.concurrent.duration._
 import scala.util.Random
 
 import org.apache.pekko
@@ -110,4 +111,60 @@ class TcpFramingSpec extends PekkoSpec("""
 
   }
 
+  "TcpFrameBatching stage" must {
+    val pool = new EnvelopeBufferPool(1024, 16)
+
+    def envelope(payload: ByteString): EnvelopeBuffer = {
+      val env = pool.acquire()
+      env.byteBuffer.put(payload.toArray)
+      env.byteBuffer.flip()
+      env
+    }
+
+    def payload(n: Int): ByteString = ByteString(Array.fill[Byte](n % 300 + 1)(n.toByte))
+
+    "encode the same frames as when encoded one by one" in {
+      val payloads = (1 to 200).map(payload)
+      val expected = payloads.foldLeft(ByteString.empty)((acc, p) => acc ++ encodeFrameHeader(p.size) ++ p)
+      val batches = Source(payloads)
+        .map(envelope)
+        .via(new TcpFrameBatching(1000, pool))
+        .runWith(Sink.seq)
+        .futureValue
+      batches.foldLeft(ByteString.empty)(_ ++ _) should ===(expected)
+      batches.foreach(b => b.size should be <= 1000)
+    }
+
+    "batch the frames when downstream is slow" in {
+      val payloads = (1 to 200).map(payload)
+      val batches = Source(payloads)
+        .map(envelope)
+        .via(new TcpFrameBatching(1000, pool))
+        .throttle(1, 10.millis)
+        .runWith(Sink.seq)
+        .futureValue
+      batches.size should be < payloads.size / 2
+      val frames =
+        Source(TcpFraming.encodeConnectionHeader(1) +: batches).via(framingFlow).runWith(Sink.seq).futureValue
+      frames.map { frame =>
+        val bytes = new Array[Byte](frame.byteBuffer.limit())
+        frame.byteBuffer.get(bytes)
+        ByteString(bytes)
+      } should ===(payloads)
+    }
+
+    "pass frames larger than the batch size" in {
+      val large = ByteString(Array.fill[Byte](900)(7))
+      val payloads = List(payload(1), large, payload(2), large)
+      val batches = Source(payloads)
+        .map(envelope)
+        .via(new TcpFrameBatching(500, pool))
+        .throttle(1, 10.millis)
+        .runWith(Sink.seq)
+        .futureValue
+      val expected = payloads.foldLeft(ByteString.empty)((acc, p) => acc ++ encodeFrameHeader(p.size) ++ p)
+      batches.foldLeft(ByteString.empty)(_ ++ _) should ===(expected)
+    }
+  }
+
 }
@@ -14,6 +14,7 @@
 package org.apache.pekko.remote.serialization
 
 import java.io.NotSerializableException
+import java.nio.ByteBuffer
 import java.util.Optional
 import java.util.concurrent.TimeoutException
 
@@ -175,14 +176,20 @@ class MiscMessageSerializerSpec extends PekkoSpec(MiscMessageSerializerSpec.test
     def verifySerialization(msg: AnyRef): Unit = {
       val serializer = new MiscMessageSerializer(system.asInstanceOf[ExtendedActorSystem])
       val result = serializer.fromBinary(serializer.toBinary(msg), serializer.manifest(msg))
-      msg match {
-        case t: Throwable =>
-          import org.scalactic.TripleEquals.unconstrainedEquality
-          // typically no equals in exceptions
-          result.getClass should ===(t.getClass)
-          result.asInstanceOf[Throwable].getMessage should ===(t.getMessage)
-        case _ =>
-          result should ===(msg)
+      val buf = ByteBuffer.allocate(64 * 1024)
+      serializer.toBinary(msg, buf)
+      buf.flip()
+      val bufResult = serializer.fromBinary(buf, serializer.manifest(msg))
+      List(result, bufResult).foreach { r =>
+        msg match {
+          case t: Throwable =>
+            import org.scalactic.TripleEquals.unconstrainedEquality
+            // typically no equals in exceptions
+            r.getClass should ===(t.getClass)
+            r.asInstanceOf[Throwable].getMessage should ===(t.getMessage)
+          case _ =>
+            r should ===(msg)
+        }
       }
     }
 